@@ -0,0 +1,85 @@
+package app.benchmark;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import app.service.ColunasFuncionarios;
+import app.service.ColunasFuncionarios.Agrupamento;
+import app.service.ColunasFuncionarios.Grupos;
+
+// Agregações da cópia colunar com milhões de linhas: em paralelo (fork/join) e numa única thread
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AnaliseBenchmark {
+
+    private static final String[] CARGOS = { "Analista", "Desenvolvedor", "Gerente", "Arquiteto", "Estagiário" };
+
+    @Param({"1000000", "5000000"})
+    public int funcionarios;
+
+    private ColunasFuncionarios paralelo;
+    private ColunasFuncionarios sequencial;
+
+    @Setup
+    public void preparar() {
+        paralelo = new ColunasFuncionarios(65_536);
+        sequencial = new ColunasFuncionarios(Integer.MAX_VALUE);
+
+        Random random = new Random(1);
+        LocalDate inicio = LocalDate.of(1995, 1, 1);
+        for (int i = 0; i < funcionarios; i++) {
+            double salario = 1500 + random.nextInt(30_000);
+            LocalDate admissao = inicio.plusDays(random.nextInt(11_000));
+            long departamento = random.nextInt(50);
+            String cargo = CARGOS[random.nextInt(CARGOS.length)];
+            boolean ativo = random.nextInt(5) != 0;
+            paralelo.gravar(i, 0, salario, admissao, departamento, cargo, ativo);
+            sequencial.gravar(i, 0, salario, admissao, departamento, cargo, ativo);
+        }
+    }
+
+    @Benchmark
+    public double percentisPorCargo() {
+        return percentis(paralelo, Agrupamento.CARGO);
+    }
+
+    @Benchmark
+    public double percentisPorCargoSequencial() {
+        return percentis(sequencial, Agrupamento.CARGO);
+    }
+
+    @Benchmark
+    public Grupos admissoesPorAno() {
+        return paralelo.agrupar(Agrupamento.ANO_ADMISSAO, null, false);
+    }
+
+    @Benchmark
+    public Grupos admissoesPorAnoSequencial() {
+        return sequencial.agrupar(Agrupamento.ANO_ADMISSAO, null, false);
+    }
+
+    @Benchmark
+    public double percentisPorDepartamento() {
+        return percentis(paralelo, Agrupamento.DEPARTAMENTO);
+    }
+
+    private static double percentis(ColunasFuncionarios colunas, Agrupamento agrupamento) {
+        Grupos g = colunas.agrupar(agrupamento, true, true);
+        double soma = 0;
+        for (int i = 0; i < g.tamanho(); i++) {
+            soma += g.percentil(i, 0.5) + g.percentil(i, 0.9) + g.percentil(i, 0.99);
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,117 @@
+package app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import app.GestaoFuncionariosApplication;
+import app.dto.FuncionarioResponseDTO;
+import app.dto.PaginaDTO;
+import app.entity.Departamento;
+import app.entity.Funcionario;
+import app.repository.DepartamentoRepository;
+import app.repository.FuncionarioRepository;
+import app.service.EstatisticaDepartamentoService;
+import app.service.FuncionarioService;
+import app.service.IndiceFuncionarios;
+
+// Consultas de listagem contra um H2 em memória populado, com o esquema das migrações
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConsultasBenchmark {
+
+    private static final int DEPARTAMENTOS = 20;
+
+    @Param({"1000", "10000"})
+    public int funcionarios;
+
+    private ConfigurableApplicationContext contexto;
+    private FuncionarioRepository funcionarioRepository;
+    private FuncionarioService funcionarioService;
+    private Long departamentoId;
+
+    @Setup
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(GestaoFuncionariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Como argumentos de linha de comando, para prevalecer sobre o application.properties
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.app=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                        "--app.notificacoes.intervalo-ms=3600000");
+
+        funcionarioRepository = contexto.getBean(FuncionarioRepository.class);
+        funcionarioService = contexto.getBean(FuncionarioService.class);
+        DepartamentoRepository departamentoRepository = contexto.getBean(DepartamentoRepository.class);
+
+        List<Departamento> deps = new ArrayList<>();
+        for (int d = 0; d < DEPARTAMENTOS; d++) {
+            deps.add(departamentoRepository.save(new Departamento("Departamento " + d, "D" + d, true)));
+        }
+        departamentoId = deps.get(0).getId();
+
+        List<Funcionario> lista = new ArrayList<>(funcionarios);
+        for (int i = 0; i < funcionarios; i++) {
+            lista.add(Dados.funcionario(i, deps.get(i % DEPARTAMENTOS)));
+        }
+        funcionarioRepository.saveAll(lista);
+
+        // Carga direta pelo repositório: índice de trigramas e estatísticas são refeitos
+        contexto.getBean(IndiceFuncionarios.class).recarregar();
+        contexto.getBean(EstatisticaDepartamentoService.class).recalcularTodos();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Funcionario> primeiraPagina() {
+        return funcionarioRepository.buscarPagina(null, null, null, null, "", 0L, Limit.of(50));
+    }
+
+    @Benchmark
+    public List<Funcionario> primeiraPaginaAtivos() {
+        return funcionarioRepository.buscarPagina(null, null, null, true, "", 0L, Limit.of(50));
+    }
+
+    @Benchmark
+    public List<Funcionario> listagemCompleta() {
+        return funcionarioRepository.buscarPagina(null, null, null, null, "", 0L, Limit.unlimited());
+    }
+
+    @Benchmark
+    public List<Funcionario> porDepartamento() {
+        return funcionarioRepository.findByDepartamentoId(departamentoId);
+    }
+
+    @Benchmark
+    public List<Funcionario> ativosOrdenados() {
+        return funcionarioRepository.findByAtivoOrderByNomeAsc(true);
+    }
+
+    // Filtro por trecho do cargo pelo serviço (índice de trigramas + consulta por ids)
+    @Benchmark
+    public PaginaDTO<FuncionarioResponseDTO> paginaPorCargo() {
+        return funcionarioService.findPagina("desenv", null, null, null, null, 50);
+    }
+}
@@ -0,0 +1,69 @@
+package app.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import app.dto.DepartamentoResponseDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.entity.Departamento;
+import app.entity.Funcionario;
+
+// Massa de dados determinística compartilhada pelos benchmarks
+public final class Dados {
+
+    public static final String[] CARGOS = {"Analista", "Desenvolvedor", "Gerente", "Assistente", "Coordenador"};
+
+    private Dados() {
+    }
+
+    public static Departamento departamento(long id) {
+        Departamento d = new Departamento("Departamento " + id, "D" + id, true);
+        d.setId(id);
+        return d;
+    }
+
+    // Sem id (a entidade só recebe id do banco)
+    public static Funcionario funcionario(long id, Departamento departamento) {
+        return new Funcionario(
+                "Funcionario " + id,
+                "func" + id + "@empresa.com",
+                CARGOS[(int) (id % CARGOS.length)],
+                3000.0 + (id % 1000),
+                LocalDate.of(2015, 1, 1).plusDays(id % 3000),
+                id % 7 != 0,
+                departamento);
+    }
+
+    public static List<Funcionario> funcionarios(int quantidade, int departamentos) {
+        List<Departamento> deps = new ArrayList<>(departamentos);
+        for (long d = 1; d <= departamentos; d++) deps.add(departamento(d));
+
+        List<Funcionario> lista = new ArrayList<>(quantidade);
+        for (long i = 1; i <= quantidade; i++) {
+            lista.add(funcionario(i, deps.get((int) (i % departamentos))));
+        }
+        return lista;
+    }
+
+    public static List<FuncionarioResponseDTO> respostas(int quantidade) {
+        DepartamentoResponseDTO[] deps = new DepartamentoResponseDTO[10];
+        for (int d = 0; d < deps.length; d++) {
+            deps[d] = new DepartamentoResponseDTO((long) d + 1, "Departamento " + (d + 1), "D" + (d + 1), true, 0L);
+        }
+
+        List<FuncionarioResponseDTO> lista = new ArrayList<>(quantidade);
+        for (long i = 1; i <= quantidade; i++) {
+            Funcionario f = funcionario(i, null);
+            lista.add(new FuncionarioResponseDTO(i, f.getNome(), f.getEmail(), f.getCargo(), f.getSalario(),
+                    f.getDataAdmissao(), f.getAtivo(), deps[(int) (i % deps.length)], 0L));
+        }
+        return lista;
+    }
+
+    public static FuncionarioRequestDTO requisicao() {
+        return new FuncionarioRequestDTO("Maria da Silva", "maria.silva@empresa.com", "Analista",
+                4500.0, LocalDate.of(2022, 3, 14), true, 1L);
+    }
+}
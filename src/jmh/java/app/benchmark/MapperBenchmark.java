@@ -0,0 +1,46 @@
+package app.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import app.dto.FuncionarioRequestDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.entity.Funcionario;
+import app.mapper.DepartamentoMapper;
+import app.mapper.FuncionarioMapper;
+
+// Conversões feitas em toda leitura (toResponseDTO) e atualização (updateEntity)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private FuncionarioMapper mapper;
+    private Funcionario funcionario;
+    private FuncionarioRequestDTO requisicao;
+
+    @Setup
+    public void preparar() {
+        mapper = new FuncionarioMapper(new DepartamentoMapper());
+        funcionario = Dados.funcionario(42, Dados.departamento(1));
+        requisicao = Dados.requisicao();
+    }
+
+    @Benchmark
+    public FuncionarioResponseDTO toResponseDTO() {
+        return mapper.toResponseDTO(funcionario);
+    }
+
+    @Benchmark
+    public Funcionario updateEntity() {
+        mapper.updateEntity(funcionario, requisicao);
+        return funcionario;
+    }
+}
@@ -0,0 +1,47 @@
+package app.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.FuncionarioResponseDTO;
+
+// Serialização da listagem de funcionários, como o MappingJackson2HttpMessageConverter faz na resposta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacaoBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tamanho;
+
+    private ObjectMapper objectMapper;
+    private List<FuncionarioResponseDTO> funcionarios;
+
+    @Setup
+    public void preparar() {
+        // Mesmos padrões do ObjectMapper do Spring Boot (JavaTimeModule, datas em ISO)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        funcionarios = Dados.respostas(tamanho);
+    }
+
+    @Benchmark
+    public ObjectMapper serializarLista() throws IOException {
+        // Descarta os bytes: mede a serialização, não a cópia para um buffer
+        objectMapper.writeValue(OutputStream.nullOutputStream(), funcionarios);
+        return objectMapper;
+    }
+}
@@ -0,0 +1,57 @@
+package app.service;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import app.benchmark.Dados;
+import app.dto.FuncionarioRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+// Validações de cada cadastro/atualização: regras do serviço e Bean Validation do DTO
+// (no pacote do serviço porque FuncionarioService.validar é package-private)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidacaoBenchmark {
+
+    private FuncionarioService funcionarioService;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private FuncionarioRequestDTO requisicao;
+
+    @Setup
+    public void preparar() {
+        funcionarioService = new FuncionarioService();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        requisicao = Dados.requisicao();
+    }
+
+    @TearDown
+    public void encerrar() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public FuncionarioRequestDTO regrasDoServico() {
+        funcionarioService.validar(requisicao);
+        return requisicao;
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FuncionarioRequestDTO>> beanValidation() {
+        return validator.validate(requisicao);
+    }
+}
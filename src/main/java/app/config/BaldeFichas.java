@@ -0,0 +1,40 @@
+package app.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem lock: até capacidade requisições de uma vez, repostas a porSegundo.
+ *
+ * Em vez de fichas e instante da última reposição (dois valores, que exigiriam lock), guarda um único
+ * instante teórico de chegada (GCRA, equivalente ao balde): cada requisição aceita o empurra um intervalo
+ * (1/porSegundo) para frente, e ela é recusada se isso o levar além de capacidade intervalos à frente
+ * do relógio. A atualização é um compareAndSet num AtomicLong.
+ */
+public class BaldeFichas {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong chegadaTeorica;
+
+    public BaldeFichas(long capacidade, double porSegundo, long agoraNanos) {
+        if (capacidade < 1 || porSegundo <= 0.0) {
+            throw new IllegalArgumentException("Capacidade e reposição do balde devem ser positivas.");
+        }
+        this.intervaloNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo));
+        this.toleranciaNanos = intervaloNanos * capacidade;
+        // Começa cheio
+        this.chegadaTeorica = new AtomicLong(agoraNanos);
+    }
+
+    // 0 se a requisição foi aceita (consumiu uma ficha); senão, os nanos até haver uma ficha
+    public long consumir(long agoraNanos) {
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long proxima = Math.max(atual, agoraNanos) + intervaloNanos;
+            long adiantamento = proxima - agoraNanos;
+            if (adiantamento > toleranciaNanos) return adiantamento - toleranciaNanos;
+            if (chegadaTeorica.compareAndSet(atual, proxima)) return 0;
+        }
+    }
+}
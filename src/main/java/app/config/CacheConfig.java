@@ -0,0 +1,38 @@
+package app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+
+// Cache em memória dos dados de referência (departamentos). As chaves levam a versão dos departamentos
+// (VersaoDados): uma gravação muda a chave em vez de remover entradas, e um valor lido antes dela só pode
+// ser guardado na chave antiga. Gravações em transação só chegam ao cache após o commit.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DEPARTAMENTOS = "departamentos";
+    public static final String DEPARTAMENTOS_ATIVOS = "departamentosAtivos";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.departamentos.habilitado:true}") boolean habilitado,
+            @Value("${app.cache.departamentos.spec:maximumSize=1000,expireAfterWrite=10m,recordStats}") String spec) {
+
+        if (!habilitado) {
+            return new NoOpCacheManager();
+        }
+
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(DEPARTAMENTOS, DEPARTAMENTOS_ATIVOS);
+        caffeine.setCaffeineSpec(CaffeineSpec.parse(spec));
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
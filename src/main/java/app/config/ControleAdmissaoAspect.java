@@ -0,0 +1,177 @@
+package app.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.exceptions.RequisicaoRecusadaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Aplica o @LimitarRequisicoes nos controllers, antes de qualquer acesso ao banco.
+ *
+ * Limite por cliente: um BaldeFichas por rota e cliente, guardados num cache Caffeine que descarta os
+ * clientes inativos. O cliente é o usuário autenticado, a chave do cabeçalho X-API-Key quando é uma das
+ * chaves configuradas (app.admissao.chaves-api) ou, nos demais casos, o IP: uma chave desconhecida não
+ * cria um balde novo, senão bastaria trocá-la a cada requisição para escapar do limite.
+ *
+ * Anteparo de gravações: um semáforo com as vagas de gravação simultânea, abaixo do tamanho do pool de
+ * conexões, para que uma rajada de gravações não tome todas as conexões das leituras. Sem ficha ou sem
+ * vaga a requisição é recusada na hora, com Retry-After, em vez de esperar por uma conexão até o timeout.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ControleAdmissaoAspect {
+
+    public static final String CABECALHO_CHAVE = "X-API-Key";
+
+    private final Environment ambiente;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final long capacidadePadrao;
+    private final double porSegundoPadrao;
+
+    private final int maximoEscritas;
+    private final Semaphore escritas;
+    private final long retryAfterEscritas;
+
+    private final Set<String> chavesApi;
+    private final Cache<String, BaldeFichas> baldes;
+    private final Map<String, Rota> rotas = new ConcurrentHashMap<>();
+
+    public ControleAdmissaoAspect(Environment ambiente, MeterRegistry meterRegistry,
+                                  @Value("${app.admissao.habilitado:true}") boolean habilitado,
+                                  @Value("${app.admissao.padrao.capacidade:50}") long capacidadePadrao,
+                                  @Value("${app.admissao.padrao.por-segundo:25}") double porSegundoPadrao,
+                                  @Value("${app.admissao.escritas.maximo-simultaneas:6}") int maximoEscritas,
+                                  @Value("${app.admissao.escritas.retry-after-s:1}") long retryAfterEscritas,
+                                  @Value("${app.admissao.maximo-clientes:100000}") long maximoClientes,
+                                  @Value("${app.admissao.chaves-api:}") List<String> chavesApi) {
+        this.ambiente = ambiente;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.capacidadePadrao = capacidadePadrao;
+        this.porSegundoPadrao = porSegundoPadrao;
+        this.maximoEscritas = maximoEscritas;
+        this.escritas = new Semaphore(maximoEscritas);
+        this.retryAfterEscritas = retryAfterEscritas;
+        this.chavesApi = Set.copyOf(chavesApi.stream().map(String::trim).filter(c -> !c.isEmpty()).toList());
+        // Um balde parado por 10 minutos já estaria cheio de novo: descartá-lo não muda o limite
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        Gauge.builder("admissao.escritas.em_andamento", escritas, s -> maximoEscritas - s.availablePermits())
+                .description("Gravações em andamento nos endpoints com @LimitarRequisicoes(escrita = true)")
+                .register(meterRegistry);
+        Gauge.builder("admissao.escritas.limite", () -> maximoEscritas)
+                .description("Vagas de gravação simultânea (app.admissao.escritas.maximo-simultaneas)")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(app.config.LimitarRequisicoes)")
+    public Object admitir(ProceedingJoinPoint pjp) throws Throwable {
+        if (!habilitado) return pjp.proceed();
+
+        LimitarRequisicoes limite = ((MethodSignature) pjp.getSignature()).getMethod()
+                .getAnnotation(LimitarRequisicoes.class);
+
+        Rota rota = rotas.computeIfAbsent(limite.value(), this::configurar);
+        BaldeFichas balde = baldes.get(rota.nome() + '|' + cliente(), chave -> rota.novoBalde());
+        long espera = balde.consumir(System.nanoTime());
+        if (espera > 0) {
+            rota.limitadas().increment();
+            throw new RequisicaoRecusadaException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Limite de requisições excedido, tente novamente em instantes", segundos(espera));
+        }
+
+        if (!limite.escrita()) {
+            rota.aceitas().increment();
+            return pjp.proceed();
+        }
+        if (!escritas.tryAcquire()) {
+            rota.sobrecarga().increment();
+            throw new RequisicaoRecusadaException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Serviço sobrecarregado, tente novamente em instantes", retryAfterEscritas);
+        }
+        rota.aceitas().increment();
+        try {
+            return pjp.proceed();
+        } finally {
+            escritas.release();
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private record Rota(String nome, long capacidade, double porSegundo,
+                        Counter aceitas, Counter limitadas, Counter sobrecarga) {
+
+        BaldeFichas novoBalde() {
+            return new BaldeFichas(capacidade, porSegundo, System.nanoTime());
+        }
+    }
+
+    private Rota configurar(String nome) {
+        String prefixo = "app.admissao.rotas." + nome;
+        return new Rota(nome,
+                ambiente.getProperty(prefixo + ".capacidade", Long.class, capacidadePadrao),
+                ambiente.getProperty(prefixo + ".por-segundo", Double.class, porSegundoPadrao),
+                requisicoes(nome, "aceita"),
+                requisicoes(nome, "limitada"),
+                requisicoes(nome, "sobrecarga"));
+    }
+
+    private Counter requisicoes(String rota, String resultado) {
+        return Counter.builder("admissao.requisicoes")
+                .description("Requisições nos endpoints com @LimitarRequisicoes, por resultado do controle de admissão")
+                .tag("rota", rota)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    // Cliente da requisição: o usuário autenticado, a chave de API reconhecida ou o IP (atrás de proxy,
+    // com server.forward-headers-strategy configurado, o IP vem do X-Forwarded-For)
+    private String cliente() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            return "interno";
+        }
+        HttpServletRequest request = atributos.getRequest();
+        if (request.getUserPrincipal() != null) return "usuario:" + request.getUserPrincipal().getName();
+
+        String chave = request.getHeader(CABECALHO_CHAVE);
+        if (chave != null && chavesApi.contains(chave.trim())) return "chave:" + chave.trim();
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,30 @@
+package app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Estatísticas de SQL por requisição (Server-Timing e métricas sql.*) no lugar do log de cada comando.
+// Envolve o DataSource principal (bean "dataSource": o pool único ou o roteamento para a réplica), de modo
+// que os pools Hikari continuam expostos nas métricas hikaricp.*; desligue com app.sql.estatisticas.habilitado=false.
+@Configuration
+public class EstatisticasSqlConfig {
+
+    @Bean
+    public static BeanPostProcessor inspecaoSqlDataSource(ObjectProvider<MonitorSql> monitorSql, Environment ambiente) {
+        boolean habilitado = ambiente.getProperty("app.sql.estatisticas.habilitado", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (habilitado && beanName.equals("dataSource") && bean instanceof DataSource ds) {
+                    return new InspecaoSqlDataSource(ds, monitorSql);
+                }
+                return bean;
+            }
+        };
+    }
+}
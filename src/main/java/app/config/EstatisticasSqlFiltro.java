@@ -0,0 +1,135 @@
+package app.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Comandos SQL, tempo no banco e linhas lidas de cada requisição: no cabeçalho Server-Timing (visível nas
+// ferramentas do navegador) e nas métricas sql.requisicao.* por endpoint. O cabeçalho é escrito antes do
+// corpo; o que o banco fizer depois disso (exportação em streaming) só entra nas métricas globais.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class EstatisticasSqlFiltro extends OncePerRequestFilter {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    @Autowired
+    private MonitorSql monitorSql;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sql.estatisticas.habilitado:true}")
+    private boolean habilitado;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        MonitorSql.Requisicao requisicao = monitorSql.iniciarRequisicao();
+        RespostaComServerTiming resposta = new RespostaComServerTiming(response, requisicao);
+        try {
+            chain.doFilter(request, resposta);
+        } finally {
+            monitorSql.encerrarRequisicao();
+            // Respostas sem corpo (304, 204) ainda não foram enviadas
+            resposta.escreverCabecalho();
+            registrar(request, requisicao);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, MonitorSql.Requisicao requisicao) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (uri == null) return;
+
+        String[] tags = {"uri", uri.toString(), "method", request.getMethod()};
+        DistributionSummary.builder("sql.requisicao.comandos")
+                .description("Comandos SQL por requisição")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(requisicao.comandos());
+        DistributionSummary.builder("sql.requisicao.linhas")
+                .description("Linhas lidas do banco por requisição")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(requisicao.linhas());
+        Timer.builder("sql.requisicao.tempo")
+                .description("Tempo no banco (execução e leitura dos resultados) por requisição")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(requisicao.nanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Grava o Server-Timing no último momento em que ainda é possível: quando o corpo começa a ser escrito
+    private static final class RespostaComServerTiming extends HttpServletResponseWrapper {
+
+        private final MonitorSql.Requisicao requisicao;
+
+        RespostaComServerTiming(HttpServletResponse response, MonitorSql.Requisicao requisicao) {
+            super(response);
+            this.requisicao = requisicao;
+        }
+
+        void escreverCabecalho() {
+            if (!isCommitted()) setHeader(SERVER_TIMING, requisicao.serverTiming());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escreverCabecalho();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escreverCabecalho();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escreverCabecalho();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escreverCabecalho();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escreverCabecalho();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            escreverCabecalho();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package app.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Com spring.main.lazy-initialization=true (perfil inicio-rapido), beans que precisam existir desde a subida.
+// As tarefas @Scheduled já são excluídas pelo Spring Boot. As migrações do Flyway rodariam só com a criação
+// do EntityManagerFactory, mas os índices em memória leem as tabelas por JDBC assim que a aplicação fica pronta.
+@Configuration
+public class InicializacaoConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter migracoesNaSubida() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class);
+    }
+}
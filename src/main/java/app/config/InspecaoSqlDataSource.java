@@ -0,0 +1,168 @@
+package app.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Envolve as conexões do DataSource principal para medir cada comando (execute*) e cada avanço dos
+ * resultados (ResultSet.next), passando os tempos ao MonitorSql. Fica no nível JDBC para enxergar tanto
+ * o Hibernate quanto os acessos por JdbcTemplate (índices, cópia colunar, exportação, Flyway).
+ *
+ * O MonitorSql é obtido na primeira conexão, e não na criação do DataSource, que acontece antes de as
+ * métricas estarem configuradas.
+ */
+public class InspecaoSqlDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final ObjectProvider<MonitorSql> provedor;
+    private volatile MonitorSql monitor;
+
+    public InspecaoSqlDataSource(DataSource alvo, ObjectProvider<MonitorSql> provedor) {
+        super(alvo);
+        this.provedor = provedor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return inspecionar(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return inspecionar(super.getConnection(username, password));
+    }
+
+    // O destroy inferido do bean "dataSource" passa a ser o deste objeto: fecha o pool junto com o contexto
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable alvo) alvo.close();
+    }
+
+    private Connection inspecionar(Connection conexao) {
+        MonitorSql m = monitor;
+        if (m == null) {
+            m = provedor.getIfAvailable();
+            if (m == null) return conexao;
+            monitor = m;
+        }
+        return (Connection) envolver(Connection.class, new Conexao(conexao, m));
+    }
+
+    // ======================
+    // PROXIES JDBC
+    // ======================
+
+    // Base dos proxies: equals/hashCode pela identidade do proxy (o Spring compara conexões ao liberá-las)
+    private abstract static class Inspecao implements InvocationHandler {
+
+        protected final Object alvo;
+        protected final MonitorSql monitor;
+
+        Inspecao(Object alvo, MonitorSql monitor) {
+            this.alvo = alvo;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (metodo.getName().equals("equals") && args != null && args.length == 1) return proxy == args[0];
+            if (metodo.getName().equals("hashCode") && args == null) return System.identityHashCode(proxy);
+            return tratar(metodo, args);
+        }
+
+        protected abstract Object tratar(Method metodo, Object[] args) throws Throwable;
+
+        // Repassa a chamada, devolvendo a exceção original do driver (e não a InvocationTargetException)
+        protected Object invocar(Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class Conexao extends Inspecao {
+
+        Conexao(Connection alvo, MonitorSql monitor) {
+            super(alvo, monitor);
+        }
+
+        @Override
+        protected Object tratar(Method metodo, Object[] args) throws Throwable {
+            Object resultado = invocar(metodo, args);
+            if (resultado instanceof Statement comando) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> tipo = comando instanceof CallableStatement ? CallableStatement.class
+                        : comando instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return envolver(tipo, new Comando(comando, sql, monitor));
+            }
+            return resultado;
+        }
+    }
+
+    private static final class Comando extends Inspecao {
+
+        private final String sqlPreparado;
+
+        Comando(Statement alvo, String sqlPreparado, MonitorSql monitor) {
+            super(alvo, monitor);
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        protected Object tratar(Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            Object resultado;
+            if (nome.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : sqlPreparado;
+                long inicio = System.nanoTime();
+                try {
+                    resultado = invocar(metodo, args);
+                } finally {
+                    monitor.comando(sql, System.nanoTime() - inicio);
+                }
+            } else {
+                resultado = invocar(metodo, args);
+            }
+
+            if (resultado instanceof ResultSet linhas && (nome.equals("executeQuery") || nome.equals("getResultSet"))) {
+                return envolver(ResultSet.class, new Resultado(linhas, monitor));
+            }
+            return resultado;
+        }
+    }
+
+    private static final class Resultado extends Inspecao {
+
+        Resultado(ResultSet alvo, MonitorSql monitor) {
+            super(alvo, monitor);
+        }
+
+        @Override
+        protected Object tratar(Method metodo, Object[] args) throws Throwable {
+            if (!metodo.getName().equals("next")) return invocar(metodo, args);
+
+            long inicio = System.nanoTime();
+            boolean linha = (Boolean) invocar(metodo, args);
+            monitor.leitura(System.nanoTime() - inicio, linha);
+            return linha;
+        }
+    }
+
+    private static Object envolver(Class<?> tipo, InvocationHandler handler) {
+        return Proxy.newProxyInstance(InspecaoSqlDataSource.class.getClassLoader(), new Class<?>[] {tipo}, handler);
+    }
+}
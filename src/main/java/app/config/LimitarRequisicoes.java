@@ -0,0 +1,22 @@
+package app.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Controle de admissão de um endpoint (ControleAdmissaoAspect). Cada cliente (X-API-Key ou IP) tem um balde
+// de fichas por rota, dimensionado em app.admissao.rotas.<rota>.capacidade e .por-segundo; além dele,
+// 429 com Retry-After. Com escrita = true, a requisição também ocupa uma das vagas de gravação simultânea
+// (app.admissao.escritas.maximo-simultaneas); sem vaga, 503 com Retry-After, sem esperar na fila.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LimitarRequisicoes {
+
+    // Nome da rota nas propriedades e nas métricas (ex.: funcionarios.cadastro)
+    String value();
+
+    boolean escrita() default false;
+}
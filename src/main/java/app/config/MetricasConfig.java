@@ -0,0 +1,19 @@
+package app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Habilita o @Timed nos serviços (métrica por classe e método, ex.: servicos.funcionario{method="save"}).
+// HTTP (http.server.requests), repositórios (spring.data.repository.invocations), Hibernate (hibernate.*)
+// e o pool Hikari (hikaricp.connections.*) são instrumentados pela autoconfiguração do Actuator.
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
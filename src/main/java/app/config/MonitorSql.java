@@ -0,0 +1,166 @@
+package app.config;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Estatísticas dos comandos JDBC, alimentadas pelo InspecaoSqlDataSource: métricas globais (sql.comandos
+ * por tipo, sql.linhas, sql.lentos) e, na thread de uma requisição HTTP, o acumulado dela (comandos, tempo
+ * no banco e linhas lidas), que o EstatisticasSqlFiltro devolve no Server-Timing.
+ *
+ * Comandos acima de lentos.limiar-ms são contados sempre e registrados no log por amostragem
+ * (lentos.amostragem), para que uma rajada de consultas lentas não vire uma rajada de log.
+ */
+@Component
+public class MonitorSql {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorSql.class);
+
+    private static final int TAMANHO_MAXIMO_LOG = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final long limiarLentoNanos;
+    private final double amostragemLentos;
+
+    private final Map<String, Timer> comandosPorTipo = new ConcurrentHashMap<>();
+    private final Counter linhas;
+    private final Counter lentos;
+
+    // Acumulado da requisição em andamento na thread (null fora de requisições)
+    private final ThreadLocal<Requisicao> requisicaoAtual = new ThreadLocal<>();
+
+    public MonitorSql(MeterRegistry meterRegistry,
+                      @Value("${app.sql.lentos.limiar-ms:200}") long limiarLentoMs,
+                      @Value("${app.sql.lentos.amostragem:0.1}") double amostragemLentos) {
+        this.meterRegistry = meterRegistry;
+        this.limiarLentoNanos = TimeUnit.MILLISECONDS.toNanos(limiarLentoMs);
+        this.amostragemLentos = amostragemLentos;
+
+        this.linhas = Counter.builder("sql.linhas")
+                .description("Linhas lidas dos resultados de consultas")
+                .register(meterRegistry);
+        this.lentos = Counter.builder("sql.lentos")
+                .description("Comandos acima do limiar app.sql.lentos.limiar-ms")
+                .register(meterRegistry);
+    }
+
+    // ======================
+    // REQUISIÇÕES
+    // ======================
+
+    public Requisicao iniciarRequisicao() {
+        Requisicao requisicao = new Requisicao();
+        requisicaoAtual.set(requisicao);
+        return requisicao;
+    }
+
+    public void encerrarRequisicao() {
+        requisicaoAtual.remove();
+    }
+
+    // ======================
+    // REGISTRO (chamado pelo InspecaoSqlDataSource)
+    // ======================
+
+    public void comando(String sql, long nanos) {
+        comandosPorTipo.computeIfAbsent(tipo(sql), this::timerComandos).record(nanos, TimeUnit.NANOSECONDS);
+
+        Requisicao requisicao = requisicaoAtual.get();
+        if (requisicao != null) {
+            requisicao.comandos++;
+            requisicao.nanos += nanos;
+        }
+
+        if (nanos >= limiarLentoNanos) {
+            lentos.increment();
+            if (ThreadLocalRandom.current().nextDouble() < amostragemLentos) {
+                log.warn("Comando SQL lento ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), resumir(sql));
+            }
+        }
+    }
+
+    // Avanço de um ResultSet (next): o tempo conta como tempo no banco, a linha só se existir
+    public void leitura(long nanos, boolean linha) {
+        if (linha) linhas.increment();
+
+        Requisicao requisicao = requisicaoAtual.get();
+        if (requisicao != null) {
+            requisicao.nanos += nanos;
+            if (linha) requisicao.linhas++;
+        }
+    }
+
+    // ======================
+    // ACUMULADO POR REQUISIÇÃO
+    // ======================
+
+    // Usado só pela thread da requisição
+    public static final class Requisicao {
+
+        private final long inicio = System.nanoTime();
+        private int comandos;
+        private long nanos;
+        private long linhas;
+
+        public int comandos() {
+            return comandos;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        public long linhas() {
+            return linhas;
+        }
+
+        public long duracaoNanos() {
+            return System.nanoTime() - inicio;
+        }
+
+        // Ex.: db;dur=3.21;desc="4 comandos, 120 linhas", app;dur=15.40
+        public String serverTiming() {
+            return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d comandos, %d linhas\", app;dur=%.2f",
+                    nanos / 1e6, comandos, linhas, duracaoNanos() / 1e6);
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private Timer timerComandos(String tipo) {
+        return Timer.builder("sql.comandos")
+                .description("Execução de comandos JDBC, por tipo")
+                .tag("tipo", tipo)
+                .register(meterRegistry);
+    }
+
+    // Primeira palavra do comando, só entre os tipos conhecidos (cardinalidade fixa na tag)
+    static String tipo(String sql) {
+        if (sql == null) return "outro";
+        String s = sql.stripLeading().toLowerCase(Locale.ROOT);
+        for (String tipo : new String[] {"select", "insert", "update", "delete", "merge", "with"}) {
+            if (s.startsWith(tipo)) return tipo.equals("with") ? "select" : tipo;
+        }
+        return "outro";
+    }
+
+    private static String resumir(String sql) {
+        if (sql == null) return "(lote)";
+        String s = sql.replaceAll("\\s+", " ").strip();
+        return s.length() > TAMANHO_MAXIMO_LOG ? s.substring(0, TAMANHO_MAXIMO_LOG) + "..." : s;
+    }
+}
@@ -0,0 +1,51 @@
+package app.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Aplica o @RepetirEmConflito. Fica por fora do @Transactional (ordem menor), para que cada tentativa
+// abra a sua própria transação e releia o registro.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RepeticaoEmConflitoAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(RepeticaoEmConflitoAspect.class);
+
+    @Value("${app.concorrencia.tentativas:3}")
+    private int tentativas;
+
+    @Value("${app.concorrencia.espera-ms:20}")
+    private long esperaMs;
+
+    @Around("@annotation(app.config.RepetirEmConflito)")
+    public Object repetir(ProceedingJoinPoint pjp) throws Throwable {
+        // Chamado dentro de uma transação maior: a falha já a marcou para rollback, quem repete é o chamador
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return pjp.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) throw e;
+                log.debug("Conflito de concorrência em {} (tentativa {} de {}): {}",
+                        pjp.getSignature().toShortString(), tentativa, tentativas, e.getMessage());
+                // Espera aleatória crescente, para as requisições em disputa não colidirem de novo
+                Thread.sleep(ThreadLocalRandom.current().nextLong(esperaMs * tentativa + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package app.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Repete o método, cada vez numa transação nova, quando uma gravação concorrente vence a disputa pela mesma
+// linha (versão @Version desatualizada). Só para operações idempotentes: a nova tentativa relê o registro
+// e reaplica a mesma alteração. Tentativas em app.concorrencia.tentativas.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RepetirEmConflito {
+}
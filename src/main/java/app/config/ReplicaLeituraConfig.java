@@ -0,0 +1,49 @@
+package app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Réplica de leitura, ativada por app.datasource.replica.jdbc-url (sem ela, um único pool em spring.datasource).
+// Dois pools Hikari (primario e replica, cada um com as suas métricas hikaricp.*) atrás do RoteamentoDataSource.
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.jdbc-url")
+public class ReplicaLeituraConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+        HikariDataSource ds = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primario");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${app.datasource.roteamento.atraso-maximo-ms:1000}") long atrasoMaximoMs,
+                                 @Value("${app.datasource.roteamento.pausa-replica-ms:5000}") long pausaReplicaMs) {
+        return new LazyConnectionDataSourceProxy(
+                new RoteamentoDataSource(primario, replica, atrasoMaximoMs, pausaReplicaMs));
+    }
+}
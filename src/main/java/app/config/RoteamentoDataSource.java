@@ -0,0 +1,88 @@
+package app.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Conexões de transações somente leitura vão para a réplica; as demais (gravações, consultas fora de
+ * transação, Flyway, carga do índice de trigramas) vão para o primário.
+ *
+ * Tolerância ao atraso da réplica: até atrasoMaximo depois de uma transação de gravação terminar, as leituras
+ * continuam no primário (quem acabou de gravar lê o que gravou, e um ETag novo não acompanha dados antigos).
+ * Se a réplica não entregar uma conexão, a leitura cai no primário e a réplica fica de fora por pausaReplica.
+ *
+ * Deve ficar atrás de um LazyConnectionDataSourceProxy: a conexão só é pedida no primeiro comando,
+ * quando a transação já marcou se é somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final long atrasoMaximoNanos;
+    private final long pausaReplicaNanos;
+
+    private volatile long ultimaEscrita = System.nanoTime();
+    private volatile long replicaIndisponivelAte = System.nanoTime();
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica, long atrasoMaximoMs, long pausaReplicaMs) {
+        this.primario = primario;
+        this.replica = replica;
+        this.atrasoMaximoNanos = TimeUnit.MILLISECONDS.toNanos(atrasoMaximoMs);
+        this.pausaReplicaNanos = TimeUnit.MILLISECONDS.toNanos(pausaReplicaMs);
+        // Sem gravação conhecida na inicialização: a primeira janela de atraso já começa vencida
+        this.ultimaEscrita -= atrasoMaximoNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!usarReplica()) return primario.getConnection();
+
+        try {
+            return replica.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            replicaIndisponivelAte = System.nanoTime() + pausaReplicaNanos;
+            log.warn("Réplica indisponível, leituras no primário pelos próximos {} ms: {}",
+                    TimeUnit.NANOSECONDS.toMillis(pausaReplicaNanos), e.getMessage());
+            return primario.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return usarReplica() ? replica.getConnection(username, password) : primario.getConnection(username, password);
+    }
+
+    private boolean usarReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscrita();
+            return false;
+        }
+        long agora = System.nanoTime();
+        return agora - ultimaEscrita >= atrasoMaximoNanos && agora - replicaIndisponivelAte >= 0;
+    }
+
+    // A janela de atraso conta a partir do fim da transação de gravação (commit ou rollback)
+    private void registrarEscrita() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        ultimaEscrita = System.nanoTime();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ultimaEscrita = System.nanoTime();
+            }
+        });
+    }
+}
@@ -1,17 +1,29 @@
 package app.controller;
 
+import app.config.LimitarRequisicoes;
+import app.dto.AlteracaoEmLoteDTO;
 import app.dto.DepartamentoRequestDTO;
 import app.dto.DepartamentoResponseDTO;
+import app.dto.EstatisticaDepartamentoDTO;
+import app.dto.EstatisticaResumoDTO;
+import app.dto.PaginaDTO;
+import app.dto.ReajusteSalarialRequestDTO;
 import app.service.DepartamentoService;
+import app.service.EstatisticaDepartamentoService;
+import app.service.FuncionarioService;
+import app.service.VersaoDados;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
-@CrossOrigin("*")
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER})
 @RestController
 @RequestMapping("/api/departamentos")
 public class DepartamentoController {
@@ -19,47 +31,119 @@ public class DepartamentoController {
     @Autowired
     private DepartamentoService departamentoService;
 
-    // Lista todos os departamentos
+    @Autowired
+    private EstatisticaDepartamentoService estatisticaDepartamentoService;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    // Lista paginada por cursor
     @GetMapping
-    public ResponseEntity<List<DepartamentoResponseDTO>> listarTodos() {
+    public ResponseEntity<PaginaDTO<DepartamentoResponseDTO>> listarPagina(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
+        if (request.checkNotModified(versaoDados.departamentos())) return null;
+
+        PaginaDTO<DepartamentoResponseDTO> pagina = departamentoService.listarPagina(cursor, limite);
+        return revalidar(pagina);
+    }
+
+    // Lista todos os departamentos sem paginação (opt-in com todos=true)
+    @GetMapping(params = "todos=true")
+    public ResponseEntity<List<DepartamentoResponseDTO>> listarTodos(WebRequest request) {
+        if (request.checkNotModified(versaoDados.departamentos())) return null;
+
         List<DepartamentoResponseDTO> lista = departamentoService.listarTodos();
-        return ResponseEntity.ok(lista);
+        return revalidar(lista);
+    }
+
+    // Resumo da folha da empresa, com o detalhe de cada departamento
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticaResumoDTO> estatisticas() {
+        return ResponseEntity.ok(estatisticaDepartamentoService.resumo());
+    }
+
+    // Quantidade de funcionários, folha, média e desvio padrão de salários do departamento
+    @GetMapping("/{id}/estatisticas")
+    public ResponseEntity<EstatisticaDepartamentoDTO> estatisticasDoDepartamento(@PathVariable Long id) {
+        return ResponseEntity.ok(estatisticaDepartamentoService.buscarPorDepartamento(id));
     }
 
     // Lista apenas os departamentos ativos
     @GetMapping("/ativos")
-    public ResponseEntity<List<DepartamentoResponseDTO>> listarAtivos() {
+    public ResponseEntity<List<DepartamentoResponseDTO>> listarAtivos(WebRequest request) {
+        if (request.checkNotModified(versaoDados.departamentos())) return null;
+
         List<DepartamentoResponseDTO> lista = departamentoService.listarAtivos();
-        return ResponseEntity.ok(lista);
+        return revalidar(lista);
     }
 
     // Busca por ID
     @GetMapping("/{id}")
-    public ResponseEntity<DepartamentoResponseDTO> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<DepartamentoResponseDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        String etag = versaoDados.departamento(id);
+        if (etag != null && request.checkNotModified(etag)) return null;
+
+        // ETag ainda desconhecido (ou diferente do enviado): lê o registro, e o ETag dele fica guardado
+        VersaoDados.Versoes marca = versaoDados.marcar();
         DepartamentoResponseDTO dto = departamentoService.buscarPorId(id);
-        return ResponseEntity.ok(dto);
+        if (request.checkNotModified(versaoDados.departamento(dto, marca))) return null;
+        return revalidar(dto);
     }
 
     // Cria novo departamento
+    @LimitarRequisicoes(value = "departamentos.alteracao", escrita = true)
     @PostMapping
     public ResponseEntity<DepartamentoResponseDTO> salvar(@RequestBody @Valid DepartamentoRequestDTO dto) {
         DepartamentoResponseDTO salvo = departamentoService.salvar(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(VersaoDados.etag(salvo)).body(salvo);
     }
 
-    // Atualiza um departamento existente
+    // Atualiza um departamento existente (If-Match opcional: desatualizado responde 412 com o registro atual)
+    @LimitarRequisicoes(value = "departamentos.alteracao", escrita = true)
     @PutMapping("/{id}")
     public ResponseEntity<DepartamentoResponseDTO> atualizar(
             @PathVariable Long id,
-            @RequestBody @Valid DepartamentoRequestDTO dto) {
-        DepartamentoResponseDTO atualizado = departamentoService.atualizar(id, dto);
-        return ResponseEntity.ok(atualizado);
+            @RequestBody @Valid DepartamentoRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DepartamentoResponseDTO atualizado = departamentoService.atualizar(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(VersaoDados.etag(atualizado)).body(atualizado);
     }
 
-    // Inativa um departamento
+    // Inativa um departamento (If-Match opcional)
+    @LimitarRequisicoes(value = "departamentos.alteracao", escrita = true)
     @PatchMapping("/{id}/inativar")
-    public ResponseEntity<DepartamentoResponseDTO> inativar(@PathVariable Long id) {
-        DepartamentoResponseDTO dto = departamentoService.inativar(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<DepartamentoResponseDTO> inativar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DepartamentoResponseDTO dto = departamentoService.inativar(id, ifMatch);
+        return ResponseEntity.ok().eTag(VersaoDados.etag(dto)).body(dto);
+    }
+
+    // Inativa o departamento e todos os seus funcionários ativos de uma vez (funcionarios=true; If-Match opcional)
+    @LimitarRequisicoes(value = "departamentos.alteracao", escrita = true)
+    @PatchMapping(value = "/{id}/inativar", params = "funcionarios=true")
+    public ResponseEntity<AlteracaoEmLoteDTO> inativarComFuncionarios(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ResponseEntity.ok(departamentoService.inativarComFuncionarios(id, ifMatch));
+    }
+
+    // Reajusta o salário de todos os funcionários ativos do departamento (percentual ou valor fixo)
+    @LimitarRequisicoes(value = "departamentos.alteracao", escrita = true)
+    @PostMapping("/{id}/reajuste")
+    public ResponseEntity<AlteracaoEmLoteDTO> reajustar(
+            @PathVariable Long id,
+            @RequestBody @Valid ReajusteSalarialRequestDTO dto) {
+        return ResponseEntity.ok(funcionarioService.reajustarSalarios(id, dto));
+    }
+
+    // GETs com ETag: "no-cache" faz o navegador revalidar a cada uso (If-None-Match) e aproveitar o 304
+    private static <T> ResponseEntity<T> revalidar(T corpo) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(corpo);
     }
 }
@@ -0,0 +1,28 @@
+package app.controller;
+
+import app.config.LimitarRequisicoes;
+import app.service.FeedAlteracoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.RETRY_AFTER})
+@RestController
+@RequestMapping("/api/eventos")
+public class EventoController {
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    @Autowired
+    private FeedAlteracoes feedAlteracoes;
+
+    // Alterações de funcionários e departamentos (Server-Sent Events), enviadas após o commit.
+    // Reconectando com Last-Event-ID (o EventSource do navegador envia sozinho), recebe o que perdeu
+    @LimitarRequisicoes("eventos.assinatura")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar(@RequestHeader(value = LAST_EVENT_ID, required = false) String ultimoId) {
+        return feedAlteracoes.assinar(ultimoId);
+    }
+}
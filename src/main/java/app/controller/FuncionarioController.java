@@ -1,17 +1,36 @@
 package app.controller;
 
+import app.config.LimitarRequisicoes;
+import app.dto.AdmissoesPorAnoDTO;
+import app.dto.ComparativoDepartamentoDTO;
+import app.dto.DistribuicaoSalarialDTO;
 import app.dto.FuncionarioRequestDTO;
 import app.dto.FuncionarioResponseDTO;
+import app.dto.ImportacaoResultadoDTO;
+import app.service.AnaliseFuncionariosService;
+import app.service.ExportacaoService;
+import app.service.FormatoExportacao;
 import app.service.FuncionarioService;
+import app.service.ImportacaoService;
+import app.service.LeiturasCompartilhadas;
+import app.service.VersaoDados;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
-@CrossOrigin("*")
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER})
 @RestController
 @RequestMapping("/api/funcionarios")
 public class FuncionarioController {
@@ -19,56 +38,191 @@ public class FuncionarioController {
     @Autowired
     private FuncionarioService funcionarioService;
 
-    // Lista todos (com filtros opcionais: cargo, ativo)
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private AnaliseFuncionariosService analiseFuncionariosService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    @Autowired
+    private LeiturasCompartilhadas leiturasCompartilhadas;
+
+    // Lista paginada por cursor (filtros opcionais: cargo, nome, email — por trecho —, ativo).
+    // As listagens respondem o JSON já serializado, compartilhado entre requisições idênticas simultâneas
     @GetMapping
-    public ResponseEntity<List<FuncionarioResponseDTO>> listarTodos(
+    public ResponseEntity<byte[]> listarPagina(
             @RequestParam(required = false) String cargo,
-            @RequestParam(required = false) Boolean ativo) {
-        List<FuncionarioResponseDTO> lista = funcionarioService.findAll(cargo, ativo);
-        return ResponseEntity.ok(lista);
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
+        String versao = versaoDados.funcionarios();
+        if (request.checkNotModified(versao)) return null;
+
+        byte[] pagina = leiturasCompartilhadas.ler("funcionarios.pagina",
+                chave(versao, cargo, nome, email, ativo, cursor, limite),
+                () -> funcionarioService.findPagina(cargo, nome, email, ativo, cursor, limite));
+        return revalidarJson(pagina);
+    }
+
+    // Lista todos sem paginação (opt-in com todos=true; filtros opcionais: cargo, nome, email, ativo)
+    @GetMapping(params = "todos=true")
+    public ResponseEntity<byte[]> listarTodos(
+            @RequestParam(required = false) String cargo,
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Boolean ativo,
+            WebRequest request) {
+        String versao = versaoDados.funcionarios();
+        if (request.checkNotModified(versao)) return null;
+
+        byte[] lista = leiturasCompartilhadas.ler("funcionarios.todos",
+                chave(versao, cargo, nome, email, ativo),
+                () -> funcionarioService.findAll(cargo, nome, email, ativo));
+        return revalidarJson(lista);
     }
 
     // Lista por departamento (opcional)
     @GetMapping("/departamento/{id}")
-    public ResponseEntity<List<FuncionarioResponseDTO>> listarPorDepartamento(@PathVariable Long id) {
-        List<FuncionarioResponseDTO> lista = funcionarioService.findByDepartamento(id);
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<byte[]> listarPorDepartamento(@PathVariable Long id, WebRequest request) {
+        String versao = versaoDados.funcionarios();
+        if (request.checkNotModified(versao)) return null;
+
+        byte[] lista = leiturasCompartilhadas.ler("funcionarios.departamento", chave(versao, id),
+                () -> funcionarioService.findByDepartamento(id));
+        return revalidarJson(lista);
+    }
+
+    // Exporta todos em streaming (format=ndjson|csv)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(name = "format", required = false) String format) {
+        FormatoExportacao formato = FormatoExportacao.de(format);
+        StreamingResponseBody corpo = out -> exportacaoService.exportar(formato, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + formato.getNomeArquivo() + "\"")
+                .body(corpo);
+    }
+
+    // Percentis de salário por cargo (cópia colunar em memória; ativo opcional)
+    @GetMapping("/analise/salarios")
+    public ResponseEntity<List<DistribuicaoSalarialDTO>> salariosPorCargo(
+            @RequestParam(required = false) Boolean ativo, WebRequest request) {
+        if (request.checkNotModified(versaoDados.funcionarios())) return null;
+        return revalidar(analiseFuncionariosService.salariosPorCargo(ativo));
+    }
+
+    // Admitidos por ano, e quantos seguem ativos
+    @GetMapping("/analise/admissoes")
+    public ResponseEntity<List<AdmissoesPorAnoDTO>> admissoesPorAno(
+            @RequestParam(required = false) Boolean ativo, WebRequest request) {
+        if (request.checkNotModified(versaoDados.funcionarios())) return null;
+        return revalidar(analiseFuncionariosService.admissoesPorAno(ativo));
+    }
+
+    // Comparativo de salários e admissões entre departamentos
+    @GetMapping("/analise/departamentos")
+    public ResponseEntity<List<ComparativoDepartamentoDTO>> comparativoDepartamentos(
+            @RequestParam(required = false) Boolean ativo, WebRequest request) {
+        if (request.checkNotModified(versaoDados.funcionarios())) return null;
+        return revalidar(analiseFuncionariosService.comparativoDepartamentos(ativo));
     }
 
     // Busca por id
     @GetMapping("/{id}")
-    public ResponseEntity<FuncionarioResponseDTO> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<FuncionarioResponseDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        String etag = versaoDados.funcionario(id);
+        if (etag != null && request.checkNotModified(etag)) return null;
+
+        // ETag ainda desconhecido (ou diferente do enviado): lê o registro, e o ETag dele fica guardado
+        VersaoDados.Versoes marca = versaoDados.marcar();
         FuncionarioResponseDTO dto = funcionarioService.findById(id);
-        return ResponseEntity.ok(dto);
+        if (request.checkNotModified(versaoDados.funcionario(dto, marca))) return null;
+        return revalidar(dto);
     }
 
     // Cria
+    @LimitarRequisicoes(value = "funcionarios.cadastro", escrita = true)
     @PostMapping
     public ResponseEntity<FuncionarioResponseDTO> salvar(@RequestBody @Valid FuncionarioRequestDTO dto) {
         FuncionarioResponseDTO salvo = funcionarioService.save(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(VersaoDados.etag(salvo)).body(salvo);
+    }
+
+    // Importa em lote (array JSON)
+    @LimitarRequisicoes(value = "funcionarios.importacao", escrita = true)
+    @PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportacaoResultadoDTO> importar(@RequestBody List<FuncionarioRequestDTO> dtos) {
+        ImportacaoResultadoDTO resultado = importacaoService.importar(dtos);
+        return ResponseEntity.ok(resultado);
     }
 
-    // Atualiza
+    // Importa em lote (upload de arquivo CSV no campo "arquivo")
+    @LimitarRequisicoes(value = "funcionarios.importacao", escrita = true)
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacaoResultadoDTO> importarCsv(@RequestParam("arquivo") MultipartFile arquivo)
+            throws IOException {
+        try (InputStream csv = arquivo.getInputStream()) {
+            ImportacaoResultadoDTO resultado = importacaoService.importarCsv(csv);
+            return ResponseEntity.ok(resultado);
+        }
+    }
+
+    // Atualiza (If-Match opcional: ETag do detalhe lido; desatualizado responde 412 com o registro atual)
+    @LimitarRequisicoes(value = "funcionarios.alteracao", escrita = true)
     @PutMapping("/{id}")
     public ResponseEntity<FuncionarioResponseDTO> atualizar(
             @PathVariable Long id,
-            @RequestBody @Valid FuncionarioRequestDTO dto) {
-        FuncionarioResponseDTO atualizado = funcionarioService.update(id, dto);
-        return ResponseEntity.ok(atualizado);
+            @RequestBody @Valid FuncionarioRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        FuncionarioResponseDTO atualizado = funcionarioService.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(VersaoDados.etag(atualizado)).body(atualizado);
     }
 
-    // Inativa
+    // Inativa (If-Match opcional)
+    @LimitarRequisicoes(value = "funcionarios.alteracao", escrita = true)
     @PatchMapping("/{id}/inativar")
-    public ResponseEntity<FuncionarioResponseDTO> inativar(@PathVariable Long id) {
-        FuncionarioResponseDTO dto = funcionarioService.inativar(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<FuncionarioResponseDTO> inativar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        FuncionarioResponseDTO dto = funcionarioService.inativar(id, ifMatch);
+        return ResponseEntity.ok().eTag(VersaoDados.etag(dto)).body(dto);
     }
 
     // Remove
+    @LimitarRequisicoes(value = "funcionarios.alteracao", escrita = true)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> remover(@PathVariable Long id) {
         funcionarioService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // GETs com ETag: "no-cache" faz o navegador revalidar a cada uso (If-None-Match) e aproveitar o 304
+    private static <T> ResponseEntity<T> revalidar(T corpo) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(corpo);
+    }
+
+    private static ResponseEntity<byte[]> revalidarJson(byte[] json) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    // Chave das leituras compartilhadas: a versão da listagem e os parâmetros (null distinto de "")
+    private static String chave(Object... partes) {
+        StringBuilder chave = new StringBuilder();
+        for (Object parte : partes) {
+            chave.append(parte == null ? "\u0000" : parte).append('\u0001');
+        }
+        return chave.toString();
+    }
 }
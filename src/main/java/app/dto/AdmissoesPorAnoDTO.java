@@ -0,0 +1,9 @@
+package app.dto;
+
+// Funcionários admitidos no ano e quantos deles seguem ativos
+public record AdmissoesPorAnoDTO(
+    int ano,
+    long admitidos,
+    long ativos,
+    Double salarioMedio
+) {}
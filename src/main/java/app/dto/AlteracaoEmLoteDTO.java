@@ -0,0 +1,7 @@
+package app.dto;
+
+public record AlteracaoEmLoteDTO(
+    Long departamentoId,
+    String operacao,
+    int funcionariosAfetados
+) {}
@@ -0,0 +1,15 @@
+package app.dto;
+
+import java.time.LocalDate;
+
+public record ComparativoDepartamentoDTO(
+    Long departamentoId,
+    String departamento,
+    long funcionarios,
+    long ativos,
+    double folhaSalarial,
+    double salarioMedio,
+    double salarioMediano,
+    double salarioP90,
+    LocalDate admissaoMedia
+) {}
@@ -4,5 +4,6 @@ public record DepartamentoResponseDTO(
     Long id,
     String nome,
     String sigla,
-    Boolean ativo
+    Boolean ativo,
+    Long versao
 ) {}
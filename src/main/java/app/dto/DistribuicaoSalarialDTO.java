@@ -0,0 +1,15 @@
+package app.dto;
+
+// Salários de um cargo; percentis pelo posto mais próximo
+public record DistribuicaoSalarialDTO(
+    String cargo,
+    long funcionarios,
+    double minimo,
+    double p25,
+    double mediana,
+    double p75,
+    double p90,
+    double p99,
+    double maximo,
+    double media
+) {}
@@ -0,0 +1,16 @@
+package app.dto;
+
+import java.time.LocalDate;
+
+// Salários e datas de admissão consideram apenas os funcionários ativos
+public record EstatisticaDepartamentoDTO(
+    Long departamentoId,
+    String departamento,
+    long totalFuncionarios,
+    long ativos,
+    double folhaSalarial,
+    Double salarioMedio,
+    Double desvioPadraoSalario,
+    LocalDate primeiraAdmissao,
+    LocalDate ultimaAdmissao
+) {}
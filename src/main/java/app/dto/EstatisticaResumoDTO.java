@@ -0,0 +1,16 @@
+package app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record EstatisticaResumoDTO(
+    int departamentos,
+    long totalFuncionarios,
+    long ativos,
+    double folhaSalarial,
+    Double salarioMedio,
+    Double desvioPadraoSalario,
+    LocalDate primeiraAdmissao,
+    LocalDate ultimaAdmissao,
+    List<EstatisticaDepartamentoDTO> porDepartamento
+) {}
@@ -0,0 +1,12 @@
+package app.dto;
+
+import app.evento.TipoAlteracao;
+
+// Evento do feed GET /api/eventos: o registro alterado (ou a alteração em lote) com a sequência do feed
+public record EventoAlteracaoDTO(
+    long sequencia,
+    String recurso,
+    TipoAlteracao tipo,
+    Long id,
+    Object dados
+) {}
@@ -10,5 +10,6 @@ public record FuncionarioResponseDTO(
     Double salario,
     LocalDate dataAdmissao,
     Boolean ativo,
-    DepartamentoResponseDTO departamento
+    DepartamentoResponseDTO departamento,
+    Long versao
 ) {}
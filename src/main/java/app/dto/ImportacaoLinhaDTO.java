@@ -0,0 +1,9 @@
+package app.dto;
+
+public record ImportacaoLinhaDTO(
+    int linha,
+    String email,
+    boolean importado,
+    Long id,
+    String mensagem
+) {}
@@ -0,0 +1,10 @@
+package app.dto;
+
+import java.util.List;
+
+public record ImportacaoResultadoDTO(
+    int total,
+    int importados,
+    int rejeitados,
+    List<ImportacaoLinhaDTO> linhas
+) {}
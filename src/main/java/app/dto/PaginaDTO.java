@@ -0,0 +1,11 @@
+package app.dto;
+
+import java.util.List;
+
+// Página de uma listagem paginada por cursor (keyset).
+// "proximo" é opaco para o cliente e vem nulo na última página.
+public record PaginaDTO<T>(
+    List<T> itens,
+    int tamanho,
+    String proximo
+) {}
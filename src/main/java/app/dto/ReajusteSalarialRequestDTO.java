@@ -0,0 +1,13 @@
+package app.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+// Informe o percentual (ex.: 5 = 5%) ou o valor fixo a somar ao salário, não os dois
+public record ReajusteSalarialRequestDTO(
+
+    @PositiveOrZero
+    Double percentual,
+
+    @PositiveOrZero
+    Double valor
+) {}
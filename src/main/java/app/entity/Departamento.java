@@ -8,14 +8,20 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "TB_DEPARTAMENTO")
+@Table(name = "TB_DEPARTAMENTO", indexes = {
+        // Mantidos pelas migrações em db/migration (V2)
+        @Index(name = "IDX_DEPARTAMENTO_ATIVO_NOME", columnList = "ativo, nome"),
+        @Index(name = "IDX_DEPARTAMENTO_SIGLA", columnList = "sigla")
+})
 public class Departamento {
 
     @Id
@@ -31,6 +37,11 @@ public class Departamento {
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    // Concorrência otimista: o UPDATE confere a versão lida (sem travar a linha entre leitura e gravação)
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     @OneToMany(mappedBy = "departamento", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Funcionario> funcionarios;
@@ -77,6 +88,10 @@ public class Departamento {
         this.ativo = ativo;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
     public List<Funcionario> getFuncionarios() {
         return funcionarios;
     }
@@ -0,0 +1,121 @@
+package app.entity;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Agregados de folha por departamento, atualizados por variação (delta) na mesma
+// transação de cada gravação de funcionário. Salários e datas consideram só os ativos.
+@Entity
+@Table(name = "TB_ESTATISTICA_DEPARTAMENTO")
+public class EstatisticaDepartamento {
+
+    @Id
+    @Column(name = "departamento_id")
+    private Long departamentoId;
+
+    // Funcionários vinculados (ativos e inativos)
+    @Column(nullable = false)
+    private Long total;
+
+    @Column(nullable = false)
+    private Long ativos;
+
+    @Column(nullable = false)
+    private Double somaSalarios;
+
+    // Soma dos quadrados dos salários, para o desvio padrão
+    @Column(nullable = false)
+    private Double somaQuadrados;
+
+    private LocalDate menorAdmissao;
+
+    private LocalDate maiorAdmissao;
+
+    public EstatisticaDepartamento() {
+    }
+
+    public EstatisticaDepartamento(Long departamentoId, Long total, Long ativos, Double somaSalarios,
+                                   Double somaQuadrados, LocalDate menorAdmissao, LocalDate maiorAdmissao) {
+        this.departamentoId = departamentoId;
+        this.total = total;
+        this.ativos = ativos;
+        this.somaSalarios = somaSalarios;
+        this.somaQuadrados = somaQuadrados;
+        this.menorAdmissao = menorAdmissao;
+        this.maiorAdmissao = maiorAdmissao;
+    }
+
+    public static EstatisticaDepartamento vazia(Long departamentoId) {
+        return new EstatisticaDepartamento(departamentoId, 0L, 0L, 0.0, 0.0, null, null);
+    }
+
+    public Long getDepartamentoId() {
+        return departamentoId;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public Long getAtivos() {
+        return ativos;
+    }
+
+    public void setAtivos(Long ativos) {
+        this.ativos = ativos;
+    }
+
+    public Double getSomaSalarios() {
+        return somaSalarios;
+    }
+
+    public void setSomaSalarios(Double somaSalarios) {
+        this.somaSalarios = somaSalarios;
+    }
+
+    public Double getSomaQuadrados() {
+        return somaQuadrados;
+    }
+
+    public void setSomaQuadrados(Double somaQuadrados) {
+        this.somaQuadrados = somaQuadrados;
+    }
+
+    public LocalDate getMenorAdmissao() {
+        return menorAdmissao;
+    }
+
+    public void setMenorAdmissao(LocalDate menorAdmissao) {
+        this.menorAdmissao = menorAdmissao;
+    }
+
+    public LocalDate getMaiorAdmissao() {
+        return maiorAdmissao;
+    }
+
+    public void setMaiorAdmissao(LocalDate maiorAdmissao) {
+        this.maiorAdmissao = maiorAdmissao;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EstatisticaDepartamento that = (EstatisticaDepartamento) o;
+        return Objects.equals(departamentoId, that.departamentoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(departamentoId);
+    }
+}
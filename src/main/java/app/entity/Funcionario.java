@@ -9,16 +9,27 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "TB_FUNCIONARIO")
+@Table(name = "TB_FUNCIONARIO", indexes = {
+        // Suporta a ordenação e a paginação por cursor (nome, id)
+        @Index(name = "IDX_FUNCIONARIO_NOME_ID", columnList = "nome, id"),
+        // Mantidos pelas migrações em db/migration (V2)
+        @Index(name = "IDX_FUNCIONARIO_DEPARTAMENTO_NOME", columnList = "departamento_id, nome, id"),
+        @Index(name = "IDX_FUNCIONARIO_ATIVO_NOME", columnList = "ativo, nome, id")
+})
 public class Funcionario {
 
+    // Sequence com alocação em blocos (pooled): permite inserts em lote via JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_FUNCIONARIO")
+    @SequenceGenerator(name = "SEQ_FUNCIONARIO", sequenceName = "SEQ_FUNCIONARIO", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 120)
@@ -39,6 +50,11 @@ public class Funcionario {
     @Column(nullable = false)
     private Boolean ativo;
 
+    // Concorrência otimista: o UPDATE confere a versão lida (sem travar a linha entre leitura e gravação)
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "departamento_id", nullable = false)
     private Departamento departamento;
@@ -111,6 +127,10 @@ public class Funcionario {
         this.ativo = ativo;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
     public Departamento getDepartamento() {
         return departamento;
     }
@@ -0,0 +1,148 @@
+package app.entity;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Outbox de notificações: uma linha por mensagem e canal, gravada na mesma
+// transação da operação de negócio e entregue depois do commit.
+@Entity
+@Table(name = "TB_NOTIFICACAO_OUTBOX", indexes = {
+        @Index(name = "IDX_OUTBOX_STATUS_PROXIMA", columnList = "status, proximaTentativa")
+})
+public class NotificacaoPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Nome do bean NotificacaoService responsável pelo envio
+    @Column(nullable = false, length = 120)
+    private String canal;
+
+    @Column(nullable = false, length = 500)
+    private String mensagem;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusNotificacao status;
+
+    @Column(nullable = false)
+    private Integer tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(length = 500)
+    private String ultimoErro;
+
+    // Token do despachante que reservou a linha (status ENVIANDO)
+    @Column(length = 36)
+    private String reserva;
+
+    public NotificacaoPendente() {
+        this.status = StatusNotificacao.PENDENTE;
+        this.tentativas = 0;
+    }
+
+    public NotificacaoPendente(String canal, String mensagem, LocalDateTime agora) {
+        this();
+        this.canal = canal;
+        this.mensagem = mensagem;
+        this.criadoEm = agora;
+        this.proximaTentativa = agora;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCanal() {
+        return canal;
+    }
+
+    public void setCanal(String canal) {
+        this.canal = canal;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public StatusNotificacao getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusNotificacao status) {
+        this.status = status;
+    }
+
+    public Integer getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(Integer tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public LocalDateTime getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(LocalDateTime proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(LocalDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public String getReserva() {
+        return reserva;
+    }
+
+    public void setReserva(String reserva) {
+        this.reserva = reserva;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NotificacaoPendente that = (NotificacaoPendente) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
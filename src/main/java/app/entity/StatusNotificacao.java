@@ -0,0 +1,10 @@
+package app.entity;
+
+public enum StatusNotificacao {
+    // Aguardando envio (ou nova tentativa após falha)
+    PENDENTE,
+    // Reservada por um despachante até proximaTentativa; depois disso volta a ser elegível
+    ENVIANDO,
+    // Esgotou as tentativas; fica registrada para análise
+    FALHA
+}
@@ -0,0 +1,9 @@
+package app.evento;
+
+import app.dto.DepartamentoResponseDTO;
+
+// Publicado pelo DepartamentoService a cada gravação; tratado após o commit da transação.
+public record DepartamentoAlteradoEvento(
+    TipoAlteracao tipo,
+    DepartamentoResponseDTO departamento
+) {}
@@ -0,0 +1,10 @@
+package app.evento;
+
+import app.dto.FuncionarioResponseDTO;
+
+// Publicado pelo FuncionarioService a cada gravação; os ouvintes que mantêm
+// estruturas em memória reagem apenas após o commit da transação.
+public record FuncionarioAlteradoEvento(
+    TipoAlteracao tipo,
+    FuncionarioResponseDTO funcionario
+) {}
@@ -0,0 +1,9 @@
+package app.evento;
+
+// Publicado pelas alterações em lote (um UPDATE para todos os funcionários de um departamento),
+// que não geram um FuncionarioAlteradoEvento por funcionário.
+public record FuncionariosAlteradosEmLoteEvento(
+    TipoAlteracao tipo,
+    Long departamentoId,
+    int quantidade
+) {}
@@ -0,0 +1,9 @@
+package app.evento;
+
+public enum TipoAlteracao {
+    CRIADO,
+    ATUALIZADO,
+    REATIVADO,
+    INATIVADO,
+    REMOVIDO
+}
@@ -1,10 +1,21 @@
 package app.exceptions;
 
+import app.dto.DepartamentoResponseDTO;
 import app.dto.ErrorResponseDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.entity.Departamento;
+import app.entity.Funcionario;
+import app.service.DepartamentoService;
+import app.service.FuncionarioService;
+import app.service.VersaoDados;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -19,6 +30,12 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
     @ExceptionHandler(NegocioException.class)
     public ResponseEntity<ErrorResponseDTO> handleNegocio(NegocioException ex) {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
@@ -38,6 +55,52 @@ public class GlobalExceptionHandler {
         });
         return buildResponse(HttpStatus.BAD_REQUEST, "Erro de validação", fieldErrors);
     }
+
+    // If-Match com ETag desatualizado: 412 com a representação atual e o seu ETag, para o cliente refazer a alteração
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<Object> handleVersaoDesatualizada(VersaoDesatualizadaException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ex.getEtag()).body(ex.getAtual());
+    }
+
+    // Outra gravação confirmou uma versão nova entre a leitura e o UPDATE (@Version): 409 com a representação
+    // atual e o seu ETag, em vez de sobrescrever a alteração concorrente
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleConflito(ObjectOptimisticLockingFailureException ex) {
+        log.debug("Conflito de versão: {}", ex.getMessage());
+        try {
+            if (ex.getIdentifier() instanceof Long id) {
+                if (Funcionario.class.getName().equals(ex.getPersistentClassName())) {
+                    FuncionarioResponseDTO atual = funcionarioService.findById(id);
+                    return ResponseEntity.status(HttpStatus.CONFLICT).eTag(VersaoDados.etag(atual)).body(atual);
+                }
+                if (Departamento.class.getName().equals(ex.getPersistentClassName())) {
+                    DepartamentoResponseDTO atual = departamentoService.buscarPorId(id);
+                    return ResponseEntity.status(HttpStatus.CONFLICT).eTag(VersaoDados.etag(atual)).body(atual);
+                }
+            }
+        } catch (RecursoNaoEncontradoException e) {
+            // removido pela gravação concorrente
+        }
+        return buildResponse(HttpStatus.CONFLICT, "Registro alterado por outra requisição. Consulte e tente novamente.",
+                null);
+    }
+
+    // Controle de admissão (limite do cliente ou gravações simultâneas esgotadas): Retry-After para o cliente
+    // saber quando repetir
+    @ExceptionHandler(RequisicaoRecusadaException.class)
+    public ResponseEntity<ErrorResponseDTO> handleRecusada(RequisicaoRecusadaException ex) {
+        ResponseEntity<ErrorResponseDTO> resposta = buildResponse(ex.getStatus(), ex.getMessage(), null);
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(resposta.getBody());
+    }
+
+    // Nenhuma conexão livre no pool dentro do connection-timeout: sobrecarga momentânea, o cliente pode repetir
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSemConexao(CannotCreateTransactionException ex) {
+        log.warn("Sem conexão disponível com o banco: {}", ex.getMessage());
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Serviço sobrecarregado, tente novamente em instantes", null);
+    }
         
 
     @ExceptionHandler(Exception.class)
@@ -0,0 +1,25 @@
+package app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+// Requisição recusada pelo controle de admissão: 429 (limite do cliente) ou 503 (gravações simultâneas
+// esgotadas), com o Retry-After em segundos
+public class RequisicaoRecusadaException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSegundos;
+
+    public RequisicaoRecusadaException(HttpStatus status, String message, long retryAfterSegundos) {
+        super(message);
+        this.status = status;
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
@@ -0,0 +1,22 @@
+package app.exceptions;
+
+// If-Match com um ETag que não é mais o atual: leva a representação atual (e o seu ETag) para a resposta 412
+public class VersaoDesatualizadaException extends RuntimeException {
+
+    private final transient Object atual;
+    private final String etag;
+
+    public VersaoDesatualizadaException(String message, Object atual, String etag) {
+        super(message);
+        this.atual = atual;
+        this.etag = etag;
+    }
+
+    public Object getAtual() {
+        return atual;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
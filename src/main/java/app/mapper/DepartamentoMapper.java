@@ -28,7 +28,8 @@ public class DepartamentoMapper {
                 d.getId(),
                 d.getNome(),
                 d.getSigla(),
-                d.getAtivo()
+                d.getAtivo(),
+                d.getVersao()
         );
     }
 
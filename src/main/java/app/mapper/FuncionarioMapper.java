@@ -52,7 +52,26 @@ public class FuncionarioMapper {
                 f.getSalario(),
                 f.getDataAdmissao(),
                 f.getAtivo(),
-                departamentoDTO
+                departamentoDTO,
+                f.getVersao()
+        );
+    }
+
+    // Entidade -> DTO, com o departamento já resolvido (ex.: vindo do cache),
+    // sem tocar na associação lazy da entidade
+    public FuncionarioResponseDTO toResponseDTO(Funcionario f, DepartamentoResponseDTO departamentoDTO) {
+        if (f == null) return null;
+
+        return new FuncionarioResponseDTO(
+                f.getId(),
+                f.getNome(),
+                f.getEmail(),
+                f.getCargo(),
+                f.getSalario(),
+                f.getDataAdmissao(),
+                f.getAtivo(),
+                departamentoDTO,
+                f.getVersao()
         );
     }
 
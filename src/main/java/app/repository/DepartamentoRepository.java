@@ -2,7 +2,10 @@ package app.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import app.entity.Departamento;
@@ -15,4 +18,12 @@ public interface DepartamentoRepository extends JpaRepository<Departamento, Long
 
     // Verifica se já existe um departamento com o mesmo nome
     boolean existsByNome(String nome);
+
+    // Paginação por cursor (nome, id) — o nome já é único e indexado
+    @Query("""
+            select d from Departamento d
+            where d.nome >= :nome and (d.nome > :nome or d.id > :id)
+            order by d.nome asc, d.id asc
+            """)
+    List<Departamento> buscarPagina(@Param("nome") String nome, @Param("id") Long id, Limit limite);
 }
@@ -0,0 +1,86 @@
+package app.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import app.entity.EstatisticaDepartamento;
+
+@Repository
+public interface EstatisticaDepartamentoRepository extends JpaRepository<EstatisticaDepartamento, Long> {
+
+    // Aplica uma variação aos agregados; as datas só podem se expandir aqui (inclusões).
+    // Retorna 0 quando o departamento ainda não tem linha de estatística.
+    @Modifying
+    @Query("""
+            update EstatisticaDepartamento e
+               set e.total = e.total + :total,
+                   e.ativos = e.ativos + :ativos,
+                   e.somaSalarios = e.somaSalarios + :soma,
+                   e.somaQuadrados = e.somaQuadrados + :somaQuadrados,
+                   e.menorAdmissao = case when e.menorAdmissao is null or e.menorAdmissao > :menor
+                                          then :menor else e.menorAdmissao end,
+                   e.maiorAdmissao = case when e.maiorAdmissao is null or e.maiorAdmissao < :maior
+                                          then :maior else e.maiorAdmissao end
+             where e.departamentoId = :departamentoId
+            """)
+    int somar(@Param("departamentoId") Long departamentoId,
+              @Param("total") long total,
+              @Param("ativos") long ativos,
+              @Param("soma") double soma,
+              @Param("somaQuadrados") double somaQuadrados,
+              @Param("menor") LocalDate menor,
+              @Param("maior") LocalDate maior);
+
+    // Após excluir do agregado um ativo admitido em "data": só recalcula (pelo índice do
+    // departamento) se essa data era o extremo registrado
+    @Modifying
+    @Query("""
+            update EstatisticaDepartamento e
+               set e.menorAdmissao = (select min(f.dataAdmissao) from Funcionario f
+                                       where f.departamento.id = :departamentoId and f.ativo = true)
+             where e.departamentoId = :departamentoId and e.menorAdmissao >= :data
+            """)
+    int recalcularMenorAdmissao(@Param("departamentoId") Long departamentoId, @Param("data") LocalDate data);
+
+    @Modifying
+    @Query("""
+            update EstatisticaDepartamento e
+               set e.maiorAdmissao = (select max(f.dataAdmissao) from Funcionario f
+                                       where f.departamento.id = :departamentoId and f.ativo = true)
+             where e.departamentoId = :departamentoId and e.maiorAdmissao <= :data
+            """)
+    int recalcularMaiorAdmissao(@Param("departamentoId") Long departamentoId, @Param("data") LocalDate data);
+
+    // Cálculo completo a partir de TB_FUNCIONARIO (criação da linha e recargas)
+    @Query("""
+            select new app.entity.EstatisticaDepartamento(d.id, count(f),
+                   coalesce(sum(case when f.ativo = true then 1L else 0L end), 0L),
+                   coalesce(sum(case when f.ativo = true then f.salario else 0.0 end), 0.0),
+                   coalesce(sum(case when f.ativo = true then f.salario * f.salario else 0.0 end), 0.0),
+                   min(case when f.ativo = true then f.dataAdmissao end),
+                   max(case when f.ativo = true then f.dataAdmissao end))
+              from Departamento d left join Funcionario f on f.departamento = d
+             where d.id = :departamentoId
+             group by d.id
+            """)
+    Optional<EstatisticaDepartamento> calcular(@Param("departamentoId") Long departamentoId);
+
+    @Query("""
+            select new app.entity.EstatisticaDepartamento(d.id, count(f),
+                   coalesce(sum(case when f.ativo = true then 1L else 0L end), 0L),
+                   coalesce(sum(case when f.ativo = true then f.salario else 0.0 end), 0.0),
+                   coalesce(sum(case when f.ativo = true then f.salario * f.salario else 0.0 end), 0.0),
+                   min(case when f.ativo = true then f.dataAdmissao end),
+                   max(case when f.ativo = true then f.dataAdmissao end))
+              from Departamento d left join Funcionario f on f.departamento = d
+             group by d.id
+            """)
+    List<EstatisticaDepartamento> calcularTodos();
+}
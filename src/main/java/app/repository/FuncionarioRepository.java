@@ -1,9 +1,15 @@
 package app.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import app.entity.Funcionario;
@@ -11,30 +17,118 @@ import app.entity.Funcionario;
 @Repository
 public interface FuncionarioRepository extends JpaRepository<Funcionario, Long> {
 
+    // As consultas que alimentam o FuncionarioResponseDTO carregam o departamento
+    // no mesmo SELECT (join), evitando uma consulta extra por funcionário (N+1).
+    // Cada consulta tem índice nas migrações (db/migration); o PlanoConsultasTest confere.
+    // Filtros por trecho (like '%...%') ficam em buscarPagina, com o índice de trigramas.
+
+    @Override
+    @EntityGraph(attributePaths = "departamento")
+    Optional<Funcionario> findById(Long id);
+
     Optional<Funcionario> findByEmail(String email);
 
     boolean existsByEmail(String email);
 
-    List<Funcionario> findByAtivo(boolean ativo);
-
-    List<Funcionario> findByCargoContainingIgnoreCase(String cargo);
+    // Verifica de uma só vez quais e-mails de um lote já estão cadastrados
+    @Query("select f.email from Funcionario f where f.email in :emails")
+    List<String> findEmailsCadastrados(@Param("emails") Collection<String> emails);
 
-    List<Funcionario> findByCargoContainingIgnoreCaseAndAtivo(String cargo, boolean ativo);
+    @EntityGraph(attributePaths = "departamento")
+    List<Funcionario> findByAtivo(boolean ativo);
 
-    List<Funcionario> findByDepartamentoId(Long departamentoId);
+    // Consulta explícita: a derivada (com o EntityGraph) filtrava por um segundo join com
+    // TB_DEPARTAMENTO em vez da FK e não usava IDX_FUNCIONARIO_DEPARTAMENTO_NOME
+    @EntityGraph(attributePaths = "departamento")
+    @Query("""
+            select f from Funcionario f
+            where f.departamento.id = :departamentoId
+            order by f.nome asc, f.id asc
+            """)
+    List<Funcionario> findByDepartamentoId(@Param("departamentoId") Long departamentoId);
 
-    List<Funcionario> findByDepartamentoNome(String nome);
+    // Filtros por atributo do departamento: o join fetch é interno, então o banco pode partir
+    // do índice de TB_DEPARTAMENTO e chegar aos funcionários pela FK (a derivada gerava left join)
+    @Query("select f from Funcionario f join fetch f.departamento d where d.nome = :nome")
+    List<Funcionario> findByDepartamentoNome(@Param("nome") String nome);
 
-    List<Funcionario> findByDepartamentoSigla(String sigla);
+    @Query("select f from Funcionario f join fetch f.departamento d where d.sigla = :sigla")
+    List<Funcionario> findByDepartamentoSigla(@Param("sigla") String sigla);
 
-    List<Funcionario> findByDepartamentoAtivo(boolean ativo);
+    @Query("select f from Funcionario f join fetch f.departamento d where d.ativo = :ativo")
+    List<Funcionario> findByDepartamentoAtivo(@Param("ativo") boolean ativo);
 
     // ========= MÉTODOS COM ORDENAÇÃO =========
-    List<Funcionario> findAllByOrderByNomeAsc();
-
+    // (a lista completa ordenada é buscarPagina com Limit.unlimited())
+    @EntityGraph(attributePaths = "departamento")
     List<Funcionario> findByAtivoOrderByNomeAsc(boolean ativo);
 
-    List<Funcionario> findByCargoContainingIgnoreCaseOrderByNomeAsc(String cargo);
-
-    List<Funcionario> findByCargoContainingIgnoreCaseAndAtivoOrderByNomeAsc(String cargo, boolean ativo);
+    // ========= PAGINAÇÃO POR CURSOR (nome, id) =========
+    // Busca a partir da posição (nome, id) do último item da página anterior,
+    // apoiada no índice IDX_FUNCIONARIO_NOME_ID. Com Limit.unlimited() serve a listagem completa.
+    // Os filtros chegam com \, % e _ escapados (FuncionarioService): o trecho é sempre literal.
+    @EntityGraph(attributePaths = "departamento")
+    @Query("""
+            select f from Funcionario f
+            where (:cargo is null or lower(f.cargo) like lower(concat('%', :cargo, '%')) escape '\\')
+              and (:nome is null or lower(f.nome) like lower(concat('%', :nome, '%')) escape '\\')
+              and (:email is null or lower(f.email) like lower(concat('%', :email, '%')) escape '\\')
+              and (:ativo is null or f.ativo = :ativo)
+              and f.nome >= :posNome and (f.nome > :posNome or f.id > :posId)
+            order by f.nome asc, f.id asc
+            """)
+    List<Funcionario> buscarPagina(@Param("cargo") String cargo,
+                                   @Param("nome") String nome,
+                                   @Param("email") String email,
+                                   @Param("ativo") Boolean ativo,
+                                   @Param("posNome") String posNome,
+                                   @Param("posId") Long posId,
+                                   Limit limite);
+
+    // Mesma busca restrita aos ids candidatos do índice de trigramas (acesso pela PK).
+    // Os filtros LIKE são reaplicados só sobre esses ids, garantindo o resultado exato.
+    @EntityGraph(attributePaths = "departamento")
+    @Query("""
+            select f from Funcionario f
+            where f.id in :ids
+              and (:cargo is null or lower(f.cargo) like lower(concat('%', :cargo, '%')) escape '\\')
+              and (:nome is null or lower(f.nome) like lower(concat('%', :nome, '%')) escape '\\')
+              and (:email is null or lower(f.email) like lower(concat('%', :email, '%')) escape '\\')
+              and (:ativo is null or f.ativo = :ativo)
+              and f.nome >= :posNome and (f.nome > :posNome or f.id > :posId)
+            order by f.nome asc, f.id asc
+            """)
+    List<Funcionario> buscarPaginaPorIds(@Param("ids") Collection<Long> ids,
+                                         @Param("cargo") String cargo,
+                                         @Param("nome") String nome,
+                                         @Param("email") String email,
+                                         @Param("ativo") Boolean ativo,
+                                         @Param("posNome") String posNome,
+                                         @Param("posId") Long posId,
+                                         Limit limite);
+
+    // ========= ALTERAÇÕES EM LOTE POR DEPARTAMENTO =========
+    // Um único UPDATE para os funcionários ativos do departamento (índice IDX_FUNCIONARIO_DEPARTAMENTO_NOME).
+    // Não passam pelo contexto de persistência: pendências são gravadas antes e o contexto é limpo depois.
+    // Incrementam a versão (@Version) de cada linha alterada, como uma gravação pela entidade.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Funcionario f
+            set f.salario = f.salario * :fator + :acrescimo,
+                f.versao = f.versao + 1
+            where f.departamento.id = :departamentoId and f.ativo = true
+            """)
+    int reajustarSalarios(@Param("departamentoId") Long departamentoId,
+                          @Param("fator") double fator,
+                          @Param("acrescimo") double acrescimo);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Funcionario f
+            set f.ativo = false,
+                f.versao = f.versao + 1
+            where f.departamento.id = :departamentoId and f.ativo = true
+            """)
+    int inativarPorDepartamento(@Param("departamentoId") Long departamentoId);
 }
@@ -0,0 +1,80 @@
+package app.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.entity.NotificacaoPendente;
+import app.entity.StatusNotificacao;
+
+@Repository
+public interface NotificacaoPendenteRepository extends JpaRepository<NotificacaoPendente, Long> {
+
+    // As leituras do despacho ficam fora de transação (nunca somente leitura), para serem feitas sempre
+    // no primário: numa réplica atrasada, notificações já entregues voltariam a ser enviadas
+
+    // Candidatas ao próximo lote: pendentes com envio vencido e reservas expiradas
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    List<NotificacaoPendente> findByStatusInAndProximaTentativaLessThanEqualOrderByIdAsc(
+            Collection<StatusNotificacao> status, LocalDateTime agora, Limit limite);
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    List<NotificacaoPendente> findByReservaOrderByIdAsc(String reserva);
+
+    long countByStatus(StatusNotificacao status);
+
+    // ========= RESERVA DO LOTE =========
+    // Cada linha só é reservada se ainda estiver elegível quando o UPDATE obtém o seu lock: de dois
+    // despachantes com as mesmas candidatas, o segundo não a encontra mais. A reserva é confirmada
+    // numa transação própria, antes de qualquer envio.
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("""
+            update NotificacaoPendente n
+            set n.status = app.entity.StatusNotificacao.ENVIANDO,
+                n.reserva = :reserva,
+                n.proximaTentativa = :expiraEm
+            where n.id in :ids
+              and n.status <> app.entity.StatusNotificacao.FALHA
+              and n.proximaTentativa <= :agora
+            """)
+    int reservar(@Param("ids") Collection<Long> ids,
+                 @Param("reserva") String reserva,
+                 @Param("agora") LocalDateTime agora,
+                 @Param("expiraEm") LocalDateTime expiraEm);
+
+    // Conclusão do envio, só enquanto a reserva ainda for de quem enviou
+
+    @Modifying
+    @Transactional
+    @Query("delete from NotificacaoPendente n where n.id in :ids and n.reserva = :reserva")
+    int removerEntregues(@Param("ids") Collection<Long> ids, @Param("reserva") String reserva);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update NotificacaoPendente n
+            set n.status = :status,
+                n.reserva = null,
+                n.tentativas = :tentativas,
+                n.proximaTentativa = :proximaTentativa,
+                n.ultimoErro = :ultimoErro
+            where n.id = :id and n.reserva = :reserva
+            """)
+    int devolver(@Param("id") Long id,
+                 @Param("reserva") String reserva,
+                 @Param("status") StatusNotificacao status,
+                 @Param("tentativas") Integer tentativas,
+                 @Param("proximaTentativa") LocalDateTime proximaTentativa,
+                 @Param("ultimoErro") String ultimoErro);
+}
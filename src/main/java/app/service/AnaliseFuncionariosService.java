@@ -0,0 +1,96 @@
+package app.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import app.dto.AdmissoesPorAnoDTO;
+import app.dto.ComparativoDepartamentoDTO;
+import app.dto.DistribuicaoSalarialDTO;
+import app.exceptions.RecursoNaoEncontradoException;
+import app.service.ColunasFuncionarios.Agrupamento;
+import app.service.ColunasFuncionarios.Grupos;
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Consultas analíticas sobre a cópia colunar dos funcionários (SnapshotFuncionarios), sem acesso ao banco.
+ * O filtro ativo é opcional em todas: null considera ativos e inativos.
+ */
+@Service
+@Timed(value = "servicos.analise", histogram = true)
+public class AnaliseFuncionariosService {
+
+    @Autowired
+    private SnapshotFuncionarios snapshotFuncionarios;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    // Percentis de salário por cargo, do cargo com mais funcionários para o com menos
+    public List<DistribuicaoSalarialDTO> salariosPorCargo(Boolean ativo) {
+        Grupos g = snapshotFuncionarios.colunas().agrupar(Agrupamento.CARGO, ativo, true);
+
+        List<DistribuicaoSalarialDTO> resultado = new ArrayList<>();
+        for (int i = 0; i < g.tamanho(); i++) {
+            if (g.quantidade(i) == 0) continue;
+            resultado.add(new DistribuicaoSalarialDTO((String) g.rotulo(i), g.quantidade(i),
+                    arredondar(g.minimo(i)), arredondar(g.percentil(i, 0.25)), arredondar(g.percentil(i, 0.5)),
+                    arredondar(g.percentil(i, 0.75)), arredondar(g.percentil(i, 0.9)),
+                    arredondar(g.percentil(i, 0.99)), arredondar(g.maximo(i)),
+                    arredondar(g.folha(i) / g.quantidade(i))));
+        }
+        resultado.sort(Comparator.comparingLong(DistribuicaoSalarialDTO::funcionarios).reversed()
+                .thenComparing(DistribuicaoSalarialDTO::cargo));
+        return resultado;
+    }
+
+    // Admissões por ano, em ordem cronológica (anos sem admissões são omitidos)
+    public List<AdmissoesPorAnoDTO> admissoesPorAno(Boolean ativo) {
+        Grupos g = snapshotFuncionarios.colunas().agrupar(Agrupamento.ANO_ADMISSAO, ativo, false);
+
+        List<AdmissoesPorAnoDTO> resultado = new ArrayList<>();
+        for (int i = 0; i < g.tamanho(); i++) {
+            if (g.quantidade(i) == 0) continue;
+            resultado.add(new AdmissoesPorAnoDTO((Integer) g.rotulo(i), g.quantidade(i), g.ativos(i),
+                    arredondar(g.folha(i) / g.quantidade(i))));
+        }
+        return resultado;
+    }
+
+    // Folha, média, mediana e p90 de salário e admissão média por departamento, da maior folha para a menor
+    public List<ComparativoDepartamentoDTO> comparativoDepartamentos(Boolean ativo) {
+        Grupos g = snapshotFuncionarios.colunas().agrupar(Agrupamento.DEPARTAMENTO, ativo, true);
+
+        List<ComparativoDepartamentoDTO> resultado = new ArrayList<>();
+        for (int i = 0; i < g.tamanho(); i++) {
+            if (g.quantidade(i) == 0) continue;
+            Long departamentoId = (Long) g.rotulo(i);
+            resultado.add(new ComparativoDepartamentoDTO(departamentoId, nomeDepartamento(departamentoId),
+                    g.quantidade(i), g.ativos(i), arredondar(g.folha(i)), arredondar(g.folha(i) / g.quantidade(i)),
+                    arredondar(g.percentil(i, 0.5)), arredondar(g.percentil(i, 0.9)), g.admissaoMedia(i)));
+        }
+        resultado.sort(Comparator.comparingDouble(ComparativoDepartamentoDTO::folhaSalarial).reversed()
+                .thenComparing(ComparativoDepartamentoDTO::departamentoId));
+        return resultado;
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // Nome pelo cache de departamentos; departamento removido depois da última gravação fica sem nome
+    private String nomeDepartamento(Long departamentoId) {
+        try {
+            return departamentoService.buscarPorId(departamentoId).nome();
+        } catch (RecursoNaoEncontradoException e) {
+            return null;
+        }
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+}
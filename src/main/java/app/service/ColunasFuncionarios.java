@@ -0,0 +1,371 @@
+package app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Cópia colunar dos funcionários para consultas analíticas: uma coluna por atributo em arrays
+ * primitivos (salário, admissão em dias desde 1970, versão), o status ativo num bitset e cargo e
+ * departamento codificados por dicionário. Agregações percorrem as colunas em paralelo (fork/join)
+ * sem carregar entidades nem criar objetos por linha.
+ *
+ * Cada funcionário ocupa uma linha; a remoção move a última linha para a vaga. Gravações alteram
+ * as linhas no lugar sob o lock de escrita; consultas usam o lock de leitura.
+ *
+ * A remoção deixa uma lápide com a última versão do funcionário, para que uma gravação atrasada (de
+ * antes da exclusão) não o traga de volta. As lápides vivem até a próxima recarga, que cria outra cópia.
+ */
+public class ColunasFuncionarios {
+
+    public enum Agrupamento { CARGO, DEPARTAMENTO, ANO_ADMISSAO }
+
+    // Abaixo disto uma faixa de linhas é agregada sem dividir a tarefa
+    private final int limiarParalelo;
+
+    private long[] ids = new long[0];
+    private long[] versoes = new long[0];
+    private double[] salarios = new double[0];
+    private int[] admissoes = new int[0];
+    private int[] departamentos = new int[0];
+    private int[] cargos = new int[0];
+    private final BitSet ativos = new BitSet();
+    private int linhas;
+
+    private final Map<Long, Integer> posicoes = new HashMap<>();
+    // Funcionários removidos -> última versão conhecida
+    private final Map<Long, Long> lapides = new HashMap<>();
+    private final Dicionario<String> dicionarioCargos = new Dicionario<>();
+    private final Dicionario<Long> dicionarioDepartamentos = new Dicionario<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ColunasFuncionarios(int limiarParalelo) {
+        this.limiarParalelo = Math.max(1, limiarParalelo);
+    }
+
+    // ======================
+    // ESCRITA
+    // ======================
+
+    // Inclui ou substitui a linha do funcionário; versão menor que a gravada (ou que a da remoção) é de um
+    // evento atrasado e é ignorada
+    public void gravar(long id, long versao, double salario, LocalDate admissao, Long departamentoId,
+                       String cargo, boolean ativo) {
+        lock.writeLock().lock();
+        try {
+            Integer linha = posicoes.get(id);
+            if (linha == null) {
+                Long removida = lapides.get(id);
+                if (removida != null && versao <= removida) return;
+                linha = linhas++;
+                garantirCapacidade(linhas);
+                posicoes.put(id, linha);
+                ids[linha] = id;
+            } else if (versao < versoes[linha]) {
+                return;
+            }
+            versoes[linha] = versao;
+            salarios[linha] = salario;
+            admissoes[linha] = (int) admissao.toEpochDay();
+            departamentos[linha] = dicionarioDepartamentos.codigo(departamentoId);
+            cargos[linha] = dicionarioCargos.codigo(cargo);
+            ativos.set(linha, ativo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // versao: a do funcionário excluído; a lápide guarda a maior entre ela e a da linha
+    public void remover(long id, long versao) {
+        lock.writeLock().lock();
+        try {
+            Integer linha = posicoes.remove(id);
+            long ultimaVersao = linha != null ? Math.max(versao, versoes[linha]) : versao;
+            lapides.merge(id, ultimaVersao, Math::max);
+            if (linha == null) return;
+
+            int ultima = --linhas;
+            if (linha != ultima) {
+                ids[linha] = ids[ultima];
+                versoes[linha] = versoes[ultima];
+                salarios[linha] = salarios[ultima];
+                admissoes[linha] = admissoes[ultima];
+                departamentos[linha] = departamentos[ultima];
+                cargos[linha] = cargos[ultima];
+                ativos.set(linha, ativos.get(ultima));
+                posicoes.put(ids[linha], linha);
+            }
+            ativos.clear(ultima);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int linhas() {
+        lock.readLock().lock();
+        try {
+            return linhas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ======================
+    // AGREGAÇÃO
+    // ======================
+
+    /**
+     * Quantidade, folha, extremos e admissão média por grupo, percorrendo as colunas em paralelo.
+     * ativo filtra pelo status (null considera todos); comSalarios copia os salários de cada grupo
+     * para um array do tamanho exato (já conhecido após a agregação), para o cálculo de percentis.
+     */
+    public Grupos agrupar(Agrupamento agrupamento, Boolean ativo, boolean comSalarios) {
+        lock.readLock().lock();
+        try {
+            Anos anos = agrupamento == Agrupamento.ANO_ADMISSAO ? new Anos() : null;
+            Object[] rotulos = switch (agrupamento) {
+                case CARGO -> dicionarioCargos.valores();
+                case DEPARTAMENTO -> dicionarioDepartamentos.valores();
+                case ANO_ADMISSAO -> anos.rotulos();
+            };
+            IntUnaryOperator grupo = switch (agrupamento) {
+                case CARGO -> linha -> cargos[linha];
+                case DEPARTAMENTO -> linha -> departamentos[linha];
+                case ANO_ADMISSAO -> linha -> anos.grupo(admissoes[linha]);
+            };
+
+            Tarefa tarefa = new Tarefa(grupo, rotulos.length, ativo, 0, linhas);
+            Grupos grupos = linhas > limiarParalelo ? ForkJoinPool.commonPool().invoke(tarefa) : tarefa.compute();
+            grupos.rotulos = rotulos;
+            if (comSalarios) grupos.salarios = separarSalarios(grupo, ativo, grupos.quantidade);
+            return grupos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Acumuladores por grupo; o índice do grupo corresponde a rotulo(g)
+    public static class Grupos {
+
+        private Object[] rotulos;
+        private final long[] quantidade;
+        private final long[] ativos;
+        private final double[] folha;
+        private final double[] minimo;
+        private final double[] maximo;
+        private final long[] somaAdmissoes;
+        private double[][] salarios;
+
+        Grupos(int tamanho) {
+            quantidade = new long[tamanho];
+            ativos = new long[tamanho];
+            folha = new double[tamanho];
+            minimo = new double[tamanho];
+            maximo = new double[tamanho];
+            somaAdmissoes = new long[tamanho];
+            Arrays.fill(minimo, Double.POSITIVE_INFINITY);
+            Arrays.fill(maximo, Double.NEGATIVE_INFINITY);
+        }
+
+        public int tamanho() { return quantidade.length; }
+        public Object rotulo(int g) { return rotulos[g]; }
+        public long quantidade(int g) { return quantidade[g]; }
+        public long ativos(int g) { return ativos[g]; }
+        public double folha(int g) { return folha[g]; }
+        public double minimo(int g) { return minimo[g]; }
+        public double maximo(int g) { return maximo[g]; }
+
+        public LocalDate admissaoMedia(int g) {
+            return LocalDate.ofEpochDay(Math.round((double) somaAdmissoes[g] / quantidade[g]));
+        }
+
+        // Percentil pelo posto mais próximo (p entre 0 e 1), por seleção: sem ordenar todos os salários do grupo
+        public double percentil(int g, double p) {
+            double[] valores = salarios[g];
+            int posto = (int) Math.ceil(p * valores.length);
+            return selecionar(valores, Math.max(0, posto - 1));
+        }
+
+        private void somar(Grupos outro) {
+            for (int g = 0; g < quantidade.length; g++) {
+                if (outro.quantidade[g] == 0) continue;
+                quantidade[g] += outro.quantidade[g];
+                ativos[g] += outro.ativos[g];
+                folha[g] += outro.folha[g];
+                minimo[g] = Math.min(minimo[g], outro.minimo[g]);
+                maximo[g] = Math.max(maximo[g], outro.maximo[g]);
+                somaAdmissoes[g] += outro.somaAdmissoes[g];
+            }
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // Divide as linhas ao meio até o limiar; cada folha acumula a sua faixa e as metades são somadas
+    private class Tarefa extends RecursiveTask<Grupos> {
+
+        private final IntUnaryOperator grupo;
+        private final int tamanho;
+        private final Boolean ativo;
+        private final int inicio;
+        private final int fim;
+
+        Tarefa(IntUnaryOperator grupo, int tamanho, Boolean ativo, int inicio, int fim) {
+            this.grupo = grupo;
+            this.tamanho = tamanho;
+            this.ativo = ativo;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Grupos compute() {
+            if (fim - inicio > limiarParalelo) {
+                int meio = (inicio + fim) >>> 1;
+                Tarefa esquerda = new Tarefa(grupo, tamanho, ativo, inicio, meio);
+                Tarefa direita = new Tarefa(grupo, tamanho, ativo, meio, fim);
+                esquerda.fork();
+                Grupos resultado = direita.compute();
+                resultado.somar(esquerda.join());
+                return resultado;
+            }
+
+            Grupos r = new Grupos(tamanho);
+            for (int linha = inicio; linha < fim; linha++) {
+                boolean ativa = ativos.get(linha);
+                if (ativo != null && ativo != ativa) continue;
+
+                int g = grupo.applyAsInt(linha);
+                double salario = salarios[linha];
+                r.quantidade[g]++;
+                if (ativa) r.ativos[g]++;
+                r.folha[g] += salario;
+                if (salario < r.minimo[g]) r.minimo[g] = salario;
+                if (salario > r.maximo[g]) r.maximo[g] = salario;
+                r.somaAdmissoes[g] += admissoes[linha];
+            }
+            return r;
+        }
+    }
+
+    // Grupo (ano - primeiro ano) de cada dia entre a menor e a maior admissão, calculado uma vez por
+    // consulta: a varredura não converte cada data em LocalDate
+    private class Anos {
+
+        private final int primeiroDia;
+        private final int primeiroAno;
+        private final int[] grupoPorDia;
+        private final Object[] rotulos;
+
+        Anos() {
+            int menor = Integer.MAX_VALUE;
+            int maior = Integer.MIN_VALUE;
+            for (int i = 0; i < linhas; i++) {
+                menor = Math.min(menor, admissoes[i]);
+                maior = Math.max(maior, admissoes[i]);
+            }
+            if (linhas == 0) menor = maior = (int) LocalDate.now().toEpochDay();
+
+            primeiroDia = menor;
+            primeiroAno = LocalDate.ofEpochDay(menor).getYear();
+            grupoPorDia = new int[maior - menor + 1];
+            LocalDate dia = LocalDate.ofEpochDay(menor);
+            for (int i = 0; i < grupoPorDia.length; i++, dia = dia.plusDays(1)) {
+                grupoPorDia[i] = dia.getYear() - primeiroAno;
+            }
+
+            int anos = linhas == 0 ? 0 : grupoPorDia[grupoPorDia.length - 1] + 1;
+            rotulos = new Object[anos];
+            for (int i = 0; i < anos; i++) rotulos[i] = primeiroAno + i;
+        }
+
+        int grupo(int dia) {
+            return grupoPorDia[dia - primeiroDia];
+        }
+
+        Object[] rotulos() {
+            return rotulos;
+        }
+    }
+
+    private void garantirCapacidade(int necessaria) {
+        if (necessaria <= ids.length) return;
+        int nova = Math.max(necessaria, Math.max(16, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, nova);
+        versoes = Arrays.copyOf(versoes, nova);
+        salarios = Arrays.copyOf(salarios, nova);
+        admissoes = Arrays.copyOf(admissoes, nova);
+        departamentos = Arrays.copyOf(departamentos, nova);
+        cargos = Arrays.copyOf(cargos, nova);
+    }
+
+    // Valor -> código sequencial; os códigos não são reaproveitados (cargos e departamentos são poucos)
+    private static class Dicionario<T> {
+
+        private final Map<T, Integer> codigos = new HashMap<>();
+        private final List<T> valores = new ArrayList<>();
+
+        int codigo(T valor) {
+            Integer codigo = codigos.get(valor);
+            if (codigo == null) {
+                codigo = valores.size();
+                codigos.put(valor, codigo);
+                valores.add(valor);
+            }
+            return codigo;
+        }
+
+        Object[] valores() {
+            return valores.toArray();
+        }
+    }
+
+    // Salários de cada grupo, com a quantidade por grupo já calculada pela agregação
+    private double[][] separarSalarios(IntUnaryOperator grupo, Boolean ativo, long[] quantidade) {
+        double[][] porGrupo = new double[quantidade.length][];
+        for (int g = 0; g < quantidade.length; g++) porGrupo[g] = new double[(int) quantidade[g]];
+
+        int[] preenchidos = new int[quantidade.length];
+        for (int linha = 0; linha < linhas; linha++) {
+            if (ativo != null && ativo != ativos.get(linha)) continue;
+            int g = grupo.applyAsInt(linha);
+            porGrupo[g][preenchidos[g]++] = salarios[linha];
+        }
+        return porGrupo;
+    }
+
+    // k-ésimo menor valor (quickselect, linear em média); reordena o array parcialmente
+    private static double selecionar(double[] valores, int k) {
+        int inicio = 0;
+        int fim = valores.length - 1;
+        while (inicio < fim) {
+            double pivo = valores[(inicio + fim) >>> 1];
+            int i = inicio;
+            int j = fim;
+            while (i <= j) {
+                while (valores[i] < pivo) i++;
+                while (valores[j] > pivo) j--;
+                if (i <= j) {
+                    double t = valores[i];
+                    valores[i++] = valores[j];
+                    valores[j--] = t;
+                }
+            }
+            if (k <= j) fim = j;
+            else if (k >= i) inicio = i;
+            else break;
+        }
+        return valores[k];
+    }
+}
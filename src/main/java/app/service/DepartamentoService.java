@@ -3,18 +3,35 @@ package app.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.config.CacheConfig;
+import app.config.RepetirEmConflito;
+import app.dto.AlteracaoEmLoteDTO;
 import app.dto.DepartamentoRequestDTO;
 import app.dto.DepartamentoResponseDTO;
+import app.dto.PaginaDTO;
 import app.entity.Departamento;
+import app.entity.EstatisticaDepartamento;
+import app.evento.DepartamentoAlteradoEvento;
+import app.evento.FuncionariosAlteradosEmLoteEvento;
+import app.evento.TipoAlteracao;
 import app.exceptions.NegocioException;
 import app.exceptions.RecursoNaoEncontradoException;
+import app.exceptions.VersaoDesatualizadaException;
 import app.mapper.DepartamentoMapper;
 import app.repository.DepartamentoRepository;
+import app.repository.EstatisticaDepartamentoRepository;
+import app.repository.FuncionarioRepository;
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = "servicos.departamento", histogram = true)
 public class DepartamentoService {
 
     @Autowired
@@ -23,10 +40,29 @@ public class DepartamentoService {
     @Autowired
     private DepartamentoMapper departamentoMapper;
 
+    @Autowired
+    private EstatisticaDepartamentoRepository estatisticaDepartamentoRepository;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @Autowired
+    private NotificacaoOutboxService notificacaoOutboxService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${app.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
     // ======================
     // CONSULTAS
     // ======================
 
+    @Transactional(readOnly = true)
     public List<DepartamentoResponseDTO> listarTodos() {
         return departamentoRepository.findAll()
                 .stream()
@@ -34,6 +70,22 @@ public class DepartamentoService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDTO<DepartamentoResponseDTO> listarPagina(String cursor, Integer limite) {
+        int tamanho = Paginacao.tamanho(limite, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+        Paginacao.Posicao posicao = Paginacao.decodificar(cursor);
+
+        List<Departamento> lista = departamentoRepository.buscarPagina(
+                posicao.nome(), posicao.id(), Limit.of(tamanho + 1));
+
+        return Paginacao.montar(lista, tamanho, departamentoMapper::toResponseDTO,
+                Departamento::getNome, Departamento::getId);
+    }
+
+    // Cache por versão dos departamentos (VersaoDados): uma leitura que terminar depois de uma gravação guarda
+    // o valor antigo na chave da versão antiga, que ninguém mais consulta; nada é removido no commit
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.DEPARTAMENTOS_ATIVOS, key = "@versaoDados.versaoDepartamentos()")
     public List<DepartamentoResponseDTO> listarAtivos() {
         return departamentoRepository.findByAtivo(true)
                 .stream()
@@ -41,6 +93,8 @@ public class DepartamentoService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.DEPARTAMENTOS, key = "@versaoDados.versaoDepartamentos() + ':' + #id")
     public DepartamentoResponseDTO buscarPorId(Long id) {
         Departamento d = departamentoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Departamento não encontrado: " + id));
@@ -63,15 +117,18 @@ public class DepartamentoService {
         if (dto.ativo() == null) novo.setAtivo(true);
 
         Departamento salvo = departamentoRepository.save(novo);
-        return departamentoMapper.toResponseDTO(salvo);
+        // Linha de estatísticas zerada, atualizada a cada gravação de funcionário
+        estatisticaDepartamentoRepository.save(EstatisticaDepartamento.vazia(salvo.getId()));
+        return publicar(TipoAlteracao.CRIADO, departamentoMapper.toResponseDTO(salvo));
     }
 
     @Transactional
-    public DepartamentoResponseDTO atualizar(Long id, DepartamentoRequestDTO dto) {
+    public DepartamentoResponseDTO atualizar(Long id, DepartamentoRequestDTO dto, String etagEsperado) {
         validar(dto);
 
         Departamento existente = departamentoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Departamento não encontrado: " + id));
+        conferirVersao(existente, etagEsperado);
 
         // Se tentar alterar o nome para outro já existente
         if (!existente.getNome().equalsIgnoreCase(dto.nome()) && 
@@ -80,28 +137,75 @@ public class DepartamentoService {
         }
 
         departamentoMapper.updateEntity(existente, dto);
-        Departamento atualizado = departamentoRepository.save(existente);
-        return departamentoMapper.toResponseDTO(atualizado);
+        // Entidade gerenciada: o flush confere e incrementa a versão antes de montar a resposta
+        departamentoRepository.flush();
+        return publicar(TipoAlteracao.ATUALIZADO, departamentoMapper.toResponseDTO(existente));
     }
 
     @Transactional
-    public DepartamentoResponseDTO inativar(Long id) {
+    public DepartamentoResponseDTO inativar(Long id, String etagEsperado) {
         Departamento d = departamentoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Departamento não encontrado: " + id));
+        conferirVersao(d, etagEsperado);
 
         if (!d.getAtivo()) {
             throw new NegocioException("Este departamento já está inativo.");
         }
 
         d.setAtivo(false);
-        Departamento salvo = departamentoRepository.save(d);
-        return departamentoMapper.toResponseDTO(salvo);
+        departamentoRepository.flush();
+        return publicar(TipoAlteracao.INATIVADO, departamentoMapper.toResponseDTO(d));
+    }
+
+    // Inativa o departamento e, num único UPDATE, os seus funcionários ativos.
+    // Num departamento já inativo, apenas inativa os funcionários que restaram ativos.
+    // Idempotente: numa disputa com outra gravação, repete sobre a versão nova.
+    @Transactional
+    @RepetirEmConflito
+    public AlteracaoEmLoteDTO inativarComFuncionarios(Long id, String etagEsperado) {
+        Departamento d = departamentoRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Departamento não encontrado: " + id));
+        conferirVersao(d, etagEsperado);
+
+        if (d.getAtivo()) {
+            d.setAtivo(false);
+            // Como em inativar: o flush incrementa a versão antes de montar o evento (ETag do feed)
+            departamentoRepository.flush();
+            publicar(TipoAlteracao.INATIVADO, departamentoMapper.toResponseDTO(d));
+        }
+        int afetados = funcionarioRepository.inativarPorDepartamento(id);
+
+        if (afetados > 0) {
+            // Sem funcionários ativos, a linha de estatísticas fica só com o total
+            estatisticaDepartamentoRepository.calcular(id).ifPresent(estatisticaDepartamentoRepository::save);
+            notificacaoOutboxService.registrar("Departamento " + d.getNome() + " inativado com "
+                    + afetados + " funcionário(s) inativado(s).");
+            eventPublisher.publishEvent(new FuncionariosAlteradosEmLoteEvento(TipoAlteracao.INATIVADO, id, afetados));
+        }
+        return new AlteracaoEmLoteDTO(id, "inativacao", afetados);
     }
 
     // ======================
     // MÉTODOS AUXILIARES
     // ======================
 
+    // Ouvintes (ex.: versões usadas nos ETags) reagem após o commit
+    private DepartamentoResponseDTO publicar(TipoAlteracao tipo, DepartamentoResponseDTO dto) {
+        eventPublisher.publishEvent(new DepartamentoAlteradoEvento(tipo, dto));
+        return dto;
+    }
+
+    // If-Match: a alteração foi pensada sobre uma representação que não é mais a atual
+    private void conferirVersao(Departamento d, String etagEsperado) {
+        if (etagEsperado == null) return;
+
+        DepartamentoResponseDTO atual = departamentoMapper.toResponseDTO(d);
+        String etag = VersaoDados.etag(atual);
+        if (!VersaoDados.confere(etagEsperado, etag)) {
+            throw new VersaoDesatualizadaException("Departamento alterado desde a última leitura.", atual, etag);
+        }
+    }
+
     private void validar(DepartamentoRequestDTO dto) {
         if (dto == null) {
             throw new NegocioException("Dados do departamento são obrigatórios.");
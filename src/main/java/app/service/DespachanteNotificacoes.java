@@ -0,0 +1,239 @@
+package app.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import app.entity.NotificacaoPendente;
+import app.entity.StatusNotificacao;
+import app.repository.NotificacaoPendenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Entrega as notificações do outbox em virtual threads, com os canais em paralelo.
+ * Falhas voltam para a fila com backoff exponencial (com jitter) até o limite de tentativas.
+ *
+ * Cada lote é reservado (status ENVIANDO e o token do despachante) numa transação própria antes dos
+ * envios, então outra instância da aplicação não envia as mesmas notificações. A reserva vale por
+ * app.notificacoes.reserva-ms; se o despachante parar no meio do envio, o lote volta a ser elegível.
+ */
+@Component
+public class DespachanteNotificacoes {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachanteNotificacoes.class);
+
+    private static final Set<StatusNotificacao> ELEGIVEIS = Set.of(StatusNotificacao.PENDENTE, StatusNotificacao.ENVIANDO);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicBoolean executando = new AtomicBoolean();
+    private final AtomicBoolean solicitado = new AtomicBoolean();
+
+    // Valores publicados como métricas (atualizados a cada ciclo)
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    @Autowired(required = false)
+    private Map<String, NotificacaoService> canais;
+
+    @Autowired
+    private NotificacaoPendenteRepository notificacaoPendenteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.notificacoes.lote:100}")
+    private int tamanhoLote;
+
+    @Value("${app.notificacoes.tentativas-maximas:8}")
+    private int tentativasMaximas;
+
+    @Value("${app.notificacoes.backoff-inicial-ms:1000}")
+    private long backoffInicialMs;
+
+    @Value("${app.notificacoes.backoff-maximo-ms:300000}")
+    private long backoffMaximoMs;
+
+    @Value("${app.notificacoes.timeout-envio-ms:10000}")
+    private long timeoutEnvioMs;
+
+    // Bem acima do timeout de envio: a reserva só expira se o despachante parar no meio do lote
+    @Value("${app.notificacoes.reserva-ms:60000}")
+    private long reservaMs;
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("notificacoes.outbox.pendentes", pendentes, AtomicLong::get)
+                .description("Notificações aguardando envio no outbox")
+                .register(meterRegistry);
+        Gauge.builder("notificacoes.outbox.falhas", falhas, AtomicLong::get)
+                .description("Notificações que esgotaram as tentativas de envio")
+                .register(meterRegistry);
+    }
+
+    // Chamado após o commit de uma transação que registrou notificações
+    public void acordar() {
+        if (executor.isShutdown()) return;
+        solicitado.set(true);
+        if (executando.compareAndSet(false, true)) {
+            executor.execute(this::ciclo);
+        }
+    }
+
+    // Varredura periódica: reenvios agendados e pendências de execuções anteriores
+    @Scheduled(fixedDelayString = "${app.notificacoes.intervalo-ms:5000}")
+    public void verificarPendentes() {
+        acordar();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeoutEnvioMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ======================
+    // DESPACHO
+    // ======================
+
+    private void ciclo() {
+        try {
+            while (solicitado.getAndSet(false)) {
+                while (despacharLote() == tamanhoLote) {
+                    // lote cheio: provavelmente há mais pendências vencidas
+                }
+            }
+            atualizarContagens();
+        } catch (Exception e) {
+            log.warn("Falha no ciclo de envio de notificações: {}", e.getMessage());
+        } finally {
+            executando.set(false);
+        }
+        // Pedido que chegou enquanto o ciclo terminava
+        if (solicitado.get()) {
+            acordar();
+        }
+    }
+
+    private int despacharLote() throws InterruptedException {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Long> candidatas = notificacaoPendenteRepository
+                .findByStatusInAndProximaTentativaLessThanEqualOrderByIdAsc(ELEGIVEIS, agora, Limit.of(tamanhoLote))
+                .stream()
+                .map(NotificacaoPendente::getId)
+                .toList();
+        if (candidatas.isEmpty()) return 0;
+
+        // Só as que este despachante conseguiu reservar; as demais já foram de outro
+        String reserva = UUID.randomUUID().toString();
+        notificacaoPendenteRepository.reservar(candidatas, reserva, agora, agora.plusNanos(reservaMs * 1_000_000));
+        List<NotificacaoPendente> lote = notificacaoPendenteRepository.findByReservaOrderByIdAsc(reserva);
+        if (lote.isEmpty()) return candidatas.size();
+
+        // Todos os envios do lote (e portanto os canais) em paralelo
+        List<Callable<Void>> envios = new ArrayList<>(lote.size());
+        for (NotificacaoPendente n : lote) {
+            envios.add(() -> {
+                enviar(n);
+                return null;
+            });
+        }
+        List<Future<Void>> resultados = executor.invokeAll(envios, timeoutEnvioMs, TimeUnit.MILLISECONDS);
+
+        List<Long> entregues = new ArrayList<>();
+        List<NotificacaoPendente> reagendadas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            NotificacaoPendente n = lote.get(i);
+            String erro = erroDo(resultados.get(i));
+            if (erro == null) {
+                entregues.add(n.getId());
+                contador("notificacoes.enviadas", n.getCanal()).increment();
+            } else {
+                reagendar(n, erro);
+                reagendadas.add(n);
+                contador("notificacoes.erros", n.getCanal()).increment();
+            }
+        }
+
+        if (!entregues.isEmpty()) notificacaoPendenteRepository.removerEntregues(entregues, reserva);
+        for (NotificacaoPendente n : reagendadas) {
+            notificacaoPendenteRepository.devolver(n.getId(), reserva, n.getStatus(), n.getTentativas(),
+                    n.getProximaTentativa(), n.getUltimoErro());
+        }
+        return candidatas.size();
+    }
+
+    private void enviar(NotificacaoPendente n) {
+        NotificacaoService canal = (canais != null) ? canais.get(n.getCanal()) : null;
+        if (canal == null) {
+            throw new IllegalStateException("Canal de notificação não encontrado: " + n.getCanal());
+        }
+        canal.mensagem(n.getMensagem());
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private String erroDo(Future<Void> futuro) {
+        if (futuro.isCancelled()) return "Tempo de envio esgotado.";
+        try {
+            futuro.get();
+            return null;
+        } catch (Exception e) {
+            Throwable causa = (e.getCause() != null) ? e.getCause() : e;
+            return (causa.getMessage() != null) ? causa.getMessage() : causa.getClass().getSimpleName();
+        }
+    }
+
+    private void reagendar(NotificacaoPendente n, String erro) {
+        int tentativas = n.getTentativas() + 1;
+        n.setTentativas(tentativas);
+        n.setUltimoErro(erro.length() > 500 ? erro.substring(0, 500) : erro);
+
+        if (tentativas >= tentativasMaximas) {
+            n.setStatus(StatusNotificacao.FALHA);
+            log.warn("Notificação {} ({}) descartada após {} tentativas: {}", n.getId(), n.getCanal(), tentativas, erro);
+            return;
+        }
+
+        // Backoff exponencial com jitter de até 50%
+        n.setStatus(StatusNotificacao.PENDENTE);
+        long espera = Math.min(backoffMaximoMs, backoffInicialMs << Math.min(tentativas - 1, 30));
+        espera += ThreadLocalRandom.current().nextLong(espera / 2 + 1);
+        n.setProximaTentativa(LocalDateTime.now().plusNanos(espera * 1_000_000));
+    }
+
+    private void atualizarContagens() {
+        pendentes.set(notificacaoPendenteRepository.countByStatus(StatusNotificacao.PENDENTE)
+                + notificacaoPendenteRepository.countByStatus(StatusNotificacao.ENVIANDO));
+        falhas.set(notificacaoPendenteRepository.countByStatus(StatusNotificacao.FALHA));
+    }
+
+    private Counter contador(String nome, String canal) {
+        return meterRegistry.counter(nome, "canal", canal);
+    }
+}
@@ -1,13 +1,17 @@
 package app.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class EmailNotificacaoService implements NotificacaoService{
 
+	private static final Logger log = LoggerFactory.getLogger(EmailNotificacaoService.class);
+
 	@Override
 	public String mensagem(String msg) {
-		System.out.println("Email de Notificação:  "+ msg);
+		log.info("Email de Notificação: {}", msg);
 		return "Email de Notificação: " + msg;
 	}
 
@@ -0,0 +1,239 @@
+package app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.dto.DepartamentoResponseDTO;
+import app.dto.EstatisticaDepartamentoDTO;
+import app.dto.EstatisticaResumoDTO;
+import app.entity.Departamento;
+import app.entity.EstatisticaDepartamento;
+import app.entity.Funcionario;
+import app.repository.DepartamentoRepository;
+import app.repository.EstatisticaDepartamentoRepository;
+
+/**
+ * Estatísticas de folha por departamento, lidas de TB_ESTATISTICA_DEPARTAMENTO (uma linha por departamento).
+ * Cada gravação de funcionário aplica a sua variação nessa linha, na mesma transação, com um UPDATE
+ * relativo (total = total + ?), então a leitura não depende da quantidade de funcionários.
+ */
+@Service
+public class EstatisticaDepartamentoService {
+
+    // Participação de um funcionário nos agregados, antes ou depois de uma alteração
+    public record Contribuicao(Long departamentoId, boolean ativo, double salario, LocalDate dataAdmissao) {
+
+        public static Contribuicao de(Funcionario f) {
+            return new Contribuicao(f.getDepartamento().getId(), Boolean.TRUE.equals(f.getAtivo()),
+                    f.getSalario(), f.getDataAdmissao());
+        }
+    }
+
+    @Autowired
+    private EstatisticaDepartamentoRepository estatisticaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    // ======================
+    // CONSULTAS
+    // ======================
+
+    @Transactional(readOnly = true)
+    public EstatisticaDepartamentoDTO buscarPorDepartamento(Long departamentoId) {
+        DepartamentoResponseDTO departamento = departamentoService.buscarPorId(departamentoId);
+        EstatisticaDepartamento e = estatisticaRepository.findById(departamentoId)
+                .orElseGet(() -> EstatisticaDepartamento.vazia(departamentoId));
+        return toDTO(e, departamento.nome());
+    }
+
+    // Resumo da empresa: soma das linhas por departamento (não percorre os funcionários)
+    @Transactional(readOnly = true)
+    public EstatisticaResumoDTO resumo() {
+        Map<Long, EstatisticaDepartamento> linhas = new HashMap<>();
+        estatisticaRepository.findAll().forEach(e -> linhas.put(e.getDepartamentoId(), e));
+
+        List<EstatisticaDepartamentoDTO> porDepartamento = new ArrayList<>();
+        EstatisticaDepartamento empresa = EstatisticaDepartamento.vazia(null);
+        for (Departamento d : departamentoRepository.findAll()) {
+            EstatisticaDepartamento e = linhas.getOrDefault(d.getId(), EstatisticaDepartamento.vazia(d.getId()));
+            porDepartamento.add(toDTO(e, d.getNome()));
+            acumular(empresa, e);
+        }
+        porDepartamento.sort(Comparator.comparing(EstatisticaDepartamentoDTO::departamento));
+
+        EstatisticaDepartamentoDTO total = toDTO(empresa, null);
+        return new EstatisticaResumoDTO(porDepartamento.size(), total.totalFuncionarios(), total.ativos(),
+                total.folhaSalarial(), total.salarioMedio(), total.desvioPadraoSalario(),
+                total.primeiraAdmissao(), total.ultimaAdmissao(), porDepartamento);
+    }
+
+    // ======================
+    // ATUALIZAÇÃO
+    // ======================
+
+    // Troca a participação "antes" pela "depois" (null em criação e remoção, respectivamente)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void substituir(Contribuicao antes, Contribuicao depois) {
+        if (Objects.equals(antes, depois)) return;
+
+        // Linhas sempre atualizadas em ordem de departamento: duas transferências em sentidos
+        // opostos não se bloqueiam mutuamente (deadlock) ao travar as mesmas duas linhas
+        Map<Long, Variacao> variacoes = new TreeMap<>();
+        if (antes != null) variacoes.computeIfAbsent(antes.departamentoId(), k -> new Variacao()).excluir(antes);
+        if (depois != null) variacoes.computeIfAbsent(depois.departamentoId(), k -> new Variacao()).incluir(depois);
+        variacoes.forEach(this::aplicar);
+    }
+
+    // Inclusões em lote (importação): um UPDATE por departamento
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void incluir(Collection<Contribuicao> novas) {
+        Map<Long, Variacao> variacoes = new TreeMap<>();
+        for (Contribuicao c : novas) {
+            variacoes.computeIfAbsent(c.departamentoId(), k -> new Variacao()).incluir(c);
+        }
+        variacoes.forEach(this::aplicar);
+    }
+
+    // Após um UPDATE em lote no departamento: refaz a linha com uma consulta agregada
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalcular(Long departamentoId) {
+        estatisticaRepository.calcular(departamentoId).ifPresent(estatisticaRepository::save);
+    }
+
+    // Refaz todas as linhas a partir de TB_FUNCIONARIO (cargas feitas fora dos serviços)
+    @Transactional
+    public void recalcularTodos() {
+        estatisticaRepository.saveAll(estatisticaRepository.calcularTodos());
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private void aplicar(Long departamentoId, Variacao v) {
+        v.cancelarDatasRepetidas();
+        if (v.vazia()) return;
+
+        int linhas = estatisticaRepository.somar(departamentoId, v.total, v.ativos, v.soma, v.somaQuadrados,
+                v.menorIncluida(), v.maiorIncluida());
+        if (linhas == 0) {
+            // Departamento sem linha (anterior às estatísticas): calcula tudo de uma vez
+            estatisticaRepository.calcular(departamentoId).ifPresent(estatisticaRepository::save);
+            return;
+        }
+
+        // Saída de um ativo pode ter levado a menor ou a maior data de admissão
+        if (!v.datasExcluidas.isEmpty()) {
+            estatisticaRepository.recalcularMenorAdmissao(departamentoId, v.menorExcluida());
+            estatisticaRepository.recalcularMaiorAdmissao(departamentoId, v.maiorExcluida());
+        }
+    }
+
+    private static void acumular(EstatisticaDepartamento destino, EstatisticaDepartamento e) {
+        destino.setTotal(destino.getTotal() + e.getTotal());
+        destino.setAtivos(destino.getAtivos() + e.getAtivos());
+        destino.setSomaSalarios(destino.getSomaSalarios() + e.getSomaSalarios());
+        destino.setSomaQuadrados(destino.getSomaQuadrados() + e.getSomaQuadrados());
+        destino.setMenorAdmissao(menor(destino.getMenorAdmissao(), e.getMenorAdmissao()));
+        destino.setMaiorAdmissao(maior(destino.getMaiorAdmissao(), e.getMaiorAdmissao()));
+    }
+
+    private static EstatisticaDepartamentoDTO toDTO(EstatisticaDepartamento e, String departamento) {
+        long ativos = e.getAtivos();
+        Double media = null;
+        Double desvio = null;
+        if (ativos > 0) {
+            double m = e.getSomaSalarios() / ativos;
+            // Variância populacional; max(0, ...) absorve o arredondamento das somas
+            double variancia = Math.max(0.0, e.getSomaQuadrados() / ativos - m * m);
+            media = arredondar(m);
+            desvio = arredondar(Math.sqrt(variancia));
+        }
+        return new EstatisticaDepartamentoDTO(e.getDepartamentoId(), departamento, e.getTotal(), ativos,
+                arredondar(e.getSomaSalarios()), media, desvio, e.getMenorAdmissao(), e.getMaiorAdmissao());
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+
+    private static LocalDate menor(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        return (b == null || a.isBefore(b)) ? a : b;
+    }
+
+    private static LocalDate maior(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        return (b == null || a.isAfter(b)) ? a : b;
+    }
+
+    // Variação acumulada de um departamento
+    private static final class Variacao {
+        long total;
+        long ativos;
+        double soma;
+        double somaQuadrados;
+        final List<LocalDate> datasIncluidas = new ArrayList<>();
+        final List<LocalDate> datasExcluidas = new ArrayList<>();
+
+        void incluir(Contribuicao c) {
+            total++;
+            if (!c.ativo()) return;
+            ativos++;
+            soma += c.salario();
+            somaQuadrados += c.salario() * c.salario();
+            datasIncluidas.add(c.dataAdmissao());
+        }
+
+        void excluir(Contribuicao c) {
+            total--;
+            if (!c.ativo()) return;
+            ativos--;
+            soma -= c.salario();
+            somaQuadrados -= c.salario() * c.salario();
+            datasExcluidas.add(c.dataAdmissao());
+        }
+
+        // Uma data que sai e volta (ex.: só o salário mudou) não exige recalcular os extremos
+        void cancelarDatasRepetidas() {
+            datasExcluidas.removeIf(datasIncluidas::remove);
+        }
+
+        boolean vazia() {
+            return total == 0 && ativos == 0 && soma == 0.0 && somaQuadrados == 0.0
+                    && datasIncluidas.isEmpty() && datasExcluidas.isEmpty();
+        }
+
+        LocalDate menorIncluida() {
+            return datasIncluidas.stream().min(LocalDate::compareTo).orElse(null);
+        }
+
+        LocalDate maiorIncluida() {
+            return datasIncluidas.stream().max(LocalDate::compareTo).orElse(null);
+        }
+
+        LocalDate menorExcluida() {
+            return datasExcluidas.stream().min(LocalDate::compareTo).orElse(null);
+        }
+
+        LocalDate maiorExcluida() {
+            return datasExcluidas.stream().max(LocalDate::compareTo).orElse(null);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package app.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import app.dto.DepartamentoResponseDTO;
+import app.dto.FuncionarioResponseDTO;
+
+/**
+ * Exportação completa de funcionários em streaming: as linhas são lidas de um cursor JDBC
+ * e escritas direto no OutputStream da resposta, sem montar listas em memória.
+ */
+@Service
+public class ExportacaoService {
+
+    // Left join (departamento_id é obrigatório, o resultado é o mesmo): fixa tb_funcionario como primeira
+    // tabela, e a ordem vem do índice idx_funcionario_nome_id, sem ordenação do resultado inteiro
+    private static final String SQL = """
+            select f.id, f.nome, f.email, f.cargo, f.salario, f.data_admissao, f.ativo, f.versao,
+                   d.id as dep_id, d.nome as dep_nome, d.sigla as dep_sigla, d.ativo as dep_ativo,
+                   d.versao as dep_versao
+            from tb_funcionario f
+            left join tb_departamento d on d.id = f.departamento_id
+            order by f.nome, f.id
+            """;
+
+    private static final String CABECALHO_CSV =
+            "id,nome,email,cargo,salario,dataAdmissao,ativo,departamentoId,departamentoNome,departamentoSigla";
+
+    private static final DateTimeFormatter DATA_CSV = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoService(DataSource dataSource, ObjectMapper objectMapper,
+                             @Value("${app.exportacao.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    // Somente leitura: com a réplica configurada, a varredura completa não pesa no primário
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacao formato, OutputStream out) throws IOException {
+        switch (formato) {
+            case NDJSON -> exportarNdjson(out);
+            case CSV -> exportarCsv(out);
+        }
+    }
+
+    // ======================
+    // FORMATOS
+    // ======================
+
+    private void exportarNdjson(OutputStream out) throws IOException {
+        // Cada funcionário vira uma linha JSON; o flush só acontece após a primeira linha
+        // (primeiro byte rápido) e depois fica a cargo do buffer do container.
+        try (SequenceWriter writer = objectMapper.writerFor(FuncionarioResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+
+            boolean[] escreveu = {false};
+            percorrer(rs -> {
+                try {
+                    writer.write(lerFuncionario(rs));
+                    if (!escreveu[0]) {
+                        writer.flush();
+                        escreveu[0] = true;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            // Terminador da última linha: exportação sem funcionários fica vazia
+            if (escreveu[0]) out.write('\n');
+        }
+    }
+
+    private void exportarCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CABECALHO_CSV);
+        writer.write('\n');
+        writer.flush();
+
+        percorrer(rs -> {
+            try {
+                escreverLinhaCsv(writer, rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // No H2 o fetch size não basta: sem LAZY_QUERY_EXECUTION o resultado inteiro é montado antes da
+    // primeira linha. O modo é ligado só nesta conexão e durante a varredura.
+    private void percorrer(RowCallbackHandler handler) throws IOException {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                boolean h2 = "H2".equals(con.getMetaData().getDatabaseProductName());
+                if (h2) executar(con, "SET LAZY_QUERY_EXECUTION TRUE");
+                try (PreparedStatement ps = con.prepareStatement(SQL)) {
+                    ps.setFetchSize(jdbcTemplate.getFetchSize());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) handler.processRow(rs);
+                    }
+                } finally {
+                    // A conexão volta ao pool: as próximas consultas não herdam o modo
+                    if (h2) executar(con, "SET LAZY_QUERY_EXECUTION FALSE");
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            // Cliente desconectou ou falha de escrita: interrompe a leitura do cursor
+            throw e.getCause();
+        }
+    }
+
+    private static void executar(Connection con, String comando) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(comando);
+        }
+    }
+
+    private FuncionarioResponseDTO lerFuncionario(ResultSet rs) throws SQLException {
+        DepartamentoResponseDTO departamento = new DepartamentoResponseDTO(
+                rs.getLong("dep_id"),
+                rs.getString("dep_nome"),
+                rs.getString("dep_sigla"),
+                rs.getBoolean("dep_ativo"),
+                rs.getLong("dep_versao"));
+
+        return new FuncionarioResponseDTO(
+                rs.getLong("id"),
+                rs.getString("nome"),
+                rs.getString("email"),
+                rs.getString("cargo"),
+                rs.getDouble("salario"),
+                rs.getObject("data_admissao", LocalDate.class),
+                rs.getBoolean("ativo"),
+                departamento,
+                rs.getLong("versao"));
+    }
+
+    private void escreverLinhaCsv(Writer w, ResultSet rs) throws SQLException, IOException {
+        w.write(Long.toString(rs.getLong("id")));
+        w.write(',');
+        w.write(csv(rs.getString("nome")));
+        w.write(',');
+        w.write(csv(rs.getString("email")));
+        w.write(',');
+        w.write(csv(rs.getString("cargo")));
+        w.write(',');
+        w.write(Double.toString(rs.getDouble("salario")));
+        w.write(',');
+        w.write(DATA_CSV.format(rs.getObject("data_admissao", LocalDate.class)));
+        w.write(',');
+        w.write(Boolean.toString(rs.getBoolean("ativo")));
+        w.write(',');
+        w.write(Long.toString(rs.getLong("dep_id")));
+        w.write(',');
+        w.write(csv(rs.getString("dep_nome")));
+        w.write(',');
+        w.write(csv(rs.getString("dep_sigla")));
+        w.write('\n');
+    }
+
+    // Aspas apenas quando necessário (RFC 4180)
+    private static String csv(String valor) {
+        if (valor == null) return "";
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
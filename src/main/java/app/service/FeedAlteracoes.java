@@ -0,0 +1,325 @@
+package app.service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.AlteracaoEmLoteDTO;
+import app.dto.EventoAlteracaoDTO;
+import app.evento.DepartamentoAlteradoEvento;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.FuncionariosAlteradosEmLoteEvento;
+import app.evento.TipoAlteracao;
+import app.exceptions.RequisicaoRecusadaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Feed de alterações de funcionários e departamentos (GET /api/eventos, Server-Sent Events).
+ *
+ * Após o commit, cada alteração recebe a próxima sequência e entra num anel de tamanho fixo; é tudo o que
+ * a gravação faz, além de acordar o despacho. O envio acontece em virtual threads, no máximo uma por
+ * assinante, cada uma lendo o anel a partir da última sequência que enviou: um cliente lento só atrasa a
+ * si mesmo. Quem fica para trás mais que a capacidade do anel recebe "resincronizar" (recarregar as listas)
+ * e segue dali.
+ *
+ * O id de cada evento é época-sequência; a época (instante da inicialização) distingue os ids de antes de
+ * um reinício. Reconectando com Last-Event-ID, o assinante recebe o que perdeu enquanto o anel guardar.
+ */
+@Component
+public class FeedAlteracoes {
+
+    public static final String RESINCRONIZAR = "resincronizar";
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int maximoAssinantes;
+
+    // O evento de sequência s fica em anel[s % capacidade] até ser sobrescrito pelo de s + capacidade
+    private final AtomicReferenceArray<Evento> anel;
+    private long proxima = 1;
+    private volatile long ultima;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean despachoPendente = new AtomicBoolean();
+
+    private final Counter publicados;
+    private final Counter resincronizacoes;
+
+    public FeedAlteracoes(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${app.eventos.capacidade:1024}") int capacidade,
+                          @Value("${app.eventos.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${app.eventos.maximo-assinantes:10000}") int maximoAssinantes) {
+        this.objectMapper = objectMapper;
+        this.anel = new AtomicReferenceArray<>(capacidade);
+        this.timeoutMs = timeoutMs;
+        this.maximoAssinantes = maximoAssinantes;
+
+        this.publicados = Counter.builder("eventos.publicados")
+                .description("Alterações publicadas no feed GET /api/eventos")
+                .register(meterRegistry);
+        this.resincronizacoes = Counter.builder("eventos.resincronizacoes")
+                .description("Assinantes que perderam eventos já descartados do anel")
+                .register(meterRegistry);
+        Gauge.builder("eventos.assinantes", assinantes, Set::size)
+                .description("Conexões abertas em GET /api/eventos")
+                .register(meterRegistry);
+    }
+
+    // ======================
+    // ALTERAÇÕES (APÓS O COMMIT)
+    // ======================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarFuncionario(FuncionarioAlteradoEvento evento) {
+        publicar("funcionario", evento.tipo(), evento.funcionario().id(), evento.funcionario());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarFuncionariosEmLote(FuncionariosAlteradosEmLoteEvento evento) {
+        String operacao = evento.tipo() == TipoAlteracao.INATIVADO ? "inativacao" : "reajuste";
+        publicar("funcionarios-departamento", evento.tipo(), evento.departamentoId(),
+                new AlteracaoEmLoteDTO(evento.departamentoId(), operacao, evento.quantidade()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarDepartamento(DepartamentoAlteradoEvento evento) {
+        publicar("departamento", evento.tipo(), evento.departamento().id(), evento.departamento());
+    }
+
+    private void publicar(String recurso, TipoAlteracao tipo, Long id, Object dados) {
+        synchronized (this) {
+            long sequencia = proxima++;
+            anel.set(indice(sequencia), new Evento(recurso, new EventoAlteracaoDTO(sequencia, recurso, tipo, id, dados)));
+            ultima = sequencia;
+        }
+        publicados.increment();
+        if (despachoPendente.compareAndSet(false, true)) executar(this::despachar);
+    }
+
+    // ======================
+    // ASSINATURAS
+    // ======================
+
+    public SseEmitter assinar(String ultimoId) {
+        if (assinantes.size() >= maximoAssinantes) {
+            throw new RequisicaoRecusadaException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Limite de conexões ao feed de eventos atingido, tente novamente em instantes", 5);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter);
+
+        long atual = ultima;
+        if (ultimoId == null || ultimoId.isBlank()) {
+            assinante.cursor = atual;
+        } else {
+            long retomada = sequencia(ultimoId);
+            // Id de outra época (reinício), inválido ou à frente do feed: não há como saber o que foi perdido
+            if (retomada < 0 || retomada > atual) {
+                assinante.cursor = atual;
+                assinante.resincronizar = true;
+            } else {
+                assinante.cursor = retomada;
+            }
+        }
+
+        emitter.onCompletion(() -> assinante.encerrar());
+        emitter.onTimeout(() -> assinante.encerrar());
+        emitter.onError(e -> assinante.encerrar());
+        assinantes.add(assinante);
+        assinante.agendar();
+        return emitter;
+    }
+
+    // Comentário periódico: mantém a conexão viva nos proxies e descobre os clientes que já saíram
+    @Scheduled(fixedDelayString = "${app.eventos.batimento-ms:15000}")
+    public void bater() {
+        for (Assinante assinante : assinantes) {
+            assinante.batimento = true;
+            assinante.agendar();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        for (Assinante assinante : assinantes) {
+            assinante.encerrar();
+            try {
+                assinante.emitter.complete();
+            } catch (RuntimeException e) {
+                // conexão já encerrada
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    // ======================
+    // ENVIO
+    // ======================
+
+    private void despachar() {
+        despachoPendente.set(false);
+        for (Assinante assinante : assinantes) assinante.agendar();
+    }
+
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean encerrado;
+        private volatile boolean batimento;
+
+        // Só a tarefa de envio lê e altera (o AtomicBoolean publica os valores entre uma tarefa e outra)
+        private long cursor;
+        private boolean resincronizar;
+
+        private Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void agendar() {
+            if (!encerrado && enviando.compareAndSet(false, true)) executar(this::enviar);
+        }
+
+        private void enviar() {
+            try {
+                long enviado;
+                do {
+                    drenar();
+                    enviado = cursor;
+                    enviando.set(false);
+                    // Algo publicado depois da leitura do anel, sem que o despacho tenha conseguido agendar
+                } while (!encerrado && (enviado < ultima || batimento) && enviando.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou conexão já concluída
+                encerrar();
+            }
+        }
+
+        private void drenar() throws IOException {
+            if (resincronizar) {
+                resincronizar = false;
+                cursor = ultima;
+                enviarResincronizacao();
+            }
+            long ate = ultima;
+            for (long s = cursor + 1; s <= ate && !encerrado; s++) {
+                Evento evento = anel.get(indice(s));
+                if (evento.dto().sequencia() != s) {
+                    // Sobrescrito: ficou para trás mais que a capacidade do anel
+                    resincronizacoes.increment();
+                    cursor = ultima;
+                    enviarResincronizacao();
+                    return;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(id(s))
+                        .name(evento.recurso())
+                        .data(evento.json(), MediaType.APPLICATION_JSON));
+                cursor = s;
+            }
+            if (batimento) {
+                batimento = false;
+                emitter.send(SseEmitter.event().comment("batimento"));
+            }
+        }
+
+        private void enviarResincronizacao() throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(id(cursor))
+                    .name(RESINCRONIZAR)
+                    .data("{\"sequencia\":" + cursor + "}", MediaType.APPLICATION_JSON));
+        }
+
+        private void encerrar() {
+            encerrado = true;
+            assinantes.remove(this);
+        }
+    }
+
+    // Evento no anel; o JSON é gerado uma vez, pelo primeiro envio, e reaproveitado pelos demais assinantes
+    private final class Evento {
+
+        private final String recurso;
+        private final EventoAlteracaoDTO dto;
+        private volatile String json;
+
+        private Evento(String recurso, EventoAlteracaoDTO dto) {
+            this.recurso = recurso;
+            this.dto = dto;
+        }
+
+        String recurso() {
+            return recurso;
+        }
+
+        EventoAlteracaoDTO dto() {
+            return dto;
+        }
+
+        String json() {
+            String valor = json;
+            if (valor == null) {
+                try {
+                    valor = objectMapper.writeValueAsString(dto);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Falha ao serializar o evento " + dto.sequencia(), e);
+                }
+                json = valor;
+            }
+            return valor;
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private int indice(long sequencia) {
+        return (int) (sequencia % anel.length());
+    }
+
+    private String id(long sequencia) {
+        return epoca + "-" + sequencia;
+    }
+
+    // Sequência do Last-Event-ID, ou -1 se não for um id desta época
+    private long sequencia(String ultimoId) {
+        String prefixo = epoca + "-";
+        if (!ultimoId.startsWith(prefixo)) return -1;
+        try {
+            return Long.parseLong(ultimoId.substring(prefixo.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void executar(Runnable tarefa) {
+        try {
+            executor.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando
+        }
+    }
+}
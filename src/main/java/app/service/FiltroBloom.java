@@ -0,0 +1,119 @@
+package app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para textos: responde "certamente ausente" ou "talvez presente".
+ *
+ * Dimensionado para uma capacidade e uma taxa de falsos positivos desejadas. Não há remoção
+ * (um bit pode ser de vários valores); quem usa recria o filtro quando as remoções se acumulam.
+ * Os bits ficam num AtomicLongArray, então inclusões e consultas concorrentes dispensam lock.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long bits;
+    private final int funcoes;
+    private final long capacidade;
+
+    public FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        if (capacidade < 1) capacidade = 1;
+        if (taxaFalsosPositivos <= 0.0 || taxaFalsosPositivos >= 1.0) {
+            throw new IllegalArgumentException("Taxa de falsos positivos deve estar entre 0 e 1.");
+        }
+        // m = -n·ln(p) / ln(2)²  e  k = (m/n)·ln(2)
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (ln2 * ln2));
+        int tamanho = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+
+        this.palavras = new AtomicLongArray(tamanho);
+        this.bits = tamanho * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) bits / capacidade * ln2));
+        this.capacidade = capacidade;
+    }
+
+    // ======================
+    // INCLUSÃO E CONSULTA
+    // ======================
+
+    public void adicionar(String valor) {
+        long h = hash(valor);
+        long h1 = h & 0xFFFFFFFFL;
+        long h2 = h >>> 32;
+        for (int i = 1; i <= funcoes; i++) {
+            long bit = posicao(h1 + i * h2);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(indice);
+            while ((atual & mascara) == 0 && !palavras.weakCompareAndSetVolatile(indice, atual, atual | mascara)) {
+                atual = palavras.get(indice);
+            }
+        }
+    }
+
+    // false: o valor certamente nunca foi adicionado; true: talvez tenha sido
+    public boolean podeConter(String valor) {
+        long h = hash(valor);
+        long h1 = h & 0xFFFFFFFFL;
+        long h2 = h >>> 32;
+        for (int i = 1; i <= funcoes; i++) {
+            long bit = posicao(h1 + i * h2);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // ======================
+    // DIMENSÕES
+    // ======================
+
+    // Estimativa pela fração de bits ligados: (ligados / m)^k
+    public double taxaFalsosPositivosEstimada() {
+        return Math.pow((double) bitsLigados() / bits, funcoes);
+    }
+
+    public long bitsLigados() {
+        long ligados = 0;
+        for (int i = 0; i < palavras.length(); i++) {
+            ligados += Long.bitCount(palavras.get(i));
+        }
+        return ligados;
+    }
+
+    public long bytes() {
+        return palavras.length() * 8L;
+    }
+
+    public long capacidade() {
+        return capacidade;
+    }
+
+    public int funcoes() {
+        return funcoes;
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // Dupla dispersão (Kirsch–Mitzenmacher): gi(x) = h1 + i·h2, com as duas metades de um hash de 64 bits
+    private long posicao(long combinado) {
+        return Math.floorMod(combinado, bits);
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8, seguido da finalização do MurmurHash3 para espalhar os bits
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,194 @@
+package app.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.TipoAlteracao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Filtro de Bloom dos e-mails cadastrados, para o cadastro pular a consulta por e-mail quando ele
+ * certamente é novo. Um "talvez" mantém a consulta; a constraint uk_funcionario_email continua
+ * sendo a garantia final de unicidade.
+ *
+ * Os serviços registram o e-mail antes de gravar (um filtro com e-mails a mais só custa consultas)
+ * e de novo após o commit, pelo evento. Remoções não tiram bits: o filtro é recriado em segundo plano
+ * quando elas se acumulam ou quando a taxa de falsos positivos passa do dobro da desejada.
+ */
+@Component
+public class FiltroEmails {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroEmails.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final long capacidadeMinima;
+    private final double taxaDesejada;
+
+    // null até a primeira carga: sem filtro, toda verificação responde "talvez"
+    private volatile FiltroBloom filtro;
+    // Filtro sendo recriado: recebe também os e-mails registrados durante a varredura
+    private volatile FiltroBloom emConstrucao;
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    // E-mails contidos no filtro atual e remoções desde a última carga
+    private final AtomicLong contidos = new AtomicLong();
+    private final AtomicLong remocoes = new AtomicLong();
+
+    private final Counter ausentes;
+    private final Counter presentes;
+    private final Counter falsosPositivos;
+
+    public FiltroEmails(DataSource dataSource, MeterRegistry meterRegistry,
+                        @Value("${app.filtro-emails.habilitado:true}") boolean habilitado,
+                        @Value("${app.filtro-emails.capacidade-minima:100000}") long capacidadeMinima,
+                        @Value("${app.filtro-emails.taxa-falsos-positivos:0.01}") double taxaDesejada) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.habilitado = habilitado;
+        this.capacidadeMinima = capacidadeMinima;
+        this.taxaDesejada = taxaDesejada;
+
+        this.ausentes = consultas(meterRegistry, "ausente");
+        this.presentes = consultas(meterRegistry, "talvez");
+        this.falsosPositivos = consultas(meterRegistry, "falso_positivo");
+
+        Gauge.builder("filtro.emails.memoria", this, FiltroEmails::bytes)
+                .baseUnit("bytes")
+                .description("Memória ocupada pelos bits do filtro de e-mails")
+                .register(meterRegistry);
+        Gauge.builder("filtro.emails.falsos_positivos.estimados", this, FiltroEmails::taxaEstimada)
+                .description("Taxa de falsos positivos estimada pela fração de bits ligados")
+                .register(meterRegistry);
+        Gauge.builder("filtro.emails.falsos_positivos.observados", this, FiltroEmails::taxaObservada)
+                .description("Falsos positivos sobre as consultas de e-mails que não estavam cadastrados")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (habilitado) recarregar();
+    }
+
+    // Recria o filtro a partir do banco (inicialização, manutenção ou após cargas feitas fora dos serviços)
+    public void recarregar() {
+        recarga.lock();
+        try {
+            Long total = jdbcTemplate.queryForObject("select count(*) from tb_funcionario", Long.class);
+            long capacidade = Math.max(capacidadeMinima, 2 * (total != null ? total : 0));
+            FiltroBloom novo = new FiltroBloom(capacidade, taxaDesejada);
+
+            emConstrucao = novo;
+            long removidasAntes = remocoes.get();
+            AtomicLong carregados = new AtomicLong();
+            jdbcTemplate.query("select email from tb_funcionario", rs -> {
+                novo.adicionar(rs.getString(1));
+                carregados.incrementAndGet();
+            });
+
+            filtro = novo;
+            emConstrucao = null;
+            contidos.set(carregados.get());
+            remocoes.addAndGet(-removidasAntes);
+            log.info("Filtro de e-mails carregado com {} e-mails ({} KiB, {} funções).",
+                    carregados.get(), novo.bytes() / 1024, novo.funcoes());
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    // ======================
+    // CONSULTA E REGISTRO
+    // ======================
+
+    // false: nenhum funcionário tem esse e-mail e a consulta pode ser dispensada
+    public boolean podeExistir(String email) {
+        FiltroBloom f = filtro;
+        if (!habilitado || f == null || email == null) return true;
+
+        if (f.podeConter(email)) {
+            presentes.increment();
+            return true;
+        }
+        ausentes.increment();
+        return false;
+    }
+
+    // O filtro respondeu "talvez" e a consulta não encontrou o e-mail
+    public void falsoPositivo() {
+        falsosPositivos.increment();
+    }
+
+    // Chamado antes da gravação de um e-mail novo ou alterado
+    public void registrar(String email) {
+        if (email == null) return;
+        FiltroBloom f = filtro;
+        if (f != null) f.adicionar(email);
+        FiltroBloom novo = emConstrucao;
+        if (novo != null) novo.adicionar(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarFuncionario(FuncionarioAlteradoEvento evento) {
+        if (evento.tipo() == TipoAlteracao.REMOVIDO) {
+            remocoes.incrementAndGet();
+        } else if (evento.tipo() != TipoAlteracao.INATIVADO) {
+            // Repetido após o commit: cobre uma recriação que tenha começado depois do registro
+            registrar(evento.funcionario().email());
+            if (evento.tipo() == TipoAlteracao.CRIADO) contidos.incrementAndGet();
+        }
+    }
+
+    // Recria o filtro quando os e-mails removidos passam de 10% do conteúdo ou a taxa estimada
+    // passa do dobro da desejada (mais e-mails que a capacidade)
+    @Scheduled(fixedDelayString = "${app.filtro-emails.verificacao-ms:60000}")
+    public void manter() {
+        if (!habilitado || filtro == null) return;
+
+        if (remocoes.get() > contidos.get() / 10 || taxaEstimada() > 2 * taxaDesejada) {
+            log.debug("Recriando o filtro de e-mails ({} remoções, taxa estimada {}).", remocoes.get(), taxaEstimada());
+            recarregar();
+        }
+    }
+
+    // ======================
+    // MÉTRICAS
+    // ======================
+
+    private double bytes() {
+        FiltroBloom f = filtro;
+        return f != null ? f.bytes() : 0;
+    }
+
+    private double taxaEstimada() {
+        FiltroBloom f = filtro;
+        return f != null ? f.taxaFalsosPositivosEstimada() : 0.0;
+    }
+
+    private double taxaObservada() {
+        double falsos = falsosPositivos.count();
+        double negativos = falsos + ausentes.count();
+        return negativos > 0 ? falsos / negativos : 0.0;
+    }
+
+    private static Counter consultas(MeterRegistry registry, String resultado) {
+        return Counter.builder("filtro.emails.consultas")
+                .description("Verificações de e-mail no cadastro, por resposta do filtro")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package app.service;
+
+import app.exceptions.NegocioException;
+
+public enum FormatoExportacao {
+
+    NDJSON("application/x-ndjson", "funcionarios.ndjson"),
+    CSV("text/csv;charset=UTF-8", "funcionarios.csv");
+
+    private final String contentType;
+    private final String nomeArquivo;
+
+    FormatoExportacao(String contentType, String nomeArquivo) {
+        this.contentType = contentType;
+        this.nomeArquivo = nomeArquivo;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    public static FormatoExportacao de(String valor) {
+        if (valor == null || valor.isBlank()) return NDJSON;
+        for (FormatoExportacao f : values()) {
+            if (f.name().equalsIgnoreCase(valor.trim())) return f;
+        }
+        throw new NegocioException("Formato de exportação inválido: " + valor + " (use ndjson ou csv).");
+    }
+}
@@ -2,66 +2,113 @@ package app.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.config.RepetirEmConflito;
+import app.dto.AlteracaoEmLoteDTO;
+import app.dto.DepartamentoResponseDTO;
 import app.dto.FuncionarioRequestDTO;
 import app.dto.FuncionarioResponseDTO;
+import app.dto.PaginaDTO;
+import app.dto.ReajusteSalarialRequestDTO;
 import app.entity.Departamento;
 import app.entity.Funcionario;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.FuncionariosAlteradosEmLoteEvento;
+import app.evento.TipoAlteracao;
 import app.exceptions.NegocioException;
 import app.exceptions.RecursoNaoEncontradoException;
+import app.exceptions.VersaoDesatualizadaException;
 import app.mapper.FuncionarioMapper;
 import app.repository.DepartamentoRepository;
 import app.repository.FuncionarioRepository;
+import app.service.EstatisticaDepartamentoService.Contribuicao;
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = "servicos.funcionario", histogram = true)
 public class FuncionarioService {
 
+    private static final Logger log = LoggerFactory.getLogger(FuncionarioService.class);
+
     @Autowired
     private FuncionarioRepository funcionarioRepository;
 
     @Autowired
     private DepartamentoRepository departamentoRepository;
 
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EstatisticaDepartamentoService estatisticaDepartamentoService;
+
     @Autowired
     private FuncionarioMapper funcionarioMapper;
 
-    @Autowired(required = false)
-    private List<NotificacaoService> notificacoes;
+    @Autowired
+    private NotificacaoOutboxService notificacaoOutboxService;
+
+    @Autowired
+    private IndiceFuncionarios indiceFuncionarios;
+
+    @Autowired
+    private FiltroEmails filtroEmails;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${app.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
 
     // ======================
     // CONSULTAS
     // ======================
 
+    @Transactional(readOnly = true)
     public List<FuncionarioResponseDTO> findAll() {
-        return funcionarioRepository.findAllByOrderByNomeAsc()
-                .stream()
-                .map(funcionarioMapper::toResponseDTO)
-                .toList();
+        return findAll(null, null, null, null);
     }
 
-    public List<FuncionarioResponseDTO> findAll(String cargo, Boolean ativo) {
-        List<Funcionario> lista;
-
-        if (cargo != null && !cargo.isBlank() && ativo != null) {
-            lista = funcionarioRepository.findByCargoContainingIgnoreCaseAndAtivoOrderByNomeAsc(cargo.trim(), ativo);
-        } else if (cargo != null && !cargo.isBlank()) {
-            lista = funcionarioRepository.findByCargoContainingIgnoreCaseOrderByNomeAsc(cargo.trim());
-        } else if (ativo != null) {
-            lista = funcionarioRepository.findByAtivoOrderByNomeAsc(ativo);
-        } else {
-            lista = funcionarioRepository.findAllByOrderByNomeAsc();
-        }
+    @Transactional(readOnly = true)
+    public List<FuncionarioResponseDTO> findAll(String cargo, String nome, String email, Boolean ativo) {
+        List<Funcionario> lista = buscar(cargo, nome, email, ativo, Paginacao.INICIO, Limit.unlimited());
 
         return lista.stream()
                 .map(funcionarioMapper::toResponseDTO)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDTO<FuncionarioResponseDTO> findPagina(String cargo, String nome, String email, Boolean ativo,
+                                                        String cursor, Integer limite) {
+        int tamanho = Paginacao.tamanho(limite, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+        Paginacao.Posicao posicao = Paginacao.decodificar(cursor);
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<Funcionario> lista = buscar(cargo, nome, email, ativo, posicao, Limit.of(tamanho + 1));
+
+        return Paginacao.montar(lista, tamanho, funcionarioMapper::toResponseDTO,
+                Funcionario::getNome, Funcionario::getId);
+    }
+
+    @Transactional(readOnly = true)
     public FuncionarioResponseDTO findById(Long id) {
         Funcionario f = funcionarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Funcionário não encontrado: " + id));
@@ -69,17 +116,17 @@ public class FuncionarioService {
         return funcionarioMapper.toResponseDTO(f);
     }
     
+    @Transactional(readOnly = true)
     public List<FuncionarioResponseDTO> findByDepartamento(Long departamentoId) {
         // Verifica se o departamento existe
-        var departamento = departamentoRepository.findById(departamentoId)
-                .orElseThrow(() -> new NegocioException("Departamento não encontrado."));
+        DepartamentoResponseDTO departamento = buscarDepartamento(departamentoId);
 
         // Busca todos os funcionários vinculados a esse departamento
         List<Funcionario> funcionarios = funcionarioRepository.findByDepartamentoId(departamentoId);
 
         // Caso o departamento esteja inativo, apenas informa (não bloqueia a listagem)
-        if (!departamento.getAtivo()) {
-            System.out.println("Aviso: Departamento inativo — listando funcionários vinculados apenas para consulta.");
+        if (!departamento.ativo()) {
+            log.info("Departamento {} inativo — listando funcionários vinculados apenas para consulta.", departamentoId);
         }
 
         return funcionarios.stream()
@@ -92,19 +139,22 @@ public class FuncionarioService {
     // CRIAR / ATUALIZAR / REMOVER
     // ======================
 
+    // No máximo uma leitura (e-mail, que decide entre reativar e criar) e uma escrita em TB_FUNCIONARIO:
+    // e-mail que o filtro de Bloom garante ser novo dispensa a leitura;
+    // o departamento vem do cache e entra na entidade apenas como referência
     @Transactional
     public FuncionarioResponseDTO save(FuncionarioRequestDTO dto) {
         validar(dto);
 
-        // Busca e valida o departamento
-        Departamento dep = departamentoRepository.findById(dto.departamentoId())
-                .orElseThrow(() -> new NegocioException("Departamento não encontrado."));
-        if (!dep.getAtivo()) {
+        // Busca (cache) e valida o departamento
+        DepartamentoResponseDTO depDTO = buscarDepartamento(dto.departamentoId());
+        if (!depDTO.ativo()) {
             throw new NegocioException("Não é possível cadastrar funcionário em um departamento inativo.");
         }
+        Departamento dep = departamentoRepository.getReferenceById(depDTO.id());
 
         // Reativação de funcionário existente
-        Optional<Funcionario> opt = funcionarioRepository.findByEmail(dto.email());
+        Optional<Funcionario> opt = buscarPorEmail(dto.email());
         if (opt.isPresent()) {
             Funcionario existente = opt.get();
 
@@ -112,12 +162,15 @@ public class FuncionarioService {
                 throw new NegocioException("E-mail já cadastrado.");
             }
 
+            Contribuicao antes = Contribuicao.de(existente);
             aplicarAtualizacao(dto, existente, true);
             existente.setDepartamento(dep);
 
-            Funcionario reativado = funcionarioRepository.save(existente);
-            notificar("Funcionário " + reativado.getNome() + " reativado.");
-            return funcionarioMapper.toResponseDTO(reativado);
+            // Entidade gerenciada: o UPDATE sai do dirty checking
+            gravar();
+            estatisticaDepartamentoService.substituir(antes, Contribuicao.de(existente));
+            notificar("Funcionário " + existente.getNome() + " reativado.");
+            return publicar(TipoAlteracao.REATIVADO, funcionarioMapper.toResponseDTO(existente, depDTO));
         }
 
         // Criação de novo funcionário
@@ -125,16 +178,24 @@ public class FuncionarioService {
         novo.setDepartamento(dep);
         if (dto.ativo() == null) novo.setAtivo(true);
 
+        filtroEmails.registrar(novo.getEmail());
         Funcionario salvo = funcionarioRepository.save(novo);
+        // Cadastro simultâneo com o mesmo e-mail esbarra na constraint única
+        gravar();
+        estatisticaDepartamentoService.substituir(null, Contribuicao.de(salvo));
         notificar("Funcionário " + salvo.getNome() + " cadastrado.");
-        return funcionarioMapper.toResponseDTO(salvo);
+        return publicar(TipoAlteracao.CRIADO, funcionarioMapper.toResponseDTO(salvo, depDTO));
     }
 
+    // Uma leitura (o próprio funcionário) e no máximo uma escrita em TB_FUNCIONARIO: sem consulta
+    // de e-mail (a constraint única decide) nem do departamento (cache + referência)
+    // etagEsperado: If-Match do cliente (null para gravar sem conferir a versão lida por ele)
     @Transactional
-    public FuncionarioResponseDTO update(Long id, FuncionarioRequestDTO dto) {
+    public FuncionarioResponseDTO update(Long id, FuncionarioRequestDTO dto, String etagEsperado) {
         Funcionario atual = funcionarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Funcionário não encontrado: " + id));
 
+        conferirVersao(atual, etagEsperado);
         validar(dto);
 
         // Somente funcionários ativos podem ser editados
@@ -142,32 +203,28 @@ public class FuncionarioService {
             throw new NegocioException("Funcionário inativo não pode ser editado.");
         }
 
-        // Valida departamento, se informado
-        Departamento dep = departamentoRepository.findById(dto.departamentoId())
-                .orElseThrow(() -> new NegocioException("Departamento não encontrado."));
-        if (!dep.getAtivo()) {
+        // Valida departamento (cache)
+        DepartamentoResponseDTO depDTO = buscarDepartamento(dto.departamentoId());
+        if (!depDTO.ativo()) {
             throw new NegocioException("Não é possível vincular funcionário a um departamento inativo.");
         }
-
-        // E-mail duplicado
-        if (dto.email() != null) {
-            funcionarioRepository.findByEmail(dto.email()).ifPresent(outro -> {
-                if (!outro.getId().equals(atual.getId()))
-                    throw new NegocioException("E-mail já cadastrado.");
-            });
-        }
+        Departamento dep = departamentoRepository.getReferenceById(depDTO.id());
 
         // Salário não pode ser reduzido
         if (dto.salario() != null && atual.getSalario() != null && dto.salario() < atual.getSalario()) {
             throw new NegocioException("O salário não pode ser reduzido.");
         }
 
+        Contribuicao antes = Contribuicao.de(atual);
         aplicarAtualizacao(dto, atual, false);
         atual.setDepartamento(dep);
+        filtroEmails.registrar(atual.getEmail());
 
-        Funcionario atualizado = funcionarioRepository.save(atual);
-        notificar("Funcionário " + atualizado.getNome() + " atualizado.");
-        return funcionarioMapper.toResponseDTO(atualizado);
+        // Sem mudança nos campos, o dirty checking não gera UPDATE
+        gravar();
+        estatisticaDepartamentoService.substituir(antes, Contribuicao.de(atual));
+        notificar("Funcionário " + atual.getNome() + " atualizado.");
+        return publicar(TipoAlteracao.ATUALIZADO, funcionarioMapper.toResponseDTO(atual, depDTO));
     }
 
     @Transactional
@@ -175,35 +232,150 @@ public class FuncionarioService {
         Funcionario f = funcionarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Funcionário não encontrado: " + id));
 
+        FuncionarioResponseDTO removido = funcionarioMapper.toResponseDTO(f);
         funcionarioRepository.delete(f);
+        estatisticaDepartamentoService.substituir(Contribuicao.de(f), null);
         notificar("Funcionário " + f.getNome() + " removido.");
+        publicar(TipoAlteracao.REMOVIDO, removido);
     }
 
+    // Idempotente: numa disputa com outra gravação, repete sobre a versão nova
     @Transactional
-    public FuncionarioResponseDTO inativar(Long id) {
+    @RepetirEmConflito
+    public FuncionarioResponseDTO inativar(Long id, String etagEsperado) {
         Funcionario f = funcionarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Funcionário não encontrado: " + id));
 
+        conferirVersao(f, etagEsperado);
         if (Boolean.FALSE.equals(f.getAtivo())) {
             return funcionarioMapper.toResponseDTO(f); // idempotente
         }
 
+        Contribuicao antes = Contribuicao.de(f);
         f.setAtivo(false);
-        Funcionario salvo = funcionarioRepository.save(f);
-        notificar("Funcionário " + salvo.getNome() + " inativado.");
-        return funcionarioMapper.toResponseDTO(salvo);
+        gravar();
+        estatisticaDepartamentoService.substituir(antes, Contribuicao.de(f));
+        notificar("Funcionário " + f.getNome() + " inativado.");
+        // O departamento já veio com o funcionário (findById usa o EntityGraph): nenhuma consulta a mais
+        return publicar(TipoAlteracao.INATIVADO, funcionarioMapper.toResponseDTO(f));
+    }
+
+    // ======================
+    // ALTERAÇÕES EM LOTE
+    // ======================
+
+    // Reajuste dos funcionários ativos do departamento num único UPDATE (percentual ou valor fixo, nunca redução)
+    @Transactional
+    public AlteracaoEmLoteDTO reajustarSalarios(Long departamentoId, ReajusteSalarialRequestDTO dto) {
+        if (dto == null || (dto.percentual() == null) == (dto.valor() == null)) {
+            throw new NegocioException("Informe o percentual ou o valor do reajuste (apenas um deles).");
+        }
+        double percentual = dto.percentual() != null ? dto.percentual() : 0.0;
+        double valor = dto.valor() != null ? dto.valor() : 0.0;
+        if (percentual < 0.0 || valor < 0.0) {
+            throw new NegocioException("O salário não pode ser reduzido.");
+        }
+
+        DepartamentoResponseDTO departamento = buscarDepartamento(departamentoId);
+        int afetados = funcionarioRepository.reajustarSalarios(departamentoId, 1.0 + percentual / 100.0, valor);
+
+        if (afetados > 0) {
+            estatisticaDepartamentoService.recalcular(departamentoId);
+            String reajuste = dto.percentual() != null ? percentual + "%" : "R$ " + valor;
+            notificar("Reajuste de " + reajuste + " aplicado a " + afetados
+                    + " funcionário(s) do departamento " + departamento.nome() + ".");
+            eventPublisher.publishEvent(
+                    new FuncionariosAlteradosEmLoteEvento(TipoAlteracao.ATUALIZADO, departamentoId, afetados));
+        }
+        return new AlteracaoEmLoteDTO(departamentoId, "reajuste", afetados);
     }
 
     // ======================
     // MÉTODOS AUXILIARES
     // ======================
 
+    // Filtros por substring resolvidos pelo índice de trigramas quando possível;
+    // sem índice utilizável, a própria consulta aplica os LIKE
+    private List<Funcionario> buscar(String cargo, String nome, String email, Boolean ativo,
+                                     Paginacao.Posicao posicao, Limit limite) {
+        String filtroCargo = filtro(cargo);
+        String filtroNome = filtro(nome);
+        String filtroEmail = filtro(email);
+
+        Set<Long> ids = indiceFuncionarios.candidatos(filtroCargo, filtroNome, filtroEmail);
+        if (ids == null) {
+            return funcionarioRepository.buscarPagina(literal(filtroCargo), literal(filtroNome), literal(filtroEmail),
+                    ativo, posicao.nome(), posicao.id(), limite);
+        }
+        if (ids.isEmpty()) return List.of();
+
+        return funcionarioRepository.buscarPaginaPorIds(ids, literal(filtroCargo), literal(filtroNome),
+                literal(filtroEmail), ativo, posicao.nome(), posicao.id(), limite);
+    }
+
+    private static String filtro(String valor) {
+        return (valor != null && !valor.isBlank()) ? valor.trim() : null;
+    }
+
+    // Trecho para o LIKE ... escape '\': % e _ do usuário são caracteres comuns, como no índice de trigramas
+    private static String literal(String trecho) {
+        if (trecho == null) return null;
+        return trecho.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Consulta só quando o filtro não descarta o e-mail; "talvez" sem registro conta como falso positivo
+    private Optional<Funcionario> buscarPorEmail(String email) {
+        if (!filtroEmails.podeExistir(email)) return Optional.empty();
+
+        Optional<Funcionario> opt = funcionarioRepository.findByEmail(email);
+        if (opt.isEmpty()) filtroEmails.falsoPositivo();
+        return opt;
+    }
+
+    // Departamento via cache; ausência é erro de negócio (400) no contexto do funcionário
+    private DepartamentoResponseDTO buscarDepartamento(Long departamentoId) {
+        try {
+            return departamentoService.buscarPorId(departamentoId);
+        } catch (RecursoNaoEncontradoException e) {
+            throw new NegocioException("Departamento não encontrado.");
+        }
+    }
+
+    // Envia as alterações pendentes ainda dentro do serviço: a unicidade do e-mail é garantida pela
+    // constraint uk_funcionario_email, e a violação vira erro de negócio em vez de falhar no commit.
+    // Também confere a versão (@Version) e a incrementa na entidade, antes de montar a resposta.
+    private void gravar() {
+        try {
+            funcionarioRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (violouEmailUnico(e)) throw new NegocioException("E-mail já cadastrado.");
+            throw e;
+        }
+    }
+
+    // If-Match: a alteração foi pensada sobre uma representação que não é mais a atual
+    private void conferirVersao(Funcionario f, String etagEsperado) {
+        if (etagEsperado == null) return;
+
+        FuncionarioResponseDTO atual = funcionarioMapper.toResponseDTO(f);
+        String etag = VersaoDados.etag(atual);
+        if (!VersaoDados.confere(etagEsperado, etag)) {
+            throw new VersaoDesatualizadaException("Funcionário alterado desde a última leitura.", atual, etag);
+        }
+    }
+
+    private static boolean violouEmailUnico(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException cve
+                && cve.getConstraintName() != null
+                && cve.getConstraintName().toLowerCase(Locale.ROOT).contains("uk_funcionario_email");
+    }
+
     private void aplicarAtualizacao(FuncionarioRequestDTO dto, Funcionario entidade, boolean reativacao) {
         funcionarioMapper.updateEntity(entidade, dto);
         if (reativacao) entidade.setAtivo(true);
     }
 
-    private void validar(FuncionarioRequestDTO dto) {
+    void validar(FuncionarioRequestDTO dto) {
         if (dto == null) {
             throw new NegocioException("Dados do funcionário são obrigatórios.");
         }
@@ -227,14 +399,14 @@ public class FuncionarioService {
         }
     }
 
+    // Ouvintes que mantêm estruturas em memória reagem após o commit
+    private FuncionarioResponseDTO publicar(TipoAlteracao tipo, FuncionarioResponseDTO dto) {
+        eventPublisher.publishEvent(new FuncionarioAlteradoEvento(tipo, dto));
+        return dto;
+    }
+
+    // Gravada no outbox na mesma transação; o envio acontece após o commit
     private void notificar(String msg) {
-        if (notificacoes == null) return;
-        for (NotificacaoService n : notificacoes) {
-            try {
-                n.mensagem(msg);
-            } catch (Exception e) {
-                System.out.println("Falha ao enviar mensagem: " + e.getMessage());
-            }
-        }
+        notificacaoOutboxService.registrar(msg);
     }
 }
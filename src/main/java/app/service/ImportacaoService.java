@@ -0,0 +1,225 @@
+package app.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.dto.FuncionarioRequestDTO;
+import app.dto.ImportacaoLinhaDTO;
+import app.dto.ImportacaoResultadoDTO;
+import app.entity.Departamento;
+import app.entity.Funcionario;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.TipoAlteracao;
+import app.exceptions.NegocioException;
+import app.mapper.FuncionarioMapper;
+import app.repository.DepartamentoRepository;
+import app.repository.FuncionarioRepository;
+import app.service.EstatisticaDepartamentoService.Contribuicao;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importação em lote de funcionários (JSON ou CSV).
+ * Valida as linhas em paralelo, resolve departamentos e e-mails já cadastrados com uma consulta
+ * cada, e grava as linhas válidas com inserts em lote (JDBC batch) numa única transação.
+ */
+@Service
+public class ImportacaoService {
+
+    // Linha de entrada: dto nulo quando a linha não pôde ser convertida (erro preenchido)
+    record Linha(int numero, FuncionarioRequestDTO dto, String erro) {}
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private FuncionarioMapper funcionarioMapper;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private FiltroEmails filtroEmails;
+
+    @Autowired
+    private NotificacaoOutboxService notificacaoOutboxService;
+
+    @Autowired
+    private EstatisticaDepartamentoService estatisticaDepartamentoService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.importacao.tamanho-maximo:10000}")
+    private int tamanhoMaximo;
+
+    // ======================
+    // ENTRADAS
+    // ======================
+
+    @Transactional
+    public ImportacaoResultadoDTO importar(List<FuncionarioRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new NegocioException("Nenhum funcionário informado para importação.");
+        }
+
+        List<Linha> linhas = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            linhas.add(new Linha(i + 1, dtos.get(i), null));
+        }
+        return processar(linhas);
+    }
+
+    @Transactional
+    public ImportacaoResultadoDTO importarCsv(InputStream csv) throws IOException {
+        List<Linha> linhas = LeitorCsvFuncionarios.ler(csv);
+        if (linhas.isEmpty()) {
+            throw new NegocioException("Nenhum funcionário informado para importação.");
+        }
+        return processar(linhas);
+    }
+
+    // ======================
+    // PROCESSAMENTO
+    // ======================
+
+    private ImportacaoResultadoDTO processar(List<Linha> linhas) {
+        if (linhas.size() > tamanhoMaximo) {
+            throw new NegocioException("O lote excede o limite de " + tamanhoMaximo + " funcionários.");
+        }
+
+        // 1) Validação independente por linha, em paralelo
+        String[] erros = linhas.parallelStream()
+                .map(this::validar)
+                .toArray(String[]::new);
+
+        // 2) Departamentos do lote numa única consulta
+        Set<Long> departamentoIds = linhas.stream()
+                .map(Linha::dto)
+                .filter(Objects::nonNull)
+                .map(FuncionarioRequestDTO::departamentoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Departamento> departamentos = new HashMap<>();
+        departamentoRepository.findAllById(departamentoIds).forEach(d -> departamentos.put(d.getId(), d));
+
+        // 3) E-mails já cadastrados numa única consulta, só com os que o filtro de Bloom não descarta
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            if (erros[i] == null) emails.add(linhas.get(i).dto().email());
+        }
+        emails.removeIf(email -> !filtroEmails.podeExistir(email));
+        Set<String> cadastrados = emails.isEmpty()
+                ? Set.of()
+                : new HashSet<>(funcionarioRepository.findEmailsCadastrados(emails));
+        for (int k = cadastrados.size(); k < emails.size(); k++) filtroEmails.falsoPositivo();
+
+        // 4) Regras que dependem do lote e do banco
+        Set<String> vistos = new HashSet<>();
+        List<Funcionario> novos = new ArrayList<>();
+        List<Integer> indicesNovos = new ArrayList<>();
+
+        for (int i = 0; i < linhas.size(); i++) {
+            if (erros[i] != null) continue;
+            FuncionarioRequestDTO dto = linhas.get(i).dto();
+
+            Departamento dep = departamentos.get(dto.departamentoId());
+            if (dep == null) {
+                erros[i] = "Departamento não encontrado.";
+            } else if (!dep.getAtivo()) {
+                erros[i] = "Não é possível cadastrar funcionário em um departamento inativo.";
+            } else if (cadastrados.contains(dto.email())) {
+                erros[i] = "E-mail já cadastrado.";
+            } else if (!vistos.add(dto.email())) {
+                erros[i] = "E-mail repetido no lote.";
+            } else {
+                Funcionario novo = funcionarioMapper.toEntity(dto);
+                novo.setDepartamento(dep);
+                if (dto.ativo() == null) novo.setAtivo(true);
+                novos.add(novo);
+                indicesNovos.add(i);
+            }
+        }
+
+        // 5) Inserts em lote (hibernate.jdbc.batch_size)
+        novos.forEach(f -> filtroEmails.registrar(f.getEmail()));
+        try {
+            funcionarioRepository.saveAll(novos);
+            funcionarioRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new NegocioException("Lote não importado: e-mail cadastrado por outra operação simultânea.");
+        }
+
+        Long[] ids = new Long[linhas.size()];
+        for (int k = 0; k < novos.size(); k++) {
+            Funcionario f = novos.get(k);
+            ids[indicesNovos.get(k)] = f.getId();
+            eventPublisher.publishEvent(new FuncionarioAlteradoEvento(TipoAlteracao.CRIADO, funcionarioMapper.toResponseDTO(f)));
+        }
+
+        estatisticaDepartamentoService.incluir(novos.stream().map(Contribuicao::de).toList());
+
+        if (!novos.isEmpty()) {
+            notificacaoOutboxService.registrar(novos.size() + " funcionário(s) importado(s) em lote.");
+        }
+        return montarResultado(linhas, erros, ids);
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private String validar(Linha linha) {
+        if (linha.erro() != null) return linha.erro();
+        if (linha.dto() == null) return "Dados do funcionário são obrigatórios.";
+
+        Set<ConstraintViolation<FuncionarioRequestDTO>> violacoes = validator.validate(linha.dto());
+        if (!violacoes.isEmpty()) {
+            ConstraintViolation<FuncionarioRequestDTO> v = violacoes.iterator().next();
+            return v.getPropertyPath() + ": " + v.getMessage();
+        }
+
+        try {
+            funcionarioService.validar(linha.dto());
+            return null;
+        } catch (NegocioException e) {
+            return e.getMessage();
+        }
+    }
+
+    private ImportacaoResultadoDTO montarResultado(List<Linha> linhas, String[] erros, Long[] ids) {
+        List<ImportacaoLinhaDTO> resultado = new ArrayList<>(linhas.size());
+        int importados = 0;
+
+        for (int i = 0; i < linhas.size(); i++) {
+            Linha linha = linhas.get(i);
+            String email = linha.dto() != null ? linha.dto().email() : null;
+            boolean ok = erros[i] == null;
+            if (ok) importados++;
+
+            resultado.add(new ImportacaoLinhaDTO(linha.numero(), email, ok, ids[i], ok ? "Importado." : erros[i]));
+        }
+        return new ImportacaoResultadoDTO(linhas.size(), importados, linhas.size() - importados, resultado);
+    }
+}
@@ -0,0 +1,173 @@
+package app.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.dto.FuncionarioResponseDTO;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.TipoAlteracao;
+
+/**
+ * Índices de trigramas de cargo, nome e e-mail dos funcionários, mantidos em memória.
+ * Carregados na inicialização e atualizados após o commit de cada gravação do FuncionarioService,
+ * resolvem os filtros por substring em ids candidatos sem varrer TB_FUNCIONARIO.
+ */
+@Component
+public class IndiceFuncionarios {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceFuncionarios.class);
+
+    private final IndiceTrigramas cargo = new IndiceTrigramas();
+    private final IndiceTrigramas nome = new IndiceTrigramas();
+    private final IndiceTrigramas email = new IndiceTrigramas();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final int maximoCandidatos;
+
+    // Recarga e atualizações incrementais não podem se intercalar
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean pronto;
+
+    public IndiceFuncionarios(DataSource dataSource,
+                              @Value("${app.indice-trigramas.habilitado:true}") boolean habilitado,
+                              @Value("${app.indice-trigramas.maximo-candidatos:5000}") int maximoCandidatos) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.habilitado = habilitado;
+        this.maximoCandidatos = maximoCandidatos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (habilitado) recarregar();
+    }
+
+    // Reconstrói os índices a partir do banco (inicialização ou após cargas feitas fora do serviço)
+    public void recarregar() {
+        lock.lock();
+        try {
+            Map<Long, String> cargos = new HashMap<>();
+            Map<Long, String> nomes = new HashMap<>();
+            Map<Long, String> emails = new HashMap<>();
+
+            jdbcTemplate.query("select id, cargo, nome, email from tb_funcionario", rs -> {
+                long id = rs.getLong(1);
+                cargos.put(id, rs.getString(2));
+                nomes.put(id, rs.getString(3));
+                emails.put(id, rs.getString(4));
+            });
+
+            cargo.recriar(cargos);
+            nome.recriar(nomes);
+            email.recriar(emails);
+            pronto = true;
+            log.info("Índice de trigramas carregado com {} funcionários.", cargos.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // As alterações de uma transação são aplicadas juntas após o commit: a importação publica um evento
+    // por linha, e cada lista de trigrama é alterada uma vez por lote, não uma vez por funcionário
+    // Nada é descartado antes do índice ficar pronto: uma alteração anterior à carga já está no banco
+    // quando ela lê, e uma confirmada durante a carga espera o lock e é aplicada logo depois dela
+    @EventListener
+    public void aoAlterarFuncionario(FuncionarioAlteradoEvento evento) {
+        if (!habilitado) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, FuncionarioResponseDTO> alteracao = new HashMap<>();
+            alteracao.put(evento.funcionario().id(), atual(evento));
+            aplicar(alteracao);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, FuncionarioResponseDTO> lote = (Map<Long, FuncionarioResponseDTO>) TransactionSynchronizationManager.getResource(this);
+        if (lote == null) {
+            Map<Long, FuncionarioResponseDTO> novo = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, novo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(novo);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(IndiceFuncionarios.this);
+                }
+            });
+            lote = novo;
+        }
+        // A última alteração de cada funcionário na transação prevalece
+        lote.put(evento.funcionario().id(), atual(evento));
+    }
+
+    // Estado final do funcionário (null quando removido)
+    private static FuncionarioResponseDTO atual(FuncionarioAlteradoEvento evento) {
+        return evento.tipo() == TipoAlteracao.REMOVIDO ? null : evento.funcionario();
+    }
+
+    private void aplicar(Map<Long, FuncionarioResponseDTO> alteracoes) {
+        Map<Long, String> cargos = new HashMap<>();
+        Map<Long, String> nomes = new HashMap<>();
+        Map<Long, String> emails = new HashMap<>();
+        alteracoes.forEach((id, f) -> {
+            cargos.put(id, f == null ? null : f.cargo());
+            nomes.put(id, f == null ? null : f.nome());
+            emails.put(id, f == null ? null : f.email());
+        });
+
+        lock.lock();
+        try {
+            cargo.aplicar(cargos);
+            nome.aplicar(nomes);
+            email.aplicar(emails);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ids que atendem a todos os filtros de substring informados.
+     * Retorna null quando nenhum filtro foi informado ou quando o índice não pode ajudar
+     * (desligado, ainda carregando ou resultado grande demais) — nesses casos usa-se a consulta com LIKE.
+     */
+    public Set<Long> candidatos(String filtroCargo, String filtroNome, String filtroEmail) {
+        if (!habilitado || !pronto) return null;
+        if (filtroCargo == null && filtroNome == null && filtroEmail == null) return null;
+
+        Set<Long> resultado = restringir(null, cargo, filtroCargo);
+        resultado = restringir(resultado, nome, filtroNome);
+        return restringir(resultado, email, filtroEmail);
+    }
+
+    private Set<Long> restringir(Set<Long> atual, IndiceTrigramas indice, String termo) {
+        if (termo == null || (atual != null && atual.isEmpty())) return atual;
+
+        Set<Long> ids = indice.buscar(termo, maximoCandidatos);
+        if (ids == null) return atual; // filtro pouco seletivo: fica só com o LIKE da consulta
+        if (atual == null) return new HashSet<>(ids);
+
+        atual.retainAll(ids);
+        return atual;
+    }
+}
@@ -0,0 +1,344 @@
+package app.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Índice invertido de trigramas de um campo texto, para buscas por substring
+ * (equivalente a lower(campo) like '%termo%') sem varrer a tabela.
+ *
+ * Cada trigrama (e cada bigrama, para os termos de 2 caracteres) aponta para um Posting: os ids em ordem,
+ * divididos em blocos de até 2 * BLOCO. O Posting é imutável depois de publicado, então as leituras não
+ * usam lock; uma escrita copia só o bloco alterado e o array de referências aos blocos, não a lista
+ * inteira, e as escritas são serializadas. Um lote de alterações (aplicar) reúne as mudanças por trigrama
+ * e reconstrói de uma vez cada lista muito alterada.
+ */
+public class IndiceTrigramas {
+
+    // Tamanho de bloco após uma reconstrução; um bloco é dividido ao passar do dobro
+    static final int BLOCO = 256;
+
+    // Acima disso, as mudanças de um lote num trigrama reconstroem a lista em vez de alterá-la id a id
+    private static final int LIMITE_INCREMENTAL = 64;
+
+    private final Map<Long, Posting> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> valores = new ConcurrentHashMap<>();
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    // ======================
+    // ESCRITA
+    // ======================
+
+    public void indexar(Long id, String valor) {
+        Map<Long, String> alteracao = new HashMap<>();
+        alteracao.put(id, normalizar(valor));
+        aplicar(alteracao);
+    }
+
+    public void remover(Long id) {
+        Map<Long, String> alteracao = new HashMap<>();
+        alteracao.put(id, null);
+        aplicar(alteracao);
+    }
+
+    // Aplica um lote de alterações (id -> novo valor; valor null remove o id)
+    public void aplicar(Map<Long, String> alteracoes) {
+        escrita.lock();
+        try {
+            Map<Long, Mudancas> porChave = new HashMap<>();
+            alteracoes.forEach((id, valor) -> {
+                String novo = (valor == null) ? null : normalizar(valor);
+                String antigo = (novo == null) ? valores.remove(id) : valores.put(id, novo);
+                if (Objects.equals(novo, antigo)) return;
+
+                Set<Long> antigas = (antigo != null) ? chaves(antigo) : Set.of();
+                Set<Long> novas = (novo != null) ? chaves(novo) : Set.of();
+                for (Long c : antigas) {
+                    if (!novas.contains(c)) porChave.computeIfAbsent(c, k -> new Mudancas()).removidos.add(id);
+                }
+                for (Long c : novas) {
+                    if (!antigas.contains(c)) porChave.computeIfAbsent(c, k -> new Mudancas()).adicionados.add(id);
+                }
+            });
+
+            porChave.forEach((c, mudancas) -> {
+                Posting atual = postings.getOrDefault(c, Posting.VAZIO);
+                Posting novo = mudancas.total() > LIMITE_INCREMENTAL
+                        ? atual.mesclar(mudancas)
+                        : atual.alterar(mudancas);
+                if (novo.tamanho == 0) postings.remove(c);
+                else postings.put(c, novo);
+            });
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    // Reconstrói o índice inteiro a partir de (id, valor), montando cada posting uma única vez
+    public void recriar(Map<Long, String> dados) {
+        Map<Long, List<Long>> acumulado = new HashMap<>();
+        Map<Long, String> normalizados = new HashMap<>(dados.size() * 2);
+        dados.forEach((id, valor) -> {
+            String v = normalizar(valor);
+            normalizados.put(id, v);
+            for (Long c : chaves(v)) {
+                acumulado.computeIfAbsent(c, k -> new ArrayList<>()).add(id);
+            }
+        });
+
+        escrita.lock();
+        try {
+            postings.clear();
+            valores.clear();
+            valores.putAll(normalizados);
+            acumulado.forEach((c, ids) -> {
+                long[] arr = ids.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(arr);
+                postings.put(c, Posting.de(arr));
+            });
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    // ======================
+    // LEITURA
+    // ======================
+
+    /**
+     * Ids cujo valor contém o termo (sem diferenciar maiúsculas).
+     * Retorna null quando o resultado passaria de "maximo", ou para termos de 1 caractere (quase nunca
+     * seletivos) — o chamador deve usar outra estratégia.
+     */
+    public Set<Long> buscar(String termo, int maximo) {
+        String t = normalizar(termo);
+        if (t.isEmpty() || t.length() == 1) return null;
+
+        // Termo de 2 caracteres: o posting do bigrama já é o resultado exato
+        if (t.length() == 2) {
+            Posting ids = postings.getOrDefault(bigrama(t, 0), Posting.VAZIO);
+            if (ids.tamanho > maximo) return null;
+            Set<Long> resultado = new HashSet<>(ids.tamanho * 2);
+            ids.paraCada(resultado::add);
+            return resultado;
+        }
+
+        List<Posting> listas = new ArrayList<>();
+        for (Long trigrama : trigramas(t)) {
+            Posting ids = postings.get(trigrama);
+            if (ids == null) return Set.of();
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(p -> p.tamanho));
+
+        // Interseção a partir da menor lista; a conferência final elimina falsos positivos
+        Set<Long> resultado = new HashSet<>();
+        Posting menor = listas.get(0);
+        for (long[] bloco : menor.blocos) {
+            for (long id : bloco) {
+                if (contidoEmTodas(id, listas)) {
+                    String valor = valores.get(id);
+                    if (valor != null && valor.contains(t)) {
+                        resultado.add(id);
+                        if (resultado.size() > maximo) return null;
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    public int tamanho() {
+        return valores.size();
+    }
+
+    // ======================
+    // POSTINGS
+    // ======================
+
+    // Ids em ordem, em blocos ordenados; primeiros[i] é o menor id de blocos[i]. Imutável.
+    static final class Posting {
+
+        static final Posting VAZIO = new Posting(new long[0][], new long[0], 0);
+
+        final long[][] blocos;
+        final long[] primeiros;
+        final int tamanho;
+
+        private Posting(long[][] blocos, long[] primeiros, int tamanho) {
+            this.blocos = blocos;
+            this.primeiros = primeiros;
+            this.tamanho = tamanho;
+        }
+
+        // Posting a partir de ids já ordenados e sem repetição
+        static Posting de(long[] ordenados) {
+            int quantidade = (ordenados.length + BLOCO - 1) / BLOCO;
+            long[][] blocos = new long[quantidade][];
+            long[] primeiros = new long[quantidade];
+            for (int b = 0; b < quantidade; b++) {
+                blocos[b] = Arrays.copyOfRange(ordenados, b * BLOCO, Math.min(ordenados.length, (b + 1) * BLOCO));
+                primeiros[b] = blocos[b][0];
+            }
+            return new Posting(blocos, primeiros, ordenados.length);
+        }
+
+        boolean contem(long id) {
+            int b = bloco(id);
+            return b >= 0 && Arrays.binarySearch(blocos[b], id) >= 0;
+        }
+
+        void paraCada(LongConsumer acao) {
+            for (long[] bloco : blocos) {
+                for (long id : bloco) acao.accept(id);
+            }
+        }
+
+        // Poucas mudanças: id a id, copiando só os blocos afetados
+        Posting alterar(Mudancas mudancas) {
+            Posting p = this;
+            for (Long id : mudancas.removidos) p = p.sem(id);
+            for (Long id : mudancas.adicionados) p = p.com(id);
+            return p;
+        }
+
+        // Muitas mudanças: uma passada pela lista atual, intercalando os novos ids
+        Posting mesclar(Mudancas mudancas) {
+            Set<Long> removidos = new HashSet<>(mudancas.removidos);
+            long[] adicionados = mudancas.adicionados.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            long[] resultado = new long[tamanho + adicionados.length];
+            int n = 0;
+            int a = 0;
+            for (long[] bloco : blocos) {
+                for (long id : bloco) {
+                    while (a < adicionados.length && adicionados[a] < id) resultado[n++] = adicionados[a++];
+                    if (a < adicionados.length && adicionados[a] == id) a++;
+                    if (!removidos.contains(id)) resultado[n++] = id;
+                }
+            }
+            while (a < adicionados.length) resultado[n++] = adicionados[a++];
+            return de(Arrays.copyOf(resultado, n));
+        }
+
+        private Posting com(long id) {
+            if (tamanho == 0) return new Posting(new long[][] {{id}}, new long[] {id}, 1);
+            int b = Math.max(0, bloco(id));
+            long[] bloco = blocos[b];
+            int pos = Arrays.binarySearch(bloco, id);
+            if (pos >= 0) return this;
+            pos = -pos - 1;
+
+            long[] novo = new long[bloco.length + 1];
+            System.arraycopy(bloco, 0, novo, 0, pos);
+            novo[pos] = id;
+            System.arraycopy(bloco, pos, novo, pos + 1, bloco.length - pos);
+            if (novo.length <= 2 * BLOCO) return substituir(b, novo, 1);
+
+            // Bloco cheio: divide ao meio
+            int meio = novo.length / 2;
+            long[][] novosBlocos = new long[blocos.length + 1][];
+            long[] novosPrimeiros = new long[blocos.length + 1];
+            System.arraycopy(blocos, 0, novosBlocos, 0, b);
+            System.arraycopy(primeiros, 0, novosPrimeiros, 0, b);
+            novosBlocos[b] = Arrays.copyOfRange(novo, 0, meio);
+            novosBlocos[b + 1] = Arrays.copyOfRange(novo, meio, novo.length);
+            novosPrimeiros[b] = novo[0];
+            novosPrimeiros[b + 1] = novo[meio];
+            System.arraycopy(blocos, b + 1, novosBlocos, b + 2, blocos.length - b - 1);
+            System.arraycopy(primeiros, b + 1, novosPrimeiros, b + 2, blocos.length - b - 1);
+            return new Posting(novosBlocos, novosPrimeiros, tamanho + 1);
+        }
+
+        private Posting sem(long id) {
+            int b = bloco(id);
+            if (b < 0) return this;
+            long[] bloco = blocos[b];
+            int pos = Arrays.binarySearch(bloco, id);
+            if (pos < 0) return this;
+
+            if (bloco.length == 1) {
+                long[][] novosBlocos = new long[blocos.length - 1][];
+                long[] novosPrimeiros = new long[blocos.length - 1];
+                System.arraycopy(blocos, 0, novosBlocos, 0, b);
+                System.arraycopy(primeiros, 0, novosPrimeiros, 0, b);
+                System.arraycopy(blocos, b + 1, novosBlocos, b, blocos.length - b - 1);
+                System.arraycopy(primeiros, b + 1, novosPrimeiros, b, blocos.length - b - 1);
+                return new Posting(novosBlocos, novosPrimeiros, tamanho - 1);
+            }
+            long[] novo = new long[bloco.length - 1];
+            System.arraycopy(bloco, 0, novo, 0, pos);
+            System.arraycopy(bloco, pos + 1, novo, pos, bloco.length - pos - 1);
+            return substituir(b, novo, -1);
+        }
+
+        private Posting substituir(int b, long[] bloco, int variacao) {
+            long[][] novosBlocos = blocos.clone();
+            long[] novosPrimeiros = primeiros.clone();
+            novosBlocos[b] = bloco;
+            novosPrimeiros[b] = bloco[0];
+            return new Posting(novosBlocos, novosPrimeiros, tamanho + variacao);
+        }
+
+        // Último bloco cujo menor id é <= id (-1 se o id vem antes do primeiro bloco)
+        private int bloco(long id) {
+            int pos = Arrays.binarySearch(primeiros, id);
+            return pos >= 0 ? pos : -pos - 2;
+        }
+    }
+
+    // Mudanças de um lote num trigrama
+    static final class Mudancas {
+        final List<Long> adicionados = new ArrayList<>();
+        final List<Long> removidos = new ArrayList<>();
+
+        int total() {
+            return adicionados.size() + removidos.size();
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private static boolean contidoEmTodas(long id, List<Posting> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contem(id)) return false;
+        }
+        return true;
+    }
+
+    // Trigramas e bigramas do valor
+    private static Set<Long> chaves(String v) {
+        Set<Long> resultado = trigramas(v);
+        for (int i = 0; i + 2 <= v.length(); i++) resultado.add(bigrama(v, i));
+        return resultado;
+    }
+
+    private static Set<Long> trigramas(String v) {
+        Set<Long> resultado = new HashSet<>();
+        for (int i = 0; i + 3 <= v.length(); i++) {
+            resultado.add(((long) v.charAt(i) << 32) | ((long) v.charAt(i + 1) << 16) | v.charAt(i + 2));
+        }
+        return resultado;
+    }
+
+    // Marcado no bit 48, fora do espaço dos trigramas (3 x 16 bits)
+    private static long bigrama(String v, int i) {
+        return (1L << 48) | ((long) v.charAt(i) << 16) | v.charAt(i + 1);
+    }
+
+    private static String normalizar(String valor) {
+        return (valor == null) ? "" : valor.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,127 @@
+package app.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import app.dto.FuncionarioRequestDTO;
+import app.exceptions.NegocioException;
+
+/**
+ * Converte um arquivo CSV (com cabeçalho) em linhas de importação.
+ * As colunas são localizadas pelo nome, então o CSV gerado pela exportação pode ser reimportado.
+ */
+final class LeitorCsvFuncionarios {
+
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final List<String> OBRIGATORIAS =
+            List.of("nome", "email", "cargo", "salario", "dataadmissao", "departamentoid");
+
+    private LeitorCsvFuncionarios() {
+    }
+
+    static List<ImportacaoService.Linha> ler(InputStream entrada) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        String cabecalho = reader.readLine();
+        if (cabecalho == null) {
+            throw new NegocioException("Arquivo CSV vazio.");
+        }
+        Map<String, Integer> colunas = mapearColunas(separar(removerBom(cabecalho)));
+
+        List<ImportacaoService.Linha> linhas = new ArrayList<>();
+        String texto;
+        int numero = 1;
+        while ((texto = reader.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) continue;
+
+            try {
+                linhas.add(new ImportacaoService.Linha(numero, converter(separar(texto), colunas), null));
+            } catch (RuntimeException e) {
+                linhas.add(new ImportacaoService.Linha(numero, null, "Linha inválida: " + e.getMessage()));
+            }
+        }
+        return linhas;
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private static Map<String, Integer> mapearColunas(List<String> nomes) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : OBRIGATORIAS) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new NegocioException("Coluna obrigatória ausente no CSV: " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    private static FuncionarioRequestDTO converter(List<String> campos, Map<String, Integer> colunas) {
+        String ativo = campo(campos, colunas, "ativo");
+
+        return new FuncionarioRequestDTO(
+                campo(campos, colunas, "nome"),
+                campo(campos, colunas, "email"),
+                campo(campos, colunas, "cargo"),
+                Double.valueOf(campo(campos, colunas, "salario")),
+                LocalDate.parse(campo(campos, colunas, "dataadmissao"), DATA),
+                (ativo == null || ativo.isBlank()) ? null : Boolean.valueOf(ativo),
+                Long.valueOf(campo(campos, colunas, "departamentoid")));
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String nome) {
+        Integer i = colunas.get(nome);
+        if (i == null || i >= campos.size()) return null;
+        return campos.get(i).trim();
+    }
+
+    // Separa uma linha respeitando campos entre aspas (RFC 4180)
+    private static List<String> separar(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private static String removerBom(String texto) {
+        return (!texto.isEmpty() && texto.charAt(0) == '\uFEFF') ? texto.substring(1) : texto;
+    }
+}
@@ -0,0 +1,143 @@
+package app.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Leituras idênticas e simultâneas compartilham uma única execução (single-flight): a primeira requisição
+ * de uma chave consulta e serializa o JSON; as que chegam enquanto ela está em andamento esperam e recebem
+ * o mesmo buffer de bytes. Terminada a leitura a chave sai do mapa; não é um cache.
+ *
+ * Gravações no meio do caminho: a chave leva a versão da listagem (VersaoDados) vista na chegada, que muda
+ * quando uma gravação termina, antes da resposta dela. Quem lê depois de receber a confirmação de uma
+ * gravação nunca entra numa leitura começada antes dela; só leituras simultâneas à gravação compartilham
+ * o resultado anterior, como aconteceria sem o compartilhamento.
+ *
+ * Espaço de chaves: só as rotas listadas em app.leituras-compartilhadas.rotas, com até maximo-chaves
+ * leituras em andamento; além disso, a requisição lê sozinha. A espera pela leitura em andamento também
+ * é limitada (espera-maxima-ms): uma consulta presa não segura as demais requisições até o timeout delas,
+ * que passam a ler sozinhas.
+ */
+@Component
+public class LeiturasCompartilhadas {
+
+    private final ObjectMapper objectMapper;
+    private final boolean habilitado;
+    private final int maximoChaves;
+    private final long esperaMaximaMs;
+    private final Set<String> rotas;
+
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> emAndamento = new ConcurrentHashMap<>();
+
+    private final Counter executadas;
+    private final Counter compartilhadas;
+    private final Counter diretas;
+    private final Counter expiradas;
+
+    public LeiturasCompartilhadas(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  @Value("${app.leituras-compartilhadas.habilitado:true}") boolean habilitado,
+                                  @Value("${app.leituras-compartilhadas.maximo-chaves:1000}") int maximoChaves,
+                                  @Value("${app.leituras-compartilhadas.espera-maxima-ms:2000}") long esperaMaximaMs,
+                                  @Value("${app.leituras-compartilhadas.rotas:}") List<String> rotas) {
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+        this.maximoChaves = maximoChaves;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.rotas = new HashSet<>(rotas);
+
+        this.executadas = leituras(meterRegistry, "executada");
+        this.compartilhadas = leituras(meterRegistry, "compartilhada");
+        this.diretas = leituras(meterRegistry, "direta");
+        this.expiradas = leituras(meterRegistry, "expirada");
+        Gauge.builder("leituras.compartilhadas.em_andamento", emAndamento, ConcurrentHashMap::size)
+                .description("Chaves com leitura em andamento")
+                .register(meterRegistry);
+    }
+
+    // JSON do resultado de leitura, executada uma vez por chave entre as requisições simultâneas
+    public byte[] ler(String rota, String chave, Supplier<?> leitura) {
+        if (!habilitado || !rotas.contains(rota)) return serializar(leitura.get());
+
+        String k = rota + '|' + chave;
+        CompletableFuture<byte[]> existente = emAndamento.get(k);
+        CompletableFuture<byte[]> nova = null;
+        if (existente == null) {
+            if (emAndamento.size() >= maximoChaves) {
+                diretas.increment();
+                return serializar(leitura.get());
+            }
+            nova = new CompletableFuture<>();
+            existente = emAndamento.putIfAbsent(k, nova);
+        }
+        if (existente != null) {
+            compartilhadas.increment();
+            return aguardar(existente, leitura);
+        }
+
+        executadas.increment();
+        try {
+            byte[] corpo = serializar(leitura.get());
+            nova.complete(corpo);
+            return corpo;
+        } catch (RuntimeException | Error e) {
+            // Quem esperava recebe a mesma exceção (ex.: 404 de um departamento inexistente)
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(k, nova);
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // Resultado da leitura em andamento ou, passada a espera máxima, uma leitura própria
+    private byte[] aguardar(CompletableFuture<byte[]> emCurso, Supplier<?> leitura) {
+        try {
+            return emCurso.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            expiradas.increment();
+            return serializar(leitura.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Leitura interrompida", e);
+        }
+    }
+
+    private byte[] serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta", e);
+        }
+    }
+
+    private static Counter leituras(MeterRegistry registry, String resultado) {
+        return Counter.builder("leituras.compartilhadas")
+                .description("Leituras das rotas compartilhadas: própria, compartilhada, direta ou após esperar demais")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
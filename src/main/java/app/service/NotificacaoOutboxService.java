@@ -0,0 +1,56 @@
+package app.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.entity.NotificacaoPendente;
+import app.repository.NotificacaoPendenteRepository;
+
+/**
+ * Registra notificações no outbox dentro da transação de negócio.
+ * O envio pelos canais (e-mail, SMS...) é feito pelo DespachanteNotificacoes após o commit,
+ * então a latência dos canais não segura a transação nem a conexão com o banco.
+ */
+@Service
+public class NotificacaoOutboxService {
+
+    // Nome do bean -> canal
+    @Autowired(required = false)
+    private Map<String, NotificacaoService> canais;
+
+    @Autowired
+    private NotificacaoPendenteRepository notificacaoPendenteRepository;
+
+    @Autowired
+    private DespachanteNotificacoes despachante;
+
+    @Transactional
+    public void registrar(String mensagem) {
+        if (canais == null || canais.isEmpty()) return;
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<NotificacaoPendente> pendentes = new ArrayList<>(canais.size());
+        for (String canal : canais.keySet()) {
+            pendentes.add(new NotificacaoPendente(canal, mensagem, agora));
+        }
+        notificacaoPendenteRepository.saveAll(pendentes);
+
+        // Acorda o despachante assim que a transação for confirmada
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    despachante.acordar();
+                }
+            });
+        }
+    }
+}
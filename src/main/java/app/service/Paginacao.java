@@ -0,0 +1,71 @@
+package app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import app.dto.PaginaDTO;
+import app.exceptions.NegocioException;
+
+/**
+ * Utilitário da paginação por cursor (keyset) sobre (nome, id).
+ * O cursor é a posição do último item entregue, codificada em Base64 URL-safe,
+ * de modo que a página N custa o mesmo que a primeira (busca pelo índice, sem OFFSET).
+ */
+public final class Paginacao {
+
+    // Posição anterior a qualquer registro: nomes são obrigatórios e não vazios
+    public static final Posicao INICIO = new Posicao("", 0L);
+
+    private static final char SEPARADOR = '\u0000';
+
+    private Paginacao() {
+    }
+
+    public record Posicao(String nome, Long id) {}
+
+    public static Posicao decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) return INICIO;
+
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int i = texto.lastIndexOf(SEPARADOR);
+            return new Posicao(texto.substring(0, i), Long.parseLong(texto.substring(i + 1)));
+        } catch (RuntimeException e) {
+            throw new NegocioException("Cursor de paginação inválido.");
+        }
+    }
+
+    public static String codificar(String nome, Long id) {
+        String texto = nome + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int tamanho(Integer limite, int padrao, int maximo) {
+        if (limite == null) return padrao;
+        if (limite <= 0) {
+            throw new NegocioException("O limite da página deve ser maior que zero.");
+        }
+        return Math.min(limite, maximo);
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou (tamanho + 1) registros:
+     * o registro excedente apenas indica que existe uma próxima página.
+     */
+    public static <E, D> PaginaDTO<D> montar(List<E> registros, int tamanho, Function<E, D> mapper,
+                                            Function<E, String> nome, Function<E, Long> id) {
+        boolean haMais = registros.size() > tamanho;
+        List<E> pagina = haMais ? registros.subList(0, tamanho) : registros;
+
+        String proximo = null;
+        if (haMais) {
+            E ultimo = pagina.get(pagina.size() - 1);
+            proximo = codificar(nome.apply(ultimo), id.apply(ultimo));
+        }
+
+        List<D> itens = pagina.stream().map(mapper).toList();
+        return new PaginaDTO<>(itens, itens.size(), proximo);
+    }
+}
@@ -1,14 +1,18 @@
 package app.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SMSNotificacaoService implements NotificacaoService{
 
+	private static final Logger log = LoggerFactory.getLogger(SMSNotificacaoService.class);
+
 	@Override
 	public String mensagem(String msg) {
 		
-		System.out.println("SMS de Notificação:  "+ msg);
+		log.info("SMS de Notificação: {}", msg);
 
 		return "SMS de Notificação: " + msg;
 		
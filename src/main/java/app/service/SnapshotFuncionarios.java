@@ -0,0 +1,118 @@
+package app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.dto.FuncionarioResponseDTO;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.FuncionariosAlteradosEmLoteEvento;
+import app.evento.TipoAlteracao;
+
+/**
+ * Cópia colunar de TB_FUNCIONARIO (ColunasFuncionarios) para as consultas analíticas: carga completa
+ * na inicialização e, após o commit de cada gravação, só as linhas alteradas (a versão de cada linha
+ * descarta eventos que chegarem fora de ordem). Alterações em lote recarregam as linhas do departamento.
+ */
+@Component
+public class SnapshotFuncionarios {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotFuncionarios.class);
+
+    private static final String COLUNAS =
+            "select id, versao, salario, data_admissao, departamento_id, cargo, ativo from tb_funcionario";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int limiarParalelo;
+
+    // null até a primeira carga
+    private volatile ColunasFuncionarios colunas;
+    // Cópia sendo recarregada: recebe também as alterações confirmadas durante a varredura
+    private volatile ColunasFuncionarios emConstrucao;
+
+    public SnapshotFuncionarios(DataSource dataSource,
+                                @Value("${app.analise.limiar-paralelo:65536}") int limiarParalelo,
+                                @Value("${app.exportacao.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.limiarParalelo = limiarParalelo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        recarregar();
+    }
+
+    // Refaz a cópia a partir do banco (inicialização ou após cargas feitas fora dos serviços);
+    // as consultas continuam sobre a cópia anterior até a troca
+    public synchronized void recarregar() {
+        long inicio = System.nanoTime();
+        ColunasFuncionarios nova = new ColunasFuncionarios(limiarParalelo);
+        emConstrucao = nova;
+        jdbcTemplate.query(COLUNAS, gravarLinha(nova));
+        colunas = nova;
+        emConstrucao = null;
+        log.info("Cópia colunar carregada com {} funcionários em {} ms.",
+                nova.linhas(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public ColunasFuncionarios colunas() {
+        ColunasFuncionarios atual = colunas;
+        if (atual != null) return atual;
+        recarregar();
+        return colunas;
+    }
+
+    // ======================
+    // ATUALIZAÇÃO INCREMENTAL
+    // ======================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarFuncionario(FuncionarioAlteradoEvento evento) {
+        FuncionarioResponseDTO f = evento.funcionario();
+        for (ColunasFuncionarios c : destinos()) {
+            if (evento.tipo() == TipoAlteracao.REMOVIDO) {
+                c.remover(f.id(), f.versao());
+            } else {
+                c.gravar(f.id(), f.versao(), f.salario(), f.dataAdmissao(), f.departamento().id(),
+                        f.cargo(), Boolean.TRUE.equals(f.ativo()));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEmLote(FuncionariosAlteradosEmLoteEvento evento) {
+        for (ColunasFuncionarios c : destinos()) {
+            jdbcTemplate.query(COLUNAS + " where departamento_id = ?", gravarLinha(c), evento.departamentoId());
+        }
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private List<ColunasFuncionarios> destinos() {
+        List<ColunasFuncionarios> destinos = new ArrayList<>(2);
+        ColunasFuncionarios atual = colunas;
+        ColunasFuncionarios nova = emConstrucao;
+        if (atual != null) destinos.add(atual);
+        if (nova != null) destinos.add(nova);
+        return destinos;
+    }
+
+    private static RowCallbackHandler gravarLinha(ColunasFuncionarios destino) {
+        return rs -> destino.gravar(rs.getLong(1), rs.getLong(2), rs.getDouble(3),
+                rs.getDate(4).toLocalDate(), rs.getLong(5), rs.getString(6), rs.getBoolean(7));
+    }
+}
@@ -0,0 +1,260 @@
+package app.service;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.dto.DepartamentoResponseDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.evento.DepartamentoAlteradoEvento;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.FuncionariosAlteradosEmLoteEvento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TransactionRequiredException;
+
+/**
+ * Versões dos dados servidos pela API, usadas nos ETags dos GETs (If-None-Match responde 304 sem consultar)
+ * e no If-Match das gravações.
+ *
+ * Listagens: a versão de cada agregado fica em TB_VERSAO_DADOS, incrementada na própria transação de cada
+ * gravação de funcionário ou departamento (uma vez por transação, no fim dela). Todas as instâncias da
+ * aplicação leem a mesma linha: o ETag é igual em todas e muda com a gravação feita em qualquer uma.
+ * Cada instância guarda a versão lida por até app.versao-dados.intervalo-ms e a relê logo após as próprias
+ * gravações, depois das remoções do cache de departamentos e da atualização do índice de trigramas (feitas
+ * no afterCommit): um ETag novo nunca acompanha dados antigos na instância que gravou, e nas demais a
+ * defasagem fica limitada ao intervalo.
+ *
+ * Detalhe: o ETag vem das colunas de versão (@Version) do registro e, no funcionário, também do departamento
+ * que ele traz. Depois da primeira leitura fica guardado em memória junto das versões das listagens vistas
+ * antes dela, e só vale enquanto elas não mudarem.
+ */
+@Component
+public class VersaoDados {
+
+    static final String FUNCIONARIOS = "funcionarios";
+    static final String DEPARTAMENTOS = "departamentos";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final long intervaloNanos;
+
+    // Última leitura de TB_VERSAO_DADOS (null: reler na próxima consulta)
+    private volatile Versoes versoes;
+    // Incrementado a cada gravação local: uma leitura começada antes dela não é guardada
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    // ETags de detalhe já lidos do banco, com as versões das listagens vistas antes da leitura
+    private final Map<Long, Detalhe> porFuncionario = new ConcurrentHashMap<>();
+    private final Map<Long, Detalhe> porDepartamento = new ConcurrentHashMap<>();
+
+    public VersaoDados(DataSource dataSource, EntityManager entityManager,
+                       @Value("${app.versao-dados.intervalo-ms:1000}") long intervaloMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManager = entityManager;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+    }
+
+    // ======================
+    // GRAVAÇÕES
+    // ======================
+
+    @EventListener
+    public void aoAlterarFuncionario(FuncionarioAlteradoEvento evento) {
+        incrementar(FUNCIONARIOS);
+    }
+
+    @EventListener
+    public void aoAlterarFuncionariosEmLote(FuncionariosAlteradosEmLoteEvento evento) {
+        incrementar(FUNCIONARIOS);
+    }
+
+    @EventListener
+    public void aoAlterarDepartamento(DepartamentoAlteradoEvento evento) {
+        incrementar(DEPARTAMENTOS);
+    }
+
+    // Após a transação (confirmada ou desfeita), a próxima consulta relê as versões
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void aoConcluirFuncionario(FuncionarioAlteradoEvento evento) {
+        invalidar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void aoConcluirFuncionariosEmLote(FuncionariosAlteradosEmLoteEvento evento) {
+        invalidar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void aoConcluirDepartamento(DepartamentoAlteradoEvento evento) {
+        invalidar();
+    }
+
+    // Um UPDATE por agregado e transação, no beforeCommit: a linha fica bloqueada só durante o commit.
+    // As alterações pendentes das entidades são enviadas antes, para que toda transação bloqueie a linha
+    // de versão por último (sem espera circular com os registros gravados).
+    private void incrementar(String recurso) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            gravar(Set.of(recurso));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> recursos = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (recursos == null) {
+            Set<String> novos = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    try {
+                        entityManager.flush();
+                    } catch (TransactionRequiredException e) {
+                        // transação sem EntityManager (só JDBC): nada pendente
+                    }
+                    gravar(novos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VersaoDados.this);
+                }
+            });
+            recursos = novos;
+        }
+        recursos.add(recurso);
+    }
+
+    private void gravar(Set<String> recursos) {
+        for (String recurso : recursos) {
+            jdbcTemplate.update("update tb_versao_dados set versao = versao + 1 where recurso = ?", recurso);
+        }
+    }
+
+    private void invalidar() {
+        invalidacoes.incrementAndGet();
+        versoes = null;
+    }
+
+    // ======================
+    // ETAGS DAS LISTAGENS
+    // ======================
+
+    // Funcionários trazem os dados do departamento: a representação muda com qualquer um dos dois
+    public String funcionarios() {
+        Versoes v = atuais();
+        return "\"f-" + v.funcionarios() + "." + v.departamentos() + "\"";
+    }
+
+    public String departamentos() {
+        return "\"d-" + atuais().departamentos() + "\"";
+    }
+
+    // Chave do cache de departamentos (DepartamentoService)
+    public long versaoDepartamentos() {
+        return atuais().departamentos();
+    }
+
+    private Versoes atuais() {
+        Versoes v = versoes;
+        if (v != null && System.nanoTime() - v.lidaEm() < intervaloNanos) return v;
+        return reler();
+    }
+
+    // Fora de transação: sempre no primário (a réplica pode estar atrasada)
+    private synchronized Versoes reler() {
+        Versoes v = versoes;
+        if (v != null && System.nanoTime() - v.lidaEm() < intervaloNanos) return v;
+
+        long invalidacao = invalidacoes.get();
+        long[] lidas = new long[2];
+        jdbcTemplate.query("select recurso, versao from tb_versao_dados", rs -> {
+            if (FUNCIONARIOS.equals(rs.getString(1))) lidas[0] = rs.getLong(2);
+            else if (DEPARTAMENTOS.equals(rs.getString(1))) lidas[1] = rs.getLong(2);
+        });
+        v = new Versoes(lidas[0], lidas[1], System.nanoTime());
+        // Gravação local concluída durante a leitura: o valor serve a quem já esperava, mas não é guardado
+        if (invalidacoes.get() == invalidacao) versoes = v;
+        return v;
+    }
+
+    // ======================
+    // ETAGS DO DETALHE
+    // ======================
+
+    // ETag já conhecido e ainda válido (null: é preciso ler o registro)
+    public String funcionario(Long id) {
+        return valido(porFuncionario, id);
+    }
+
+    public String departamento(Long id) {
+        return valido(porDepartamento, id);
+    }
+
+    // Marcar antes de ler o registro: o ETag lido vale enquanto as versões marcadas forem as atuais
+    public Versoes marcar() {
+        return atuais();
+    }
+
+    public String funcionario(FuncionarioResponseDTO dto, Versoes marca) {
+        String etag = etag(dto);
+        porFuncionario.put(dto.id(), new Detalhe(etag, marca));
+        return etag;
+    }
+
+    public String departamento(DepartamentoResponseDTO dto, Versoes marca) {
+        String etag = etag(dto);
+        porDepartamento.put(dto.id(), new Detalhe(etag, marca));
+        return etag;
+    }
+
+    private String valido(Map<Long, Detalhe> etags, Long id) {
+        Detalhe detalhe = etags.get(id);
+        if (detalhe == null) return null;
+        if (detalhe.marca().mesmas(atuais())) return detalhe.etag();
+        etags.remove(id, detalhe);
+        return null;
+    }
+
+    public static String etag(FuncionarioResponseDTO f) {
+        Long versaoDepartamento = f.departamento() != null ? f.departamento().versao() : null;
+        return "\"f" + f.id() + "." + f.versao() + "." + versaoDepartamento + "\"";
+    }
+
+    public static String etag(DepartamentoResponseDTO d) {
+        return "\"d" + d.id() + "." + d.versao() + "\"";
+    }
+
+    // If-Match: ausente, "*" ou contendo o ETag atual (comparação forte: ETags fracos nunca conferem)
+    public static boolean confere(String ifMatch, String etagAtual) {
+        if (ifMatch == null || ifMatch.isBlank()) return true;
+        for (String candidato : ifMatch.split(",")) {
+            String c = candidato.trim();
+            if (c.equals("*") || c.equals(etagAtual)) return true;
+        }
+        return false;
+    }
+
+    // Versões das listagens lidas do banco, com o instante da leitura
+    public record Versoes(long funcionarios, long departamentos, long lidaEm) {
+
+        boolean mesmas(Versoes outras) {
+            return funcionarios == outras.funcionarios && departamentos == outras.departamentos;
+        }
+    }
+
+    private record Detalhe(String etag, Versoes marca) {}
+}
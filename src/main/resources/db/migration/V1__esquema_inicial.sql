@@ -0,0 +1,28 @@
+-- Esquema gerado pelo Hibernate com ddl-auto=update na versão anterior às migrações, sem alterações
+-- (inclusive os nomes das constraints). Bancos criados por ela são marcados nesta versão (baseline)
+-- e recebem a partir da V2 tudo o que veio depois.
+
+create table tb_departamento (
+    id bigint generated by default as identity,
+    ativo boolean not null,
+    nome varchar(120) not null,
+    sigla varchar(120) not null,
+    primary key (id)
+);
+
+create table tb_funcionario (
+    id bigint generated by default as identity,
+    ativo boolean not null,
+    cargo varchar(60) not null,
+    data_admissao date not null,
+    email varchar(120) not null,
+    nome varchar(120) not null,
+    salario float(53) not null,
+    departamento_id bigint not null,
+    primary key (id)
+);
+
+alter table tb_departamento add constraint UKayglrjjqocpl5sucr4d0y1910 unique (nome);
+alter table tb_funcionario add constraint UKonjc1xoei8x59dt76x2xnd3wc unique (email);
+alter table tb_funcionario add constraint FKatmyvejd2vst2t9pbfdd89cm3
+    foreign key (departamento_id) references tb_departamento;
@@ -0,0 +1,11 @@
+-- Ids de funcionário passam da coluna identity para uma sequence com alocação em blocos de 50 (pooled),
+-- que permite os inserts em lote da importação via JDBC batch.
+create sequence if not exists seq_funcionario start with 1 increment by 50;
+alter table tb_funcionario alter column id drop identity;
+
+-- Bancos que já têm funcionários: a sequence recomeça depois do maior id existente. O otimizador pooled
+-- do Hibernate usa cada valor v lido da sequence como o topo do bloco v-49..v, então o primeiro valor
+-- precisa ficar pelo menos 50 acima do maior id, arredondado para a grade da sequence (1, 51, 101...).
+alter sequence seq_funcionario restart with (
+    select 50 * (floor((coalesce(max(id), 0) + 48) / 50) + 1) + 1 from tb_funcionario
+);
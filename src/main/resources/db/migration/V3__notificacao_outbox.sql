@@ -0,0 +1,14 @@
+-- Outbox de notificações: gravadas na mesma transação da alteração e enviadas após o commit.
+create table if not exists tb_notificacao_outbox (
+    id bigint generated by default as identity,
+    canal varchar(120) not null,
+    mensagem varchar(500) not null,
+    status enum ('PENDENTE', 'FALHA') not null,
+    tentativas integer not null,
+    proxima_tentativa timestamp(6) not null,
+    criado_em timestamp(6) not null,
+    ultimo_erro varchar(500),
+    primary key (id)
+);
+
+create index if not exists idx_outbox_status_proxima on tb_notificacao_outbox (status, proxima_tentativa);
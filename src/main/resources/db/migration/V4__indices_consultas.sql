@@ -0,0 +1,21 @@
+-- Índices das consultas dos repositórios (verificados pelo PlanoConsultasTest).
+-- "if not exists": bancos vindos do ddl-auto podem já ter algum deles.
+
+-- Paginação por cursor da listagem completa (ordem nome, id)
+create index if not exists idx_funcionario_nome_id on tb_funcionario (nome, id);
+
+-- findByDepartamentoId e demais buscas por departamento; a coluna nome evita a ordenação
+create index if not exists idx_funcionario_departamento_nome on tb_funcionario (departamento_id, nome, id);
+
+-- findByAtivo / findByAtivoOrderByNomeAsc e a paginação por cursor filtrada por status
+create index if not exists idx_funcionario_ativo_nome on tb_funcionario (ativo, nome, id);
+
+-- Departamentos ativos (cache de listarAtivos) e busca por sigla
+create index if not exists idx_departamento_ativo_nome on tb_departamento (ativo, nome);
+create index if not exists idx_departamento_sigla on tb_departamento (sigla);
+
+-- Nomes legíveis para as constraints geradas pelo Hibernate; o FuncionarioService reconhece o e-mail
+-- duplicado pelo nome uk_funcionario_email
+alter table tb_funcionario rename constraint UKonjc1xoei8x59dt76x2xnd3wc to uk_funcionario_email;
+alter table tb_departamento rename constraint UKayglrjjqocpl5sucr4d0y1910 to uk_departamento_nome;
+alter table tb_funcionario rename constraint FKatmyvejd2vst2t9pbfdd89cm3 to fk_funcionario_departamento;
@@ -0,0 +1,28 @@
+-- Agregados de folha por departamento (EstatisticaDepartamentoService), mantidos por variação
+-- a cada gravação de funcionário. Salários e datas consideram apenas os funcionários ativos.
+create table tb_estatistica_departamento (
+    departamento_id bigint not null,
+    total bigint not null,
+    ativos bigint not null,
+    soma_salarios float(53) not null,
+    soma_quadrados float(53) not null,
+    menor_admissao date,
+    maior_admissao date,
+    primary key (departamento_id),
+    constraint fk_estatistica_departamento foreign key (departamento_id)
+        references tb_departamento (id) on delete cascade
+);
+
+-- Carga inicial a partir dos funcionários existentes
+insert into tb_estatistica_departamento
+    (departamento_id, total, ativos, soma_salarios, soma_quadrados, menor_admissao, maior_admissao)
+select d.id,
+       count(f.id),
+       coalesce(sum(case when f.ativo then 1 else 0 end), 0),
+       coalesce(sum(case when f.ativo then f.salario else 0 end), 0),
+       coalesce(sum(case when f.ativo then f.salario * f.salario else 0 end), 0),
+       min(case when f.ativo then f.data_admissao end),
+       max(case when f.ativo then f.data_admissao end)
+  from tb_departamento d
+  left join tb_funcionario f on f.departamento_id = d.id
+ group by d.id;
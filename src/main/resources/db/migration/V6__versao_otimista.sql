@@ -0,0 +1,4 @@
+-- Controle de concorrência otimista (@Version): cada gravação confere e incrementa a versão da linha.
+-- A versão também compõe o ETag do detalhe, conferido no If-Match das gravações.
+alter table tb_funcionario add column versao bigint default 0 not null;
+alter table tb_departamento add column versao bigint default 0 not null;
@@ -0,0 +1,5 @@
+-- Reserva do lote pelo despachante: a linha passa a ENVIANDO com o token de quem a reservou, e
+-- proxima_tentativa guarda o fim da reserva. Reserva vencida (despachante parado no meio do envio)
+-- volta a ser elegível como uma pendência.
+alter table tb_notificacao_outbox alter column status enum ('PENDENTE', 'ENVIANDO', 'FALHA') not null;
+alter table tb_notificacao_outbox add column reserva varchar(36);
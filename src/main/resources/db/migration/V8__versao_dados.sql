@@ -0,0 +1,9 @@
+-- Versões das listagens (ETags), compartilhadas entre as instâncias da aplicação: cada gravação de
+-- funcionário ou departamento incrementa a linha do agregado na própria transação.
+create table if not exists tb_versao_dados (
+    recurso varchar(20) not null,
+    versao bigint not null,
+    primary key (recurso)
+);
+
+insert into tb_versao_dados (recurso, versao) values ('funcionarios', 0), ('departamentos', 0);
@@ -0,0 +1,72 @@
+package app.carga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.carga.GeradorCarga.Operacao;
+
+/**
+ * Teste de carga HTTP: sobe a aplicação numa porta aleatória com um H2 local populado e mede
+ * latência (p50/p99/p999, histogramas HDR) e vazão por endpoint sob uma carga mista de leitura e escrita.
+ *
+ * Fora da suíte padrão: mvn -Pcarga test
+ * Parâmetros (-D): carga.concorrencia (32), carga.duracao-s (30), carga.aquecimento-s (5), carga.funcionarios (5000).
+ * Com -Dspring.threads.virtual.enabled=true as requisições são atendidas em virtual threads.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        // Toda a carga vem de um único cliente (localhost): sem limite por cliente nem anteparo de gravações
+        "app.admissao.habilitado=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.app=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN"
+})
+@ActiveProfiles("test")
+class CargaHttpTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cargaMista() throws Exception {
+        int concorrencia = Integer.getInteger("carga.concorrencia", 32);
+        int duracao = Integer.getInteger("carga.duracao-s", 30);
+        int aquecimento = Integer.getInteger("carga.aquecimento-s", 5);
+        int funcionarios = Integer.getInteger("carga.funcionarios", 5000);
+
+        GeradorCarga carga = GeradorCarga.popular(contexto, porta, funcionarios);
+        GeradorCarga.Resultado resultado = carga.executar(concorrencia, aquecimento, duracao);
+        resultado.imprimir("Carga mista (" + concorrencia + " clientes)");
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("funcionarios", funcionarios);
+        relatorio.putAll(resultado.relatorio());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File("target/carga-resultado.json"), relatorio);
+
+        for (Operacao op : Operacao.values()) {
+            assertThat(resultado.latencia(op).getTotalCount()).as("requisições em %s", op.endpoint).isPositive();
+            assertThat(resultado.erros(op)).as("erros em %s", op.endpoint).isZero();
+        }
+    }
+}
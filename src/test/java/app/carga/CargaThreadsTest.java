@@ -0,0 +1,154 @@
+package app.carga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import app.GestaoFuncionariosApplication;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Compara o atendimento em threads de plataforma (Tomcat com 200 threads) com o perfil threads-virtuais,
+ * sob a mesma carga mista com muitos clientes simultâneos. Cada modo sobe a sua própria aplicação e banco.
+ * No modo virtual, os eventos jdk.VirtualThreadPinned (virtual thread presa ao carrier por bloquear dentro
+ * de synchronized) são contados pelo JFR e agrupados pelo primeiro frame da aplicação ou do driver.
+ *
+ * Fora da suíte padrão: mvn -Pcarga test -Dcarga.teste=CargaThreadsTest
+ * Parâmetros (-D): carga.concorrencia (1000), carga.duracao-s (30), carga.aquecimento-s (10), carga.funcionarios (5000).
+ * Resultado em target/carga-threads.json.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaThreadsTest {
+
+    @Test
+    void threadsDePlataformaContraVirtuais() throws Exception {
+        int concorrencia = Integer.getInteger("carga.concorrencia", 1000);
+        int duracao = Integer.getInteger("carga.duracao-s", 30);
+        int aquecimento = Integer.getInteger("carga.aquecimento-s", 10);
+        int funcionarios = Integer.getInteger("carga.funcionarios", 5000);
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("funcionarios", funcionarios);
+
+        GeradorCarga.Resultado plataforma;
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            plataforma = medir(contexto, concorrencia, aquecimento, duracao, funcionarios);
+            plataforma.imprimir("Threads de plataforma (" + concorrencia + " clientes)");
+            relatorio.put("plataforma", modo(contexto, plataforma, null));
+        }
+
+        GeradorCarga.Resultado virtuais;
+        Map<String, LongAdder> fixacoes = new ConcurrentHashMap<>();
+        try (ConfigurableApplicationContext contexto = iniciar("threads-virtuais");
+             RecordingStream jfr = new RecordingStream()) {
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            jfr.onEvent("jdk.VirtualThreadPinned", e ->
+                    fixacoes.computeIfAbsent(origem(e.getStackTrace() == null ? null
+                            : e.getStackTrace().getFrames().stream()
+                                    .filter(CargaThreadsTest::relevante).findFirst().orElse(null)),
+                            k -> new LongAdder()).increment());
+            jfr.startAsync();
+
+            virtuais = medir(contexto, concorrencia, aquecimento, duracao, funcionarios);
+            virtuais.imprimir("Threads virtuais (" + concorrencia + " clientes)");
+            relatorio.put("virtuais", modo(contexto, virtuais, fixacoes));
+        }
+        imprimirComparacao(plataforma, virtuais, fixacoes);
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File("target/carga-threads.json"), relatorio);
+
+        assertThat(plataforma.total().getTotalCount()).isPositive();
+        assertThat(virtuais.total().getTotalCount()).isPositive();
+        assertThat(virtuais.totalErros()).as("erros com threads virtuais").isZero();
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private static ConfigurableApplicationContext iniciar(String... perfis) {
+        return new SpringApplicationBuilder(GestaoFuncionariosApplication.class)
+                .profiles("test")
+                .profiles(perfis)
+                // Como argumentos de linha de comando, para prevalecer sobre o application.properties
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        // Toda a carga vem de um único cliente: sem controle de admissão
+                        "--app.admissao.habilitado=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.app=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=WARN");
+    }
+
+    private static GeradorCarga.Resultado medir(ConfigurableApplicationContext contexto, int concorrencia,
+                                                int aquecimento, int duracao, int funcionarios) throws Exception {
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        return GeradorCarga.popular(contexto, porta, funcionarios).executar(concorrencia, aquecimento, duracao);
+    }
+
+    private static Map<String, Object> modo(ConfigurableApplicationContext contexto, GeradorCarga.Resultado r,
+                                            Map<String, LongAdder> fixacoes) {
+        Map<String, Object> modo = new LinkedHashMap<>();
+        modo.put("threadsVirtuais", contexto.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+        modo.put("poolConexoes", DataSourceUnwrapper.unwrap(contexto.getBean(DataSource.class), HikariDataSource.class)
+                .getMaximumPoolSize());
+        if (fixacoes != null) {
+            Map<String, Long> porOrigem = new LinkedHashMap<>();
+            fixacoes.forEach((origem, n) -> porOrigem.put(origem, n.sum()));
+            modo.put("fixacoesDeCarrier", porOrigem);
+        }
+        modo.putAll(r.relatorio());
+        return modo;
+    }
+
+    private static void imprimirComparacao(GeradorCarga.Resultado plataforma, GeradorCarga.Resultado virtuais,
+                                           Map<String, LongAdder> fixacoes) {
+        Histogram p = plataforma.total();
+        Histogram v = virtuais.total();
+        System.out.printf(Locale.ROOT, "%n%-12s %9s %9s %9s %9s %9s %6s%n",
+                "modo", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "erros");
+        linha("plataforma", p, plataforma);
+        linha("virtuais", v, virtuais);
+        System.out.printf("fixações de carrier (jdk.VirtualThreadPinned): %s%n",
+                fixacoes.isEmpty() ? "nenhuma" : fixacoes);
+    }
+
+    private static void linha(String modo, Histogram h, GeradorCarga.Resultado r) {
+        System.out.printf(Locale.ROOT, "%-12s %9.1f %9.2f %9.2f %9.2f %9.2f %6d%n", modo,
+                h.getTotalCount() / r.segundos, h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0, r.totalErros());
+    }
+
+    // Primeiro frame fora do JDK: aponta quem segurava o monitor (aplicação, driver, pool, Hibernate)
+    private static boolean relevante(RecordedFrame frame) {
+        String classe = frame.getMethod().getType().getName();
+        return !classe.startsWith("java.") && !classe.startsWith("jdk.") && !classe.startsWith("sun.");
+    }
+
+    private static String origem(RecordedFrame frame) {
+        if (frame == null) return "desconhecida";
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
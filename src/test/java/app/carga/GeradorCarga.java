@@ -0,0 +1,304 @@
+package app.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.entity.Departamento;
+import app.entity.Funcionario;
+import app.repository.DepartamentoRepository;
+import app.repository.FuncionarioRepository;
+import app.service.EstatisticaDepartamentoService;
+import app.service.FiltroEmails;
+import app.service.IndiceFuncionarios;
+
+/**
+ * Carga HTTP mista (leitura e escrita) contra uma aplicação em execução, com um histograma HDR por endpoint.
+ * Os clientes trabalham em malha fechada (cada um espera a resposta antes da próxima requisição) e rodam
+ * em virtual threads, para que o lado cliente não limite a concorrência.
+ */
+final class GeradorCarga {
+
+    private static final int DEPARTAMENTOS = 10;
+    private static final String[] CARGOS = {"Analista", "Desenvolvedor", "Gerente", "Assistente", "Coordenador"};
+
+    // Endpoint e peso (em %) na carga
+    enum Operacao {
+        LISTAR_FUNCIONARIOS("GET /api/funcionarios", 30),
+        BUSCAR_FUNCIONARIO("GET /api/funcionarios/{id}", 25),
+        CADASTRAR_FUNCIONARIO("POST /api/funcionarios", 15),
+        ATUALIZAR_FUNCIONARIO("PUT /api/funcionarios/{id}", 10),
+        INATIVAR_FUNCIONARIO("PATCH /api/funcionarios/{id}/inativar", 10),
+        LISTAR_DEPARTAMENTOS("GET /api/departamentos", 5),
+        BUSCAR_DEPARTAMENTO("GET /api/departamentos/{id}", 5);
+
+        final String endpoint;
+        final int peso;
+
+        Operacao(String endpoint, int peso) {
+            this.endpoint = endpoint;
+            this.peso = peso;
+        }
+    }
+
+    // Latências em microssegundos, até 1 minuto, com 3 dígitos significativos
+    private final Map<Operacao, Histogram> latencias = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final String base;
+    private final ObjectMapper objectMapper;
+    private final HttpClient http;
+    private final List<Long> funcionarioIds;
+    private final List<Long> departamentoIds;
+
+    private GeradorCarga(int porta, ObjectMapper objectMapper, List<Long> funcionarioIds, List<Long> departamentoIds) {
+        this.base = "http://localhost:" + porta;
+        this.objectMapper = objectMapper;
+        this.funcionarioIds = funcionarioIds;
+        this.departamentoIds = departamentoIds;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Operacao op : Operacao.values()) {
+            latencias.put(op, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            erros.put(op, new LongAdder());
+        }
+    }
+
+    // Popula o banco da aplicação pelos repositórios e devolve o gerador apontado para a porta dela
+    static GeradorCarga popular(ApplicationContext contexto, int porta, int quantidade) {
+        FuncionarioRepository funcionarioRepository = contexto.getBean(FuncionarioRepository.class);
+        DepartamentoRepository departamentoRepository = contexto.getBean(DepartamentoRepository.class);
+        funcionarioRepository.deleteAll();
+        departamentoRepository.deleteAll();
+
+        List<Departamento> deps = new ArrayList<>();
+        for (int d = 0; d < DEPARTAMENTOS; d++) {
+            deps.add(departamentoRepository.save(new Departamento("Departamento " + d, "D" + d, true)));
+        }
+        List<Funcionario> lista = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            lista.add(new Funcionario("Funcionario " + i, "func" + i + "@empresa.com",
+                    CARGOS[i % CARGOS.length], 3000.0 + i % 1000,
+                    LocalDate.of(2015, 1, 1).plusDays(i % 3000), true, deps.get(i % DEPARTAMENTOS)));
+        }
+        List<Long> funcionarioIds = funcionarioRepository.saveAll(lista).stream().map(Funcionario::getId).toList();
+        List<Long> departamentoIds = deps.stream().map(Departamento::getId).toList();
+
+        // Carga direta pelo repositório: índice de trigramas, filtro de e-mails e estatísticas são refeitos
+        contexto.getBean(IndiceFuncionarios.class).recarregar();
+        contexto.getBean(FiltroEmails.class).recarregar();
+        contexto.getBean(EstatisticaDepartamentoService.class).recalcularTodos();
+
+        return new GeradorCarga(porta, contexto.getBean(ObjectMapper.class), funcionarioIds, departamentoIds);
+    }
+
+    // Aquecimento (descartado) seguido da medição
+    Resultado executar(int concorrencia, int aquecimentoSegundos, int duracaoSegundos) throws Exception {
+        rodar(concorrencia, aquecimentoSegundos);
+        latencias.values().forEach(Histogram::reset);
+        erros.values().forEach(LongAdder::reset);
+
+        long inicio = System.nanoTime();
+        rodar(concorrencia, duracaoSegundos);
+        return new Resultado(concorrencia, (System.nanoTime() - inicio) / 1e9);
+    }
+
+    // ======================
+    // CARGA
+    // ======================
+
+    private void rodar(int concorrencia, int segundos) throws Exception {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int i = 0; i < concorrencia; i++) {
+                futuros.add(clientes.submit(() -> cliente(fim)));
+            }
+            for (Future<?> f : futuros) f.get();
+        }
+    }
+
+    // Um cliente: escolhe a operação pelo peso; edita e inativa apenas os funcionários que ele cadastrou
+    private Void cliente(long fim) throws InterruptedException {
+        List<Long> criados = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < fim) {
+            Operacao op = sortear(random.nextInt(100));
+            if ((op == Operacao.ATUALIZAR_FUNCIONARIO || op == Operacao.INATIVAR_FUNCIONARIO) && criados.isEmpty()) {
+                op = Operacao.CADASTRAR_FUNCIONARIO;
+            }
+
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<String> resposta = http.send(requisicao(op, criados, random), HttpResponse.BodyHandlers.ofString());
+                Histogram h = latencias.get(op);
+                h.recordValue(Math.min((System.nanoTime() - inicio) / 1000, h.getHighestTrackableValue()));
+
+                if (resposta.statusCode() / 100 != 2) {
+                    erros.get(op).increment();
+                } else if (op == Operacao.CADASTRAR_FUNCIONARIO) {
+                    criados.add(objectMapper.readTree(resposta.body()).get("id").asLong());
+                }
+            } catch (IOException e) {
+                erros.get(op).increment();
+            }
+        }
+        return null;
+    }
+
+    private HttpRequest requisicao(Operacao op, List<Long> criados, ThreadLocalRandom random) throws IOException {
+        return switch (op) {
+            case LISTAR_FUNCIONARIOS -> get(random.nextBoolean()
+                    ? "/api/funcionarios?limite=50"
+                    : "/api/funcionarios?limite=50&cargo=" + CARGOS[random.nextInt(CARGOS.length)]);
+            case BUSCAR_FUNCIONARIO -> get("/api/funcionarios/" + funcionarioIds.get(random.nextInt(funcionarioIds.size())));
+            case CADASTRAR_FUNCIONARIO -> enviar("POST", "/api/funcionarios", corpo());
+            case ATUALIZAR_FUNCIONARIO -> enviar("PUT", "/api/funcionarios/" + criados.get(random.nextInt(criados.size())), corpo());
+            case INATIVAR_FUNCIONARIO -> enviar("PATCH",
+                    "/api/funcionarios/" + criados.remove(criados.size() - 1) + "/inativar", "");
+            case LISTAR_DEPARTAMENTOS -> get("/api/departamentos");
+            case BUSCAR_DEPARTAMENTO -> get("/api/departamentos/" + departamentoIds.get(random.nextInt(departamentoIds.size())));
+        };
+    }
+
+    private static Operacao sortear(int sorteio) {
+        int acumulado = 0;
+        for (Operacao op : Operacao.values()) {
+            acumulado += op.peso;
+            if (sorteio < acumulado) return op;
+        }
+        return Operacao.LISTAR_FUNCIONARIOS;
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private String corpo() throws IOException {
+        long n = sequencia.incrementAndGet();
+        Map<String, Object> dto = new LinkedHashMap<>();
+        dto.put("nome", "Carga " + n);
+        dto.put("email", "carga" + n + "@empresa.com");
+        dto.put("cargo", "Analista");
+        dto.put("salario", 5000.0);
+        dto.put("dataAdmissao", "02/05/2024");
+        dto.put("departamentoId", departamentoIds.get((int) (n % departamentoIds.size())));
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(base + caminho)).timeout(Duration.ofMinutes(1)).GET().build();
+    }
+
+    private HttpRequest enviar(String metodo, String caminho, String corpo) {
+        return HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(Duration.ofMinutes(1))
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    // Resultado da medição: histogramas por endpoint e o agregado de todas as requisições
+    final class Resultado {
+
+        final int concorrencia;
+        final double segundos;
+
+        private Resultado(int concorrencia, double segundos) {
+            this.concorrencia = concorrencia;
+            this.segundos = segundos;
+        }
+
+        Histogram latencia(Operacao op) {
+            return latencias.get(op);
+        }
+
+        long erros(Operacao op) {
+            return erros.get(op).sum();
+        }
+
+        Histogram total() {
+            Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+            latencias.values().forEach(total::add);
+            return total;
+        }
+
+        long totalErros() {
+            return erros.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        Map<String, Object> relatorio() {
+            Map<String, Object> relatorio = new LinkedHashMap<>();
+            relatorio.put("concorrencia", concorrencia);
+            relatorio.put("duracaoSegundos", segundos);
+            relatorio.putAll(linha("total", total(), totalErros()));
+
+            List<Map<String, Object>> endpoints = new ArrayList<>();
+            for (Operacao op : Operacao.values()) {
+                endpoints.add(linha(op.endpoint, latencia(op), erros(op)));
+            }
+            relatorio.put("endpoints", endpoints);
+            return relatorio;
+        }
+
+        void imprimir(String titulo) {
+            System.out.printf(Locale.ROOT, "%n%s%n%-40s %9s %9s %9s %9s %9s %9s %6s%n", titulo,
+                    "endpoint", "reqs", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "erros");
+            for (Operacao op : Operacao.values()) {
+                imprimir(op.endpoint, latencia(op), erros(op));
+            }
+            imprimir("total", total(), totalErros());
+        }
+
+        private void imprimir(String nome, Histogram h, long erros) {
+            System.out.printf(Locale.ROOT, "%-40s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %6d%n",
+                    nome, h.getTotalCount(), h.getTotalCount() / segundos,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), erros);
+        }
+
+        private Map<String, Object> linha(String nome, Histogram h, long erros) {
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("endpoint", nome);
+            e.put("requisicoes", h.getTotalCount());
+            e.put("requisicoesPorSegundo", h.getTotalCount() / segundos);
+            e.put("p50Ms", ms(h.getValueAtPercentile(50)));
+            e.put("p99Ms", ms(h.getValueAtPercentile(99)));
+            e.put("p999Ms", ms(h.getValueAtPercentile(99.9)));
+            e.put("maxMs", ms(h.getMaxValue()));
+            e.put("erros", erros);
+            return e;
+        }
+
+        private static double ms(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package app.carga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tempo até a primeira requisição bem-sucedida: do início do processo da JVM até o primeiro 200 em
+ * GET /api/departamentos/ativos (passa pelo MVC, cache, JPA e banco). Cada modo sobe o jar extraído
+ * em processos novos, com banco em memória vazio:
+ *  - padrao: configuração padrão (validação do Hibernate, springdoc, console do H2);
+ *  - perfil: perfil inicio-rapido, sem AOT e sem CDS;
+ *  - aot-cds: perfil inicio-rapido com o contexto processado por AOT e o arquivo AppCDS do treino.
+ *
+ * Requer o empacotamento com o perfil Maven: mvn -Pinicio-rapido -DskipTests package
+ * Fora da suíte padrão: mvn -Pcarga test -Dcarga.teste=TempoInicioTest
+ * Parâmetros (-D): carga.inicios (5 por modo), carga.inicio-timeout-s (180).
+ * Resultado em target/inicio-resultado.json; saída de cada processo em target/inicio-rapido/logs.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class TempoInicioTest {
+
+    private static final File DIRETORIO = new File("target/inicio-rapido");
+    private static final String CAMINHO = "/api/departamentos/ativos";
+
+    @Test
+    void tempoAtePrimeiraRequisicao() throws Exception {
+        int inicios = Integer.getInteger("carga.inicios", 5);
+        Duration limite = Duration.ofSeconds(Integer.getInteger("carga.inicio-timeout-s", 180));
+
+        File jar = jarExtraido();
+        File cds = new File(DIRETORIO, "aplicacao.jsa");
+        assumeTrue(jar != null && cds.isFile(), "Rode antes: mvn -Pinicio-rapido -DskipTests package");
+
+        Map<String, List<String>> modos = new LinkedHashMap<>();
+        modos.put("padrao", List.of());
+        modos.put("perfil", List.of());
+        modos.put("aot-cds", List.of("-XX:SharedArchiveFile=" + cds.getPath(), "-Dspring.aot.enabled=true"));
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("inicios", inicios);
+        relatorio.put("processadores", Runtime.getRuntime().availableProcessors());
+        Map<String, long[]> tempos = new LinkedHashMap<>();
+
+        File logs = new File(DIRETORIO, "logs");
+        logs.mkdirs();
+        // Alterna os modos a cada rodada, para que variações da máquina não pesem só sobre um deles
+        for (String modo : modos.keySet()) tempos.put(modo, new long[inicios]);
+        for (int i = 0; i < inicios; i++) {
+            for (Map.Entry<String, List<String>> modo : modos.entrySet()) {
+                boolean perfil = !modo.getKey().equals("padrao");
+                File log = new File(logs, modo.getKey() + "-" + i + ".log");
+                tempos.get(modo.getKey())[i] = medir(jar, modo.getValue(), perfil, log, limite);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-10s %10s %10s %10s%n", "modo", "min ms", "mediana ms", "max ms");
+        for (Map.Entry<String, long[]> t : tempos.entrySet()) {
+            long[] ms = t.getValue().clone();
+            Arrays.sort(ms);
+            System.out.printf(Locale.ROOT, "%-10s %10d %10d %10d%n", t.getKey(), ms[0], mediana(ms), ms[ms.length - 1]);
+
+            Map<String, Object> modo = new LinkedHashMap<>();
+            modo.put("argumentosJvm", modos.get(t.getKey()));
+            modo.put("perfil", t.getKey().equals("padrao") ? "default" : "inicio-rapido");
+            modo.put("temposMs", t.getValue());
+            modo.put("minimoMs", ms[0]);
+            modo.put("medianaMs", mediana(ms));
+            modo.put("maximoMs", ms[ms.length - 1]);
+            relatorio.put(t.getKey(), modo);
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File("target/inicio-resultado.json"), relatorio);
+
+        for (long[] ms : tempos.values()) assertThat(ms).doesNotContain(0L);
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // Sobe o jar num processo novo e devolve os ms até o primeiro 200
+    private static long medir(File jar, List<String> argumentosJvm, boolean perfil, File log, Duration limite)
+            throws Exception {
+        int porta = portaLivre();
+        List<String> comando = new ArrayList<>();
+        comando.add(ProcessHandle.current().info().command().orElse("java"));
+        comando.addAll(argumentosJvm);
+        comando.add("-jar");
+        comando.add(jar.getPath());
+        comando.add("--server.port=" + porta);
+        comando.add("--spring.datasource.url=jdbc:h2:mem:inicio");
+        if (perfil) {
+            comando.add("--spring.profiles.active=inicio-rapido");
+        } else {
+            // Mesmo nível de log nos dois modos: o que se mede é a inicialização, não a escrita do log
+            comando.add("--spring.jpa.show-sql=false");
+            comando.add("--logging.level.org.hibernate.SQL=WARN");
+            comando.add("--logging.level.org.hibernate.orm.jdbc.bind=WARN");
+        }
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + CAMINHO))
+                .timeout(limite).GET().build();
+
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(comando).redirectErrorStream(true)
+                .redirectOutput(log).start();
+        try {
+            while (System.nanoTime() - inicio < limite.toNanos()) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException("Aplicação terminou na inicialização; ver " + log);
+                }
+                try {
+                    if (http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - inicio) / 1_000_000;
+                    }
+                } catch (IOException recusada) {
+                    // Tomcat ainda não aceita conexões
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Sem resposta 200 em " + limite + "; ver " + log);
+        } finally {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) processo.destroyForcibly().waitFor();
+        }
+    }
+
+    private static File jarExtraido() {
+        File[] jars = DIRETORIO.listFiles((d, nome) -> nome.endsWith(".jar"));
+        return jars != null && jars.length == 1 ? jars[0] : null;
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long mediana(long[] ordenados) {
+        return ordenados[ordenados.length / 2];
+    }
+}
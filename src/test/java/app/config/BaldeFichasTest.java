@@ -0,0 +1,59 @@
+package app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BaldeFichasTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    @Test
+    void aceitaARajadaERepoeNaTaxaConfigurada() {
+        BaldeFichas balde = new BaldeFichas(3, 2.0, 0);
+
+        assertThat(balde.consumir(0)).isZero();
+        assertThat(balde.consumir(0)).isZero();
+        assertThat(balde.consumir(0)).isZero();
+        // Balde vazio: a próxima ficha chega em meio segundo
+        assertThat(balde.consumir(0)).isEqualTo(SEGUNDO / 2);
+
+        assertThat(balde.consumir(SEGUNDO / 2)).isZero();
+        assertThat(balde.consumir(SEGUNDO / 2)).isPositive();
+        // Parado por bastante tempo, volta a ter só a capacidade, sem acumular além dela
+        long depois = 60 * SEGUNDO;
+        for (int i = 0; i < 3; i++) assertThat(balde.consumir(depois)).isZero();
+        assertThat(balde.consumir(depois)).isPositive();
+    }
+
+    @Test
+    void threadsConcorrentesNaoConsomemMaisQueACapacidade() throws InterruptedException {
+        BaldeFichas balde = new BaldeFichas(1000, 1.0, 0);
+        AtomicInteger aceitas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // Mesmo instante para todas: só a rajada inicial pode ser aceita
+                for (int i = 0; i < 500; i++) {
+                    if (balde.consumir(0) == 0) aceitas.incrementAndGet();
+                }
+            }));
+        }
+        largada.countDown();
+        for (Thread t : threads) t.join();
+
+        assertThat(aceitas.get()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,159 @@
+package app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import app.exceptions.RequisicaoRecusadaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ControleAdmissaoAspectTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Rota com duas fichas e reposição de uma a cada 1000 s; uma única vaga de gravação
+    private final ControleAdmissaoAspect aspecto = new ControleAdmissaoAspect(
+            new MockEnvironment()
+                    .withProperty("app.admissao.rotas.teste.cadastro.capacidade", "2")
+                    .withProperty("app.admissao.rotas.teste.cadastro.por-segundo", "0.001"),
+            meterRegistry, true, 50, 25, 1, 1, 1000, List.of("cliente-a", " cliente-b "));
+
+    @AfterEach
+    void limparRequisicao() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void clienteAlemDaCapacidadeRecebe429SemAfetarOsOutros() throws Throwable {
+        ProceedingJoinPoint cadastro = chamada("cadastrar");
+
+        admitir(aspecto, "cliente-a", cadastro);
+        admitir(aspecto, "cliente-a", cadastro);
+        assertThatThrownBy(() -> admitir(aspecto, "cliente-a", cadastro))
+                .isInstanceOfSatisfying(RequisicaoRecusadaException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfterSegundos()).isEqualTo(1000);
+                });
+
+        admitir(aspecto, "cliente-b", cadastro);
+
+        assertThat(contagem("teste.cadastro", "limitada")).isEqualTo(1.0);
+        assertThat(contagem("teste.cadastro", "aceita")).isEqualTo(3.0);
+    }
+
+    @Test
+    void chaveDesconhecidaContaPeloIpETrocaLaNaoRenovaOLimite() throws Throwable {
+        ProceedingJoinPoint cadastro = chamada("cadastrar");
+
+        // Mesmo IP, cada requisição com uma chave inventada
+        admitir(aspecto, "inventada-1", cadastro);
+        admitir(aspecto, "inventada-2", cadastro);
+        assertThatThrownBy(() -> admitir(aspecto, "inventada-3", cadastro))
+                .isInstanceOf(RequisicaoRecusadaException.class);
+
+        // A chave configurada tem o próprio balde
+        admitir(aspecto, "cliente-a", cadastro);
+    }
+
+    @Test
+    void gravacaoSemVagaRecebe503SemEsperar() throws Throwable {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ProceedingJoinPoint presa = chamada("gravar");
+        when(presa.proceed()).then(invocacao -> {
+            dentro.countDown();
+            return liberar.await(10, TimeUnit.SECONDS);
+        });
+
+        CompletableFuture<Object> emAndamento = CompletableFuture.supplyAsync(() -> {
+            try {
+                return aspecto.admitir(presa);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(dentro.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ProceedingJoinPoint gravacao = chamada("gravar");
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> admitir(aspecto, null, gravacao))
+                .isInstanceOfSatisfying(RequisicaoRecusadaException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getRetryAfterSegundos()).isEqualTo(1);
+                });
+        assertThat(System.nanoTime() - inicio).isLessThan(TimeUnit.SECONDS.toNanos(2));
+        // Leituras não ocupam vaga
+        admitir(aspecto, null, chamada("listar"));
+
+        liberar.countDown();
+        assertThat(emAndamento.get(10, TimeUnit.SECONDS)).isEqualTo(true);
+        // Com a vaga devolvida, a gravação seguinte passa
+        admitir(aspecto, null, gravacao);
+        assertThat(contagem("teste.gravacao", "sobrecarga")).isEqualTo(1.0);
+    }
+
+    @Test
+    void desabilitadoNaoLimita() throws Throwable {
+        ControleAdmissaoAspect desabilitado = new ControleAdmissaoAspect(new MockEnvironment(),
+                new SimpleMeterRegistry(), false, 1, 0.001, 1, 1, 1000, List.of());
+        ProceedingJoinPoint listagem = chamada("listar");
+
+        for (int i = 0; i < 5; i++) admitir(desabilitado, null, listagem);
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    // Endpoints de mentira: o aspecto só lê a anotação do método
+    static class Rotas {
+
+        @LimitarRequisicoes("teste.cadastro")
+        void cadastrar() {}
+
+        @LimitarRequisicoes("teste.listagem")
+        void listar() {}
+
+        @LimitarRequisicoes(value = "teste.gravacao", escrita = true)
+        void gravar() {}
+    }
+
+    private static ProceedingJoinPoint chamada(String metodo) throws Throwable {
+        MethodSignature assinatura = mock(MethodSignature.class);
+        when(assinatura.getMethod()).thenReturn(Rotas.class.getDeclaredMethod(metodo));
+        ProceedingJoinPoint pjp = mock(ProceedingJoinPoint.class);
+        when(pjp.getSignature()).thenReturn(assinatura);
+        when(pjp.proceed()).thenReturn("ok");
+        return pjp;
+    }
+
+    private static void admitir(ControleAdmissaoAspect aspecto, String chave, ProceedingJoinPoint pjp) throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        if (chave != null) request.addHeader(ControleAdmissaoAspect.CABECALHO_CHAVE, chave);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(aspecto.admitir(pjp)).isNotNull();
+    }
+
+    private double contagem(String rota, String resultado) {
+        return meterRegistry.get("admissao.requisicoes").tags("rota", rota, "resultado", resultado).counter().count();
+    }
+}
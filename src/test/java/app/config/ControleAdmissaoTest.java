@@ -0,0 +1,54 @@
+package app.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import app.service.DespachanteNotificacoes;
+
+/**
+ * Integração do controle de admissão com a camada web: a recusa do aspecto vira 429 com Retry-After.
+ * Os limites por cliente e o anteparo de gravações são cobertos em ControleAdmissaoAspectTest.
+ * Mesma configuração do FuncionarioControllerTest, para reaproveitar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ControleAdmissaoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    @Test
+    void importacaoAlemDaCapacidadeRecebe429ComRetryAfter() throws Exception {
+        // Rota funcionarios.importacao: duas fichas, uma a cada 5 s. Usuário próprio, para não consumir
+        // as fichas do IP usado pelos outros testes do mesmo contexto. O lote vazio passa pelo aspecto
+        // (gasta a ficha) e é recusado pela validação da importação
+        importar().andExpect(status().isBadRequest());
+        importar().andExpect(status().isBadRequest());
+        importar()
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    private ResultActions importar() throws Exception {
+        return mockMvc.perform(post("/api/funcionarios/importacao")
+                .principal(() -> "admissao-teste")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+    }
+}
@@ -0,0 +1,85 @@
+package app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hamcrest.Matchers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.service.DepartamentoService;
+import app.service.FuncionarioService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Test
+    void endpointPrometheusExpoeServicosHttpHibernateEPool() throws Exception {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Métricas", "MET", true)).id();
+        funcionarioService.findByDepartamento(id);
+        mockMvc.perform(get("/api/departamentos/" + id)).andExpect(status().isOk());
+
+        String corpo = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(corpo)
+                .contains("servicos_funcionario_seconds_count{", "method=\"findByDepartamento\"")
+                .contains("servicos_departamento_seconds_bucket{")
+                .contains("http_server_requests_seconds_bucket{", "uri=\"/api/departamentos/{id}\"")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("hibernate_statements_total{", "hibernate_entities_loads_total{",
+                        "hibernate_cache_query_requests_total{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{", "hikaricp_connections_usage_seconds_count{",
+                        "hikaricp_connections_pending{");
+    }
+
+    @Test
+    void estatisticasSqlPorRequisicaoNoServerTimingENasMetricas() throws Exception {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Server-Timing", "STM", true)).id();
+        for (int i = 0; i < 3; i++) {
+            funcionarioService.save(new FuncionarioRequestDTO("Funcionário " + i, "timing" + i + "@empresa.com",
+                    "Analista", 3000.0, LocalDate.of(2020, 1, 1), true, id));
+        }
+
+        // Ao menos a consulta da listagem, com as 3 linhas lidas
+        mockMvc.perform(get("/api/funcionarios/departamento/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", Matchers.matchesPattern(
+                        "db;dur=\\d+\\.\\d{2};desc=\"[1-9]\\d* comandos, ([3-9]|\\d{2,}) linhas\", app;dur=\\d+\\.\\d{2}")));
+
+        String corpo = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(corpo)
+                .contains("sql_requisicao_comandos_count{", "uri=\"/api/funcionarios/departamento/{id}\"")
+                .contains("sql_requisicao_linhas_sum{", "sql_requisicao_tempo_seconds_bucket{")
+                .contains("sql_comandos_seconds_count{", "tipo=\"select\"", "tipo=\"insert\"")
+                .contains("sql_linhas_total{", "sql_lentos_total{");
+    }
+}
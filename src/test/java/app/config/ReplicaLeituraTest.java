@@ -0,0 +1,87 @@
+package app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.DepartamentoResponseDTO;
+import app.service.DepartamentoService;
+import app.service.DespachanteNotificacoes;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primário e réplica em dois H2 em memória, sem replicação entre eles: o que a leitura enxerga mostra
+ * para onde ela foi. A "replicação" é feita à mão, com inserts diretos na réplica.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.roteamento.atraso-maximo-ms=300",
+        "app.datasource.roteamento.pausa-replica-ms=60000"})
+@ActiveProfiles("test")
+class ReplicaLeituraTest {
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    // Sem transações de gravação em segundo plano abrindo a janela de atraso
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    private JdbcTemplate jdbcReplica;
+
+    @BeforeEach
+    void migrarReplica() {
+        // Conexão própria: o pool da réplica entrega conexões somente leitura
+        DriverManagerDataSource ds = new DriverManagerDataSource(replica.getJdbcUrl(), "sa", "");
+        Flyway.configure().dataSource(ds).load().migrate();
+        jdbcReplica = new JdbcTemplate(ds);
+    }
+
+    @Test
+    void leiturasVaoParaAReplicaDepoisDaJanelaDeAtraso() throws InterruptedException {
+        DepartamentoResponseDTO d = departamentoService.salvar(new DepartamentoRequestDTO("Logística", "LOG", true));
+
+        // Logo após a gravação a leitura fica no primário
+        assertThat(departamentoService.listarTodos()).extracting(DepartamentoResponseDTO::id).contains(d.id());
+
+        Thread.sleep(400);
+        assertThat(departamentoService.listarTodos()).extracting(DepartamentoResponseDTO::id).doesNotContain(d.id());
+
+        jdbcReplica.update("insert into tb_departamento (id, nome, sigla, ativo) values (?, ?, ?, true)",
+                d.id(), d.nome(), d.sigla());
+        assertThat(departamentoService.listarTodos()).extracting(DepartamentoResponseDTO::id).containsExactly(d.id());
+
+        // Gravações sempre no primário, mesmo fora da janela
+        departamentoService.atualizar(d.id(), new DepartamentoRequestDTO("Logística Reversa", "LOG", true), null);
+        assertThat(departamentoService.listarTodos()).extracting(DepartamentoResponseDTO::nome)
+                .containsExactly("Logística Reversa");
+    }
+
+    @Test
+    @DirtiesContext
+    void replicaIndisponivelCaiNoPrimario() throws InterruptedException {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Compras", "COM", true)).id();
+        Thread.sleep(400);
+
+        replica.close();
+
+        assertThat(departamentoService.listarTodos()).extracting(DepartamentoResponseDTO::id).contains(id);
+    }
+}
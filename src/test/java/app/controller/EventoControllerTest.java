@@ -0,0 +1,128 @@
+package app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.DepartamentoResponseDTO;
+import app.service.DepartamentoService;
+import app.service.FeedAlteracoes;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class EventoControllerTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Test
+    void enviaAsAlteracoesAposOCommitERetomaPeloLastEventId() throws Exception {
+        Map<String, String> criado;
+        Map<String, String> inativado;
+        try (Assinatura assinatura = assinar(null)) {
+            DepartamentoResponseDTO dto = departamentoService.salvar(new DepartamentoRequestDTO("Eventos", "EVT", true));
+            departamentoService.inativar(dto.id(), null);
+
+            criado = assinatura.proximo();
+            inativado = assinatura.proximo();
+            assertThat(criado.get("event")).isEqualTo("departamento");
+            JsonNode dados = objectMapper.readTree(criado.get("data"));
+            assertThat(dados.get("tipo").asText()).isEqualTo("CRIADO");
+            assertThat(dados.get("id").asLong()).isEqualTo(dto.id());
+            assertThat(dados.get("dados").get("sigla").asText()).isEqualTo("EVT");
+
+            JsonNode dadosInativado = objectMapper.readTree(inativado.get("data"));
+            assertThat(dadosInativado.get("tipo").asText()).isEqualTo("INATIVADO");
+            assertThat(dadosInativado.get("sequencia").asLong()).isGreaterThan(dados.get("sequencia").asLong());
+        }
+
+        // Reconectando com o id do primeiro evento, recebe de novo o que veio depois dele
+        try (Assinatura retomada = assinar(criado.get("id"))) {
+            assertThat(retomada.proximo().get("id")).isEqualTo(inativado.get("id"));
+        }
+
+        // Id de antes de um reinício: não há como saber o que foi perdido
+        try (Assinatura antiga = assinar("0-42")) {
+            assertThat(antiga.proximo().get("event")).isEqualTo(FeedAlteracoes.RESINCRONIZAR);
+        }
+    }
+
+    // ======================
+    // CLIENTE SSE
+    // ======================
+
+    private Assinatura assinar(String ultimoId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/eventos"))
+                .header("Accept", "text/event-stream");
+        if (ultimoId != null) request.header(EventoController.LAST_EVENT_ID, ultimoId);
+        HttpResponse<Stream<String>> resposta = cliente.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(resposta.statusCode()).isEqualTo(200);
+        return new Assinatura(resposta.body());
+    }
+
+    // Lê os eventos (campos até a linha em branco) numa thread separada; comentários são ignorados
+    private static final class Assinatura implements AutoCloseable {
+
+        private final Stream<String> linhas;
+        private final BlockingQueue<Map<String, String>> eventos = new LinkedBlockingQueue<>();
+
+        Assinatura(Stream<String> linhas) {
+            this.linhas = linhas;
+            Thread.ofVirtual().start(() -> {
+                Map<String, String> evento = new HashMap<>();
+                try {
+                    for (String linha : (Iterable<String>) linhas::iterator) {
+                        if (linha.isEmpty()) {
+                            if (!evento.isEmpty()) eventos.add(evento);
+                            evento = new HashMap<>();
+                        } else if (!linha.startsWith(":")) {
+                            int separador = linha.indexOf(':');
+                            evento.merge(linha.substring(0, separador), linha.substring(separador + 1), String::concat);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // conexão fechada pelo teste
+                }
+            });
+        }
+
+        Map<String, String> proximo() throws InterruptedException {
+            Map<String, String> evento = eventos.poll(10, TimeUnit.SECONDS);
+            assertThat(evento).as("evento recebido").isNotNull();
+            return evento;
+        }
+
+        @Override
+        public void close() {
+            linhas.close();
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.entity.Departamento;
+import app.entity.Funcionario;
+import app.repository.DepartamentoRepository;
+import app.repository.FuncionarioRepository;
+import app.service.DespachanteNotificacoes;
+import app.service.EstatisticaDepartamentoService;
+import app.service.ExportacaoService;
+import app.service.FiltroEmails;
+import app.service.FormatoExportacao;
+import app.service.IndiceFuncionarios;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FuncionarioControllerTest {
+
+    // Cada listagem deve custar um número fixo de comandos SQL,
+    // independente da quantidade de funcionários retornados.
+    private static final int FUNCIONARIOS_POR_DEPARTAMENTO = 20;
+    private static final int FUNCIONARIOS_EXPORTACAO = 50_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IndiceFuncionarios indiceFuncionarios;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FiltroEmails filtroEmails;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    // Sem envio das notificações: o despachante consultaria o banco em paralelo às contagens de comandos
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    @Autowired
+    private EstatisticaDepartamentoService estatisticaDepartamentoService;
+
+    private Long departamentoId;
+
+    @BeforeEach
+    void popularBanco() {
+        funcionarioRepository.deleteAll();
+        departamentoRepository.deleteAll();
+
+        for (int d = 0; d < 3; d++) {
+            Departamento dep = departamentoRepository.save(new Departamento("Departamento " + d, "D" + d, true));
+            departamentoId = dep.getId();
+
+            for (int i = 0; i < FUNCIONARIOS_POR_DEPARTAMENTO; i++) {
+                funcionarioRepository.save(new Funcionario(
+                        "Funcionario " + d + "-" + i,
+                        "func" + d + "-" + i + "@empresa.com",
+                        (i % 2 == 0 ? "Desenvolvedor" : "Analista"),
+                        3000.0 + i,
+                        LocalDate.of(2020, 1, 1),
+                        (i % 3 != 0),
+                        dep));
+            }
+        }
+        // A carga acima não passa pelo serviço, então o índice de trigramas, o filtro de e-mails
+        // e as estatísticas são refeitos
+        indiceFuncionarios.recarregar();
+        filtroEmails.recarregar();
+        estatisticaDepartamentoService.recalcularTodos();
+    }
+
+    @Test
+    void listarTodosExecutaUmaUnicaConsulta() throws Exception {
+        assertComandosSql("/api/funcionarios", 1);
+    }
+
+    @Test
+    void listarTodosSemPaginacaoExecutaUmaUnicaConsulta() throws Exception {
+        assertComandosSql("/api/funcionarios?todos=true", 1);
+        assertComandosSql("/api/funcionarios?todos=true&cargo=desenv&ativo=true", 1);
+    }
+
+    @Test
+    void paginaSeguinteExecutaUmaUnicaConsulta() throws Exception {
+        String proximo = lerJson("/api/funcionarios?limite=10").get("proximo").asText();
+        assertComandosSql("/api/funcionarios?limite=10&cursor=" + proximo, 1);
+    }
+
+    @Test
+    void paginacaoPercorreTodosOsFuncionariosEmOrdem() throws Exception {
+        List<String> nomes = new ArrayList<>();
+        HashSet<Long> ids = new HashSet<>();
+        String cursor = "";
+
+        do {
+            JsonNode pagina = lerJson("/api/funcionarios?limite=7&cursor=" + cursor);
+            assertThat(pagina.get("tamanho").asInt()).isLessThanOrEqualTo(7);
+            for (JsonNode item : pagina.get("itens")) {
+                nomes.add(item.get("nome").asText());
+                ids.add(item.get("id").asLong());
+            }
+            cursor = pagina.get("proximo").isNull() ? null : pagina.get("proximo").asText();
+        } while (cursor != null);
+
+        assertThat(ids).hasSize(3 * FUNCIONARIOS_POR_DEPARTAMENTO);
+        assertThat(nomes).isSorted();
+    }
+
+    @Test
+    void listarPorCargoExecutaUmaUnicaConsulta() throws Exception {
+        assertComandosSql("/api/funcionarios?cargo=desenv", 1);
+    }
+
+    @Test
+    void listarPorStatusExecutaUmaUnicaConsulta() throws Exception {
+        assertComandosSql("/api/funcionarios?ativo=true", 1);
+    }
+
+    @Test
+    void listarPorCargoEStatusExecutaUmaUnicaConsulta() throws Exception {
+        assertComandosSql("/api/funcionarios?cargo=analista&ativo=false", 1);
+    }
+
+    @Test
+    void filtrosPorTrechoDeNomeEEmail() throws Exception {
+        JsonNode pagina = lerJson("/api/funcionarios?nome=IONARIO 1-1&email=@empresa");
+        List<String> nomes = new ArrayList<>();
+        pagina.get("itens").forEach(item -> nomes.add(item.get("nome").asText()));
+        assertThat(nomes).containsExactly("Funcionario 1-1", "Funcionario 1-10", "Funcionario 1-11",
+                "Funcionario 1-12", "Funcionario 1-13", "Funcionario 1-14", "Funcionario 1-15",
+                "Funcionario 1-16", "Funcionario 1-17", "Funcionario 1-18", "Funcionario 1-19");
+
+        assertThat(lerJson("/api/funcionarios?email=func2-7@&cargo=analista").get("tamanho").asInt()).isEqualTo(1);
+        assertThat(lerJson("/api/funcionarios?email=func2-7@&cargo=desenv").get("tamanho").asInt()).isZero();
+        assertComandosSql("/api/funcionarios?nome=ionario 0&ativo=true", 1);
+    }
+
+    @Test
+    void curingasNosFiltrosSaoCaracteresComuns() throws Exception {
+        Departamento dep = departamentoRepository.getReferenceById(departamentoId);
+        funcionarioRepository.save(new Funcionario("Desconto 100%", "desconto@empresa.com", "Analista_Jr",
+                3000.0, LocalDate.of(2020, 1, 1), true, dep));
+        funcionarioRepository.save(new Funcionario("Desconto 1000", "desconto1000@empresa.com", "Analista Jr",
+                3000.0, LocalDate.of(2020, 1, 1), true, dep));
+        indiceFuncionarios.recarregar();
+
+        // Termos curtos vão ao LIKE; a partir de três caracteres, ao índice de trigramas: mesmo resultado
+        assertThat(nomesFiltrados("nome", "%")).containsExactly("Desconto 100%");
+        assertThat(nomesFiltrados("nome", "0%")).containsExactly("Desconto 100%");
+        assertThat(nomesFiltrados("nome", "00%")).containsExactly("Desconto 100%");
+        assertThat(nomesFiltrados("cargo", "_")).containsExactly("Desconto 100%");
+        assertThat(nomesFiltrados("cargo", "a_j")).containsExactly("Desconto 100%");
+        assertThat(nomesFiltrados("cargo", "\\")).isEmpty();
+    }
+
+    @Test
+    void indiceAcompanhaGravacoesPeloServico() throws Exception {
+        FuncionarioRequestDTO novo = new FuncionarioRequestDTO("Zuleica Trigrama", "zuleica@empresa.com", "Arquiteta",
+                5000.0, LocalDate.of(2024, 5, 2), null, departamentoId);
+        mockMvc.perform(post("/api/funcionarios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(novo)))
+                .andExpect(status().is2xxSuccessful());
+
+        // Sem a atualização do índice após o commit, o filtro não encontraria candidatos
+        JsonNode pagina = lerJson("/api/funcionarios?nome=leica&cargo=arquit");
+        assertThat(pagina.get("tamanho").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void listarPorDepartamentoExecutaDuasConsultas() throws Exception {
+        // Uma consulta valida o departamento e outra lista os funcionários
+        assertComandosSql("/api/funcionarios/departamento/" + departamentoId, 2);
+    }
+
+    @Test
+    void buscarPorIdExecutaUmaUnicaConsulta() throws Exception {
+        Long id = funcionarioRepository.findAll().get(0).getId();
+        assertComandosSql("/api/funcionarios/" + id, 1);
+    }
+
+    @Test
+    void exportaNdjsonComUmaLinhaPorFuncionario() throws Exception {
+        String[] linhas = exportar("ndjson").split("\n");
+
+        assertThat(linhas).hasSize(3 * FUNCIONARIOS_POR_DEPARTAMENTO);
+        assertThat(objectMapper.readTree(linhas[0]).get("departamento").get("sigla").asText()).startsWith("D");
+    }
+
+    @Test
+    void exportaCsvComCabecalho() throws Exception {
+        String[] linhas = exportar("csv").split("\n");
+
+        assertThat(linhas).hasSize(1 + 3 * FUNCIONARIOS_POR_DEPARTAMENTO);
+        assertThat(linhas[0]).startsWith("id,nome,email");
+        assertThat(linhas[1]).contains(",01/01/2020,");
+    }
+
+    @Test
+    void exportacaoSemFuncionariosFicaVazia() throws Exception {
+        funcionarioRepository.deleteAll();
+
+        assertThat(exportar("ndjson")).isEmpty();
+        assertThat(exportar("csv")).isEqualTo(
+                "id,nome,email,cargo,salario,dataAdmissao,ativo,departamentoId,departamentoNome,departamentoSigla\n");
+    }
+
+    // O primeiro byte sai antes de o banco ler (e ordenar) o resultado inteiro
+    @Test
+    void exportacaoEntregaOPrimeiroByteSemMontarOResultado() throws Exception {
+        jdbcTemplate.update("""
+                insert into tb_funcionario (id, nome, email, cargo, salario, data_admissao, ativo, departamento_id, versao)
+                select 1000000 + x, 'Volume ' || x, 'volume' || x || '@empresa.com', 'Analista', 2000.0,
+                       date '2021-01-01', true, ?, 0
+                from system_range(1, ?)
+                """, departamentoId, FUNCIONARIOS_EXPORTACAO);
+        try {
+            long inicio = System.nanoTime();
+            long[] primeiroByte = {0};
+            long[] bytes = {0};
+            exportacaoService.exportar(FormatoExportacao.NDJSON, new OutputStream() {
+                @Override
+                public void write(int b) {
+                    write(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    if (primeiroByte[0] == 0) primeiroByte[0] = System.nanoTime();
+                    bytes[0] += len;
+                }
+            });
+            long total = System.nanoTime() - inicio;
+
+            assertThat(bytes[0]).isPositive();
+            assertThat(primeiroByte[0] - inicio).isLessThan(total / 10);
+        } finally {
+            jdbcTemplate.update("delete from tb_funcionario where id > 1000000");
+        }
+    }
+
+    @Test
+    void importacaoEmLoteGravaComInsertsAgrupados() throws Exception {
+        List<FuncionarioRequestDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            lote.add(new FuncionarioRequestDTO("Importado " + i, "importado" + i + "@empresa.com", "Analista",
+                    2500.0, LocalDate.of(2024, 5, 2), null, departamentoId));
+        }
+        // Linhas rejeitadas: e-mail já cadastrado, repetido no lote e departamento inexistente
+        lote.add(new FuncionarioRequestDTO("Repetido", "func0-0@empresa.com", "Analista",
+                2500.0, LocalDate.of(2024, 5, 2), null, departamentoId));
+        lote.add(new FuncionarioRequestDTO("Repetido", "importado0@empresa.com", "Analista",
+                2500.0, LocalDate.of(2024, 5, 2), null, departamentoId));
+        lote.add(new FuncionarioRequestDTO("Sem departamento", "semdep@empresa.com", "Analista",
+                2500.0, LocalDate.of(2024, 5, 2), null, -1L));
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        String corpo = mockMvc.perform(post("/api/funcionarios/importacao")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode resultado = objectMapper.readTree(corpo);
+
+        assertThat(resultado.get("importados").asInt()).isEqualTo(120);
+        assertThat(resultado.get("rejeitados").asInt()).isEqualTo(3);
+        assertThat(funcionarioRepository.count()).isEqualTo(3 * FUNCIONARIOS_POR_DEPARTAMENTO + 120);
+        // Sem batch seriam ao menos 120 inserts preparados
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void getCondicionalResponde304SemConsultarOBanco() throws Exception {
+        String etag = mockMvc.perform(get("/api/funcionarios"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        mockMvc.perform(get("/api/funcionarios").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        // Por entidade, pois o despachante de notificações pode consultar o banco em paralelo
+        assertThat(estatisticas.getEntityStatistics(Funcionario.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void etagMudaComGravacoesPelaApi() throws Exception {
+        List<Funcionario> ativos = funcionarioRepository.findByAtivoOrderByNomeAsc(true);
+        Long alterado = ativos.get(0).getId();
+        Long outro = ativos.get(1).getId();
+        Long departamentoDoOutro = ativos.get(1).getDepartamento().getId();
+
+        String lista = etag("/api/funcionarios");
+        String detalhe = etag("/api/funcionarios/" + alterado);
+        String detalheOutro = etag("/api/funcionarios/" + outro);
+        String departamentos = etag("/api/departamentos/ativos");
+
+        mockMvc.perform(patch("/api/funcionarios/" + alterado + "/inativar")).andExpect(status().isOk());
+
+        assertRevalidacao("/api/funcionarios", lista, 200);
+        assertRevalidacao("/api/funcionarios/" + alterado, detalhe, 200);
+        assertRevalidacao("/api/funcionarios/" + outro, detalheOutro, 304);
+        assertRevalidacao("/api/departamentos/ativos", departamentos, 304);
+
+        // Funcionários trazem os dados do departamento: renomear o departamento invalida também os seus funcionários
+        mockMvc.perform(put("/api/departamentos/" + departamentoDoOutro)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DepartamentoRequestDTO("Renomeado", "REN", true))))
+                .andExpect(status().isOk());
+
+        assertRevalidacao("/api/departamentos/ativos", departamentos, 200);
+        assertRevalidacao("/api/funcionarios/" + outro, detalheOutro, 200);
+    }
+
+    @Test
+    void gravacaoEmOutraInstanciaMudaOsEtags() throws Exception {
+        Funcionario funcionario = funcionarioRepository.findByAtivoOrderByNomeAsc(true).get(0);
+        String url = "/api/funcionarios/" + funcionario.getId();
+        String lista = etag("/api/funcionarios");
+        String detalhe = etag(url);
+        assertRevalidacao(url, detalhe, 304);
+
+        // Outra instância grava: o banco muda sem nenhum evento nesta
+        jdbcTemplate.update("update tb_funcionario set salario = salario + 1, versao = versao + 1 where id = ?",
+                funcionario.getId());
+        jdbcTemplate.update("update tb_versao_dados set versao = versao + 1 where recurso = 'funcionarios'");
+
+        // Depois do intervalo de releitura (app.versao-dados.intervalo-ms), nenhum ETag antigo confere
+        Thread.sleep(200);
+        assertRevalidacao("/api/funcionarios", lista, 200);
+        assertRevalidacao(url, detalhe, 200);
+    }
+
+    @Test
+    void ifMatchDesatualizadoResponde412ComVersaoAtual() throws Exception {
+        Funcionario funcionario = funcionarioRepository.findByAtivoOrderByNomeAsc(true).get(0);
+        String url = "/api/funcionarios/" + funcionario.getId();
+        String lido = etag(url);
+
+        // Outro cliente grava antes: o ETag lido deixa de valer
+        mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_MATCH, lido)
+                        .content(corpoAtualizacao(funcionario, 9000.0)))
+                .andExpect(status().isOk());
+
+        MvcResult recusado = mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, lido)
+                        .content(corpoAtualizacao(funcionario, 1.0)))
+                .andExpect(status().isPreconditionFailed())
+                .andReturn();
+        String atual = recusado.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(atual).isNotEqualTo(lido);
+        assertThat(objectMapper.readTree(recusado.getResponse().getContentAsString()).get("salario").asDouble())
+                .isEqualTo(9000.0);
+
+        // Com o ETag devolvido no 412 a gravação passa
+        mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_MATCH, atual)
+                        .content(corpoAtualizacao(funcionario, 9500.0)))
+                .andExpect(status().isOk());
+        assertThat(lerJson(url).get("salario").asDouble()).isEqualTo(9500.0);
+    }
+
+    private String corpoAtualizacao(Funcionario f, double salario) throws Exception {
+        return objectMapper.writeValueAsString(new FuncionarioRequestDTO(f.getNome(), f.getEmail(), f.getCargo(),
+                salario, f.getDataAdmissao(), true, departamentoId));
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertRevalidacao(String url, String etag, int esperado) throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(esperado));
+    }
+
+    private String exportar(String formato) throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/funcionarios/export?format=" + formato)).andReturn();
+        return mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<String> nomesFiltrados(String filtro, String valor) throws Exception {
+        String corpo = mockMvc.perform(get("/api/funcionarios").param("todos", "true").param(filtro, valor))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> nomes = new ArrayList<>();
+        objectMapper.readTree(corpo).forEach(item -> nomes.add(item.get("nome").asText()));
+        return nomes;
+    }
+
+    private JsonNode lerJson(String url) throws Exception {
+        String corpo = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(corpo);
+    }
+
+    private void assertComandosSql(String url, long maximo) throws Exception {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertThat(estatisticas.getPrepareStatementCount())
+                .as("comandos SQL executados em GET %s", url)
+                .isLessThanOrEqualTo(maximo);
+    }
+}
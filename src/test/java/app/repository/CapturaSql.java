@@ -0,0 +1,18 @@
+package app.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registra o SQL gerado pelo Hibernate (hibernate.session_factory.statement_inspector)
+public class CapturaSql implements StatementInspector {
+
+    public static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        COMANDOS.add(sql);
+        return sql;
+    }
+}
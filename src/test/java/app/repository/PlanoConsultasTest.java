@@ -0,0 +1,164 @@
+package app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.entity.Departamento;
+import app.entity.Funcionario;
+import app.entity.StatusNotificacao;
+
+/**
+ * Executa EXPLAIN em cada consulta dos repositórios e falha se alguma varrer a tabela inteira.
+ * O SQL é o que o Hibernate realmente gera (capturado pelo CapturaSql), sobre o esquema das migrações.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=app.repository.CapturaSql")
+@ActiveProfiles("test")
+class PlanoConsultasTest {
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private NotificacaoPendenteRepository notificacaoPendenteRepository;
+
+    @Autowired
+    private EstatisticaDepartamentoRepository estatisticaDepartamentoRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void popularBanco() throws SQLException {
+        funcionarioRepository.deleteAll();
+        departamentoRepository.deleteAll();
+
+        // Volume suficiente para o otimizador preferir os índices
+        List<Funcionario> funcionarios = new ArrayList<>();
+        for (int d = 0; d < 20; d++) {
+            Departamento dep = departamentoRepository.save(new Departamento("Departamento " + d, "D" + d, d % 4 != 0));
+            for (int i = 0; i < 50; i++) {
+                funcionarios.add(new Funcionario("Funcionario " + d + "-" + i, "func" + d + "-" + i + "@empresa.com",
+                        "Analista", 3000.0, LocalDate.of(2020, 1, 1), i % 5 != 0, dep));
+            }
+        }
+        funcionarioRepository.saveAll(funcionarios);
+
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("analyze");
+        }
+    }
+
+    @Test
+    void consultasDeFuncionarioUsamIndices() throws SQLException {
+        Long departamentoId = departamentoRepository.findAll().get(0).getId();
+
+        verificar("findById", () -> funcionarioRepository.findById(1L));
+        verificar("findByEmail", () -> funcionarioRepository.findByEmail("func1-1@empresa.com"));
+        verificar("existsByEmail", () -> funcionarioRepository.existsByEmail("func1-1@empresa.com"));
+        verificar("findEmailsCadastrados", () -> funcionarioRepository.findEmailsCadastrados(Set.of("a@b.com", "c@d.com")));
+        verificar("findByAtivo", () -> funcionarioRepository.findByAtivo(false));
+        verificar("findByDepartamentoId", () -> funcionarioRepository.findByDepartamentoId(departamentoId));
+        verificar("findByDepartamentoNome", () -> funcionarioRepository.findByDepartamentoNome("Departamento 3"));
+        verificar("findByDepartamentoSigla", () -> funcionarioRepository.findByDepartamentoSigla("D3"));
+        verificar("findByDepartamentoAtivo", () -> funcionarioRepository.findByDepartamentoAtivo(false));
+        verificar("findByAtivoOrderByNomeAsc", () -> funcionarioRepository.findByAtivoOrderByNomeAsc(true));
+        verificar("buscarPagina", () -> funcionarioRepository.buscarPagina(
+                null, null, null, null, "Funcionario 5", 0L, Limit.of(50)));
+        verificar("buscarPagina (completa)", () -> funcionarioRepository.buscarPagina(
+                null, null, null, null, "", 0L, Limit.unlimited()));
+        verificar("buscarPagina (ativo)", () -> funcionarioRepository.buscarPagina(
+                null, null, null, true, "", 0L, Limit.of(50)));
+        verificar("buscarPagina (cargo)", () -> funcionarioRepository.buscarPagina(
+                "anal", null, null, null, "", 0L, Limit.of(50)));
+        verificar("buscarPaginaPorIds", () -> funcionarioRepository.buscarPaginaPorIds(
+                List.of(1L, 2L, 3L), "anal", null, null, true, "", 0L, Limit.of(50)));
+    }
+
+    @Test
+    void consultasDeDepartamentoENotificacaoUsamIndices() throws SQLException {
+        verificar("Departamento.findById", () -> departamentoRepository.findById(1L));
+        verificar("Departamento.findByAtivo", () -> departamentoRepository.findByAtivo(true));
+        verificar("Departamento.existsByNome", () -> departamentoRepository.existsByNome("Departamento 1"));
+        verificar("Departamento.buscarPagina", () -> departamentoRepository.buscarPagina("", 0L, Limit.of(10)));
+        verificar("Estatistica.findById", () -> estatisticaDepartamentoRepository.findById(1L));
+        verificar("Estatistica.calcular", () -> estatisticaDepartamentoRepository.calcular(1L));
+        verificar("Notificacao.proximoLote", () -> notificacaoPendenteRepository
+                .findByStatusInAndProximaTentativaLessThanEqualOrderByIdAsc(
+                        List.of(StatusNotificacao.PENDENTE, StatusNotificacao.ENVIANDO), LocalDateTime.now(),
+                        Limit.of(100)));
+        verificar("Notificacao.countByStatus", () -> notificacaoPendenteRepository.countByStatus(StatusNotificacao.FALHA));
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private void verificar(String consulta, Runnable chamada) throws SQLException {
+        CapturaSql.COMANDOS.clear();
+        chamada.run();
+
+        List<String> selects = CapturaSql.COMANDOS.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertThat(selects).as("SQL de %s", consulta).isNotEmpty();
+
+        for (String sql : selects) {
+            assertThat(plano(sql))
+                    .as("plano de %s", consulta)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    // EXPLAIN com parâmetros preenchidos conforme o tipo que o H2 deduz para cada um
+    private String plano(String sql) throws SQLException {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("explain " + sql)) {
+            ParameterMetaData meta = ps.getParameterMetaData();
+            for (int i = 1; i <= meta.getParameterCount(); i++) {
+                ps.setObject(i, exemplo(meta.getParameterType(i)));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static Object exemplo(int tipo) {
+        return switch (tipo) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> 1;
+            case Types.BOOLEAN, Types.BIT -> true;
+            case Types.DATE -> Date.valueOf(LocalDate.now());
+            case Types.TIMESTAMP -> Timestamp.valueOf(LocalDateTime.now());
+            default -> "A";
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import app.service.ColunasFuncionarios.Agrupamento;
+import app.service.ColunasFuncionarios.Grupos;
+
+class ColunasFuncionariosTest {
+
+    private static final String[] CARGOS = { "Analista", "Desenvolvedor", "Gerente" };
+
+    @Test
+    void agregacaoParalelaConfereComCalculoDireto() {
+        // Limiar baixo: a varredura é dividida em muitas tarefas do fork/join
+        ColunasFuncionarios colunas = new ColunasFuncionarios(1_000);
+        Random random = new Random(42);
+        List<List<Double>> porCargo = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        long[] ativosPorCargo = new long[CARGOS.length];
+
+        for (int i = 0; i < 200_000; i++) {
+            int cargo = random.nextInt(CARGOS.length);
+            double salario = 1000 + random.nextInt(20_000);
+            boolean ativo = random.nextInt(4) != 0;
+            colunas.gravar(i, 0, salario, LocalDate.of(2000, 1, 1).plusDays(random.nextInt(9000)),
+                    (long) random.nextInt(5), CARGOS[cargo], ativo);
+            porCargo.get(cargo).add(salario);
+            if (ativo) ativosPorCargo[cargo]++;
+        }
+
+        Grupos g = colunas.agrupar(Agrupamento.CARGO, null, true);
+        for (int i = 0; i < g.tamanho(); i++) {
+            int cargo = Arrays.asList(CARGOS).indexOf((String) g.rotulo(i));
+            double[] esperados = porCargo.get(cargo).stream().mapToDouble(Double::doubleValue).sorted().toArray();
+
+            assertThat(g.quantidade(i)).isEqualTo(esperados.length);
+            assertThat(g.ativos(i)).isEqualTo(ativosPorCargo[cargo]);
+            assertThat(g.folha(i)).isCloseTo(Arrays.stream(esperados).sum(), within(0.01));
+            assertThat(g.minimo(i)).isEqualTo(esperados[0]);
+            assertThat(g.maximo(i)).isEqualTo(esperados[esperados.length - 1]);
+            assertThat(g.percentil(i, 0.5)).isEqualTo(esperados[(int) Math.ceil(0.5 * esperados.length) - 1]);
+            assertThat(g.percentil(i, 0.99)).isEqualTo(esperados[(int) Math.ceil(0.99 * esperados.length) - 1]);
+        }
+    }
+
+    @Test
+    void gravacaoRemocaoEFiltroPorStatus() {
+        ColunasFuncionarios colunas = new ColunasFuncionarios(2);
+        colunas.gravar(1, 0, 1000, LocalDate.of(2020, 3, 1), 10L, "Analista", true);
+        colunas.gravar(2, 0, 2000, LocalDate.of(2021, 3, 1), 10L, "Analista", false);
+        colunas.gravar(3, 0, 3000, LocalDate.of(2021, 6, 1), 20L, "Gerente", true);
+
+        colunas.gravar(1, 1, 1500, LocalDate.of(2020, 3, 1), 20L, "Analista", true);
+        // Evento atrasado (versão anterior) não desfaz a alteração
+        colunas.gravar(1, 0, 1000, LocalDate.of(2020, 3, 1), 10L, "Analista", true);
+        // Remove uma linha do meio: a última ocupa a vaga
+        colunas.remover(2, 0);
+
+        assertThat(colunas.linhas()).isEqualTo(2);
+        Grupos departamentos = colunas.agrupar(Agrupamento.DEPARTAMENTO, true, false);
+        assertThat(departamentos.quantidade(0)).isZero();
+        assertThat(departamentos.rotulo(1)).isEqualTo(20L);
+        assertThat(departamentos.quantidade(1)).isEqualTo(2);
+        assertThat(departamentos.folha(1)).isEqualTo(4500.0);
+
+        Grupos anos = colunas.agrupar(Agrupamento.ANO_ADMISSAO, null, false);
+        assertThat(anos.rotulo(0)).isEqualTo(2020);
+        assertThat(anos.quantidade(0)).isEqualTo(1);
+        assertThat(anos.quantidade(1)).isEqualTo(1);
+        assertThat(anos.admissaoMedia(1)).isEqualTo(LocalDate.of(2021, 6, 1));
+    }
+
+    @Test
+    void gravacaoAtrasadaNaoRessuscitaFuncionarioRemovido() {
+        ColunasFuncionarios colunas = new ColunasFuncionarios(2);
+        colunas.gravar(1, 0, 1000, LocalDate.of(2020, 3, 1), 10L, "Analista", true);
+        colunas.gravar(1, 1, 1500, LocalDate.of(2020, 3, 1), 10L, "Analista", true);
+        colunas.remover(1, 1);
+
+        // Eventos de antes da exclusão chegando depois dela
+        colunas.gravar(1, 1, 1500, LocalDate.of(2020, 3, 1), 10L, "Analista", true);
+        colunas.gravar(1, 0, 1000, LocalDate.of(2020, 3, 1), 10L, "Analista", true);
+        assertThat(colunas.linhas()).isZero();
+
+        // Remoção chegando antes da gravação que a precedeu (a linha ainda não existia aqui)
+        colunas.remover(2, 3);
+        colunas.gravar(2, 3, 2000, LocalDate.of(2021, 3, 1), 10L, "Analista", true);
+        assertThat(colunas.linhas()).isZero();
+
+        // A lápide é por funcionário: os demais seguem normalmente
+        colunas.gravar(3, 0, 3000, LocalDate.of(2021, 6, 1), 20L, "Gerente", true);
+        assertThat(colunas.linhas()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,166 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.entity.EstatisticaDepartamento;
+import app.exceptions.VersaoDesatualizadaException;
+import app.repository.EstatisticaDepartamentoRepository;
+
+/**
+ * Várias threads alterando o mesmo funcionário ao mesmo tempo. Cada leitura-alteração-gravação envia
+ * o ETag lido (If-Match) e, em conflito, relê e refaz: nenhuma alteração pode se perder.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcorrenciaFuncionarioTest {
+
+    private static final int THREADS = 6;
+    private static final int ALTERACOES_POR_THREAD = 10;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EstatisticaDepartamentoRepository estatisticaDepartamentoRepository;
+
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    private Long departamentoId;
+    private Long funcionarioId;
+
+    @BeforeEach
+    void cadastrar() {
+        departamentoId = departamentoService.salvar(
+                new DepartamentoRequestDTO("Disputa " + System.nanoTime(), "DSP", true)).id();
+        funcionarioId = funcionarioService.save(dto(1000.0)).id();
+    }
+
+    @Test
+    void incrementosConcorrentesComIfMatchNaoSePerdem() throws Exception {
+        AtomicInteger conflitos = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < ALTERACOES_POR_THREAD; i++) {
+                while (true) {
+                    FuncionarioResponseDTO lido = funcionarioService.findById(funcionarioId);
+                    try {
+                        funcionarioService.update(funcionarioId, dto(lido.salario() + 1.0), VersaoDados.etag(lido));
+                        break;
+                    } catch (VersaoDesatualizadaException | ConcurrencyFailureException e) {
+                        conflitos.incrementAndGet();
+                    }
+                }
+            }
+            return null;
+        });
+
+        int total = THREADS * ALTERACOES_POR_THREAD;
+        FuncionarioResponseDTO fim = funcionarioService.findById(funcionarioId);
+        assertThat(fim.salario()).isCloseTo(1000.0 + total, within(0.001));
+        assertThat(fim.versao()).isEqualTo(total);
+        assertThat(conflitos.get()).as("conflitos detectados").isPositive();
+        assertEstatisticasConsistentes();
+    }
+
+    @Test
+    void gravacoesSemIfMatchNaoCompartilhamVersao() throws Exception {
+        AtomicInteger sequencia = new AtomicInteger();
+        AtomicInteger gravadas = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < ALTERACOES_POR_THREAD; i++) {
+                // Cargo distinto a cada gravação: nenhuma delas é descartada pelo dirty checking
+                FuncionarioRequestDTO alteracao = dto(1000.0, "Analista " + sequencia.incrementAndGet());
+                try {
+                    funcionarioService.update(funcionarioId, alteracao, null);
+                    gravadas.incrementAndGet();
+                } catch (ConcurrencyFailureException e) {
+                    // 409 para o cliente: a gravação concorrente venceu
+                }
+            }
+            return null;
+        });
+
+        // Cada gravação confirmada partiu da versão deixada pela anterior: duas nunca gravaram sobre a mesma
+        assertThat(funcionarioService.findById(funcionarioId).versao()).isEqualTo(gravadas.get());
+        assertEstatisticasConsistentes();
+    }
+
+    @Test
+    void inativacoesConcorrentesSaoRepetidasSemErro() throws Exception {
+        List<FuncionarioResponseDTO> respostas = executarEmParalelo(() -> funcionarioService.inativar(funcionarioId, null));
+
+        assertThat(respostas).hasSize(THREADS).allMatch(r -> !r.ativo());
+        // Só a primeira inativação grava; as demais, repetidas após o conflito, encontram o registro inativo
+        assertThat(funcionarioService.findById(funcionarioId).versao()).isEqualTo(1L);
+        assertThat(estatisticaDepartamentoRepository.findById(departamentoId).orElseThrow().getAtivos()).isZero();
+        assertEstatisticasConsistentes();
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private <T> List<T> executarEmParalelo(Callable<T> tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return tarefa.call();
+                }));
+            }
+            largada.countDown();
+
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> f : futuros) resultados.add(f.get());
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertEstatisticasConsistentes() {
+        EstatisticaDepartamento linha = estatisticaDepartamentoRepository.findById(departamentoId).orElseThrow();
+        EstatisticaDepartamento calculada = estatisticaDepartamentoRepository.calcular(departamentoId).orElseThrow();
+        assertThat(linha.getAtivos()).isEqualTo(calculada.getAtivos());
+        assertThat(linha.getSomaSalarios()).isCloseTo(calculada.getSomaSalarios(), within(0.001));
+    }
+
+    private FuncionarioRequestDTO dto(double salario) {
+        return dto(salario, "Analista");
+    }
+
+    private FuncionarioRequestDTO dto(double salario, String cargo) {
+        return new FuncionarioRequestDTO("Disputado", "disputado" + departamentoId + "@concorrencia.com", cargo,
+                salario, LocalDate.of(2020, 1, 1), null, departamentoId);
+    }
+}
@@ -0,0 +1,192 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import app.config.CacheConfig;
+import app.dto.AlteracaoEmLoteDTO;
+import app.dto.DepartamentoRequestDTO;
+import app.dto.DepartamentoResponseDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.dto.ReajusteSalarialRequestDTO;
+import app.entity.Funcionario;
+import app.evento.DepartamentoAlteradoEvento;
+import app.evento.TipoAlteracao;
+import app.exceptions.NegocioException;
+import app.repository.EstatisticaDepartamentoRepository;
+import app.repository.FuncionarioRepository;
+import app.repository.NotificacaoPendenteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class DepartamentoServiceTest {
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @Autowired
+    private EstatisticaDepartamentoRepository estatisticaDepartamentoRepository;
+
+    @Autowired
+    private NotificacaoPendenteRepository notificacaoPendenteRepository;
+
+    // Notificações ficam no outbox (sem envio), para contá-las e não disputar as contagens de comandos
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void prepararEstatisticas() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void buscaRepetidaPorIdNaoConsultaOBanco() {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Financeiro", "FIN", true)).id();
+        departamentoService.buscarPorId(id);
+
+        estatisticas.clear();
+        for (int i = 0; i < 10; i++) {
+            departamentoService.buscarPorId(id);
+            departamentoService.listarAtivos();
+        }
+
+        // Apenas a primeira listagem de ativos vai ao banco
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "departamentos").tag("result", "hit")
+                .functionCounter().count()).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void alteracoesInvalidamOCache() {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Jurídico", "JUR", true)).id();
+        assertThat(departamentoService.listarAtivos()).anyMatch(d -> d.id().equals(id));
+
+        departamentoService.atualizar(id, new DepartamentoRequestDTO("Jurídico Corporativo", "JUR", true), null);
+        assertThat(departamentoService.buscarPorId(id).nome()).isEqualTo("Jurídico Corporativo");
+
+        departamentoService.inativar(id, null);
+        assertThat(departamentoService.buscarPorId(id).ativo()).isFalse();
+        assertThat(departamentoService.listarAtivos()).noneMatch(d -> d.id().equals(id));
+    }
+
+    @Test
+    void leituraAtrasadaNaoRecolocaValorAntigoNoCache() {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Compras", "COM", true)).id();
+        DepartamentoResponseDTO lido = departamentoService.buscarPorId(id);
+        long versao = versaoDados.versaoDepartamentos();
+
+        departamentoService.atualizar(id, new DepartamentoRequestDTO("Compras Corporativas", "COM", true), null);
+        // Leitura começada antes da gravação que só guarda o resultado depois do commit dela
+        cacheManager.getCache(CacheConfig.DEPARTAMENTOS).put(versao + ":" + id, lido);
+        cacheManager.getCache(CacheConfig.DEPARTAMENTOS_ATIVOS).put(versao, List.of(lido));
+
+        assertThat(departamentoService.buscarPorId(id).nome()).isEqualTo("Compras Corporativas");
+        assertThat(departamentoService.listarAtivos()).filteredOn(d -> d.id().equals(id))
+                .singleElement().extracting(DepartamentoResponseDTO::nome).isEqualTo("Compras Corporativas");
+    }
+
+    @Test
+    void reajusteEInativacaoEmLoteUsamUmUpdateCada() {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Operações", "OPE", true)).id();
+        for (int i = 0; i < 30; i++) {
+            funcionarioService.save(new FuncionarioRequestDTO("Operador " + i, "operador" + i + "@lote.com",
+                    "Operador", 3000.0 + i, LocalDate.of(2021, 1, 1).plusDays(i), null, id));
+        }
+        Long inativo = funcionarioService.findByDepartamento(id).get(0).id();
+        funcionarioService.inativar(inativo, null);
+        long notificacoes = notificacaoPendenteRepository.count();
+
+        estatisticas.clear();
+        AlteracaoEmLoteDTO reajuste = funcionarioService.reajustarSalarios(id, new ReajusteSalarialRequestDTO(10.0, null));
+
+        assertThat(reajuste.funcionariosAfetados()).isEqualTo(29);
+        // UPDATE em lote, recálculo da linha de estatísticas e o outbox: nada proporcional aos funcionários
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThan(10);
+        for (Funcionario f : funcionarioRepository.findByDepartamentoId(id)) {
+            double original = 3000.0 + Integer.parseInt(f.getNome().substring("Operador ".length()));
+            double esperado = f.getId().equals(inativo) ? original : original * 1.1;
+            assertThat(f.getSalario()).isCloseTo(esperado, within(0.001));
+        }
+        assertThat(estatisticaDepartamentoRepository.findById(id)).get()
+                .usingRecursiveComparison()
+                .isEqualTo(estatisticaDepartamentoRepository.calcular(id).orElseThrow());
+
+        estatisticas.clear();
+        AlteracaoEmLoteDTO inativacao = departamentoService.inativarComFuncionarios(id, null);
+
+        assertThat(inativacao.funcionariosAfetados()).isEqualTo(29);
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThan(10);
+        assertThat(departamentoService.buscarPorId(id).ativo()).isFalse();
+        assertThat(funcionarioRepository.findByDepartamentoId(id)).noneMatch(Funcionario::getAtivo);
+        assertThat(estatisticaDepartamentoRepository.findById(id).orElseThrow().getAtivos()).isZero();
+
+        // Uma notificação resumida por operação (e canal), não uma por funcionário
+        assertThat(notificacaoPendenteRepository.count() - notificacoes).isEqualTo(2L * 2);
+    }
+
+    @Test
+    void inativacaoEmLotePublicaAVersaoGravada() {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Logística", "LOG", true)).id();
+
+        departamentoService.inativarComFuncionarios(id, null);
+
+        // A versão do evento (enviada no feed e usada como If-Match) é a da linha já alterada
+        Long gravada = departamentoService.buscarPorId(id).versao();
+        assertThat(eventos.stream(DepartamentoAlteradoEvento.class)
+                .filter(e -> e.tipo() == TipoAlteracao.INATIVADO && e.departamento().id().equals(id)))
+                .singleElement()
+                .satisfies(e -> assertThat(e.departamento().versao()).isEqualTo(gravada).isPositive());
+    }
+
+    @Test
+    void reajusteNaoReduzSalario() {
+        Long id = departamentoService.salvar(new DepartamentoRequestDTO("Auditoria", "AUD", true)).id();
+
+        assertThatThrownBy(() -> funcionarioService.reajustarSalarios(id, new ReajusteSalarialRequestDTO(-5.0, null)))
+                .isInstanceOf(NegocioException.class);
+        assertThatThrownBy(() -> funcionarioService.reajustarSalarios(id, new ReajusteSalarialRequestDTO(5.0, 100.0)))
+                .isInstanceOf(NegocioException.class);
+    }
+}
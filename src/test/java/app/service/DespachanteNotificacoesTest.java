@@ -0,0 +1,162 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.entity.NotificacaoPendente;
+import app.repository.NotificacaoPendenteRepository;
+
+@SpringBootTest(properties = {
+        "app.notificacoes.backoff-inicial-ms=20",
+        "app.notificacoes.intervalo-ms=50"
+})
+@ActiveProfiles("test")
+class DespachanteNotificacoesTest {
+
+    private static final long ATRASO_CANAL_MS = 500;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private NotificacaoPendenteRepository notificacaoPendenteRepository;
+
+    @Autowired
+    private CanalInstavel canalInstavel;
+
+    @Autowired
+    private CanalContador canalContador;
+
+    @Autowired
+    private DespachanteNotificacoes despachante;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void gravacaoNaoEsperaOsCanaisEFalhasSaoReenviadas() throws Exception {
+        Long dep = departamentoService.salvar(new DepartamentoRequestDTO("Outbox", "OUT", true)).id();
+
+        long inicio = System.nanoTime();
+        funcionarioService.save(new FuncionarioRequestDTO("Notificado", "notificado@empresa.com", "Analista",
+                3000.0, LocalDate.of(2023, 3, 1), null, dep));
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // O canal lento não entra na latência da gravação
+        assertThat(duracaoMs).isLessThan(ATRASO_CANAL_MS);
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < limite
+                && (canalInstavel.entregues.isEmpty() || notificacaoPendenteRepository.count() > 0)) {
+            Thread.sleep(50);
+        }
+
+        // Primeira tentativa falhou, a segunda foi entregue e o outbox esvaziou
+        assertThat(canalInstavel.tentativas.get()).isGreaterThanOrEqualTo(2);
+        assertThat(canalInstavel.entregues).containsExactly("Funcionário Notificado cadastrado.");
+        assertThat(notificacaoPendenteRepository.count()).isZero();
+    }
+
+    @Test
+    void doisDespachantesNaoEnviamAMesmaNotificacao() throws Exception {
+        // Outra instância da aplicação, lendo o mesmo outbox
+        DespachanteNotificacoes outro = beanFactory.createBean(DespachanteNotificacoes.class);
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            List<NotificacaoPendente> lote = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                lote.add(new NotificacaoPendente("canalContador", "Lote " + i, agora));
+            }
+            notificacaoPendenteRepository.saveAll(lote);
+
+            despachante.acordar();
+            outro.acordar();
+
+            long limite = System.currentTimeMillis() + 20_000;
+            while (System.currentTimeMillis() < limite && canalContador.entregas.size() < 300) {
+                Thread.sleep(50);
+            }
+            // Tempo para uma eventual entrega duplicada aparecer
+            Thread.sleep(200);
+
+            assertThat(canalContador.entregas).hasSize(300);
+            assertThat(canalContador.entregas.values()).allSatisfy(vezes -> assertThat(vezes.get()).isEqualTo(1));
+        } finally {
+            beanFactory.destroyBean(outro);
+        }
+    }
+
+    // Conta as entregas de cada mensagem do teste de dois despachantes
+    static class CanalContador implements NotificacaoService {
+
+        final Map<String, AtomicInteger> entregas = new ConcurrentHashMap<>();
+
+        @Override
+        public String mensagem(String msg) {
+            if (msg.startsWith("Lote ")) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                entregas.computeIfAbsent(msg, m -> new AtomicInteger()).incrementAndGet();
+            }
+            return msg;
+        }
+    }
+
+    static class CanalInstavel implements NotificacaoService {
+
+        final AtomicInteger tentativas = new AtomicInteger();
+        final List<String> entregues = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String mensagem(String msg) {
+            try {
+                Thread.sleep(ATRASO_CANAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (tentativas.incrementAndGet() == 1) {
+                throw new IllegalStateException("Canal indisponível");
+            }
+            entregues.add(msg);
+            return msg;
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        CanalInstavel canalInstavel() {
+            return new CanalInstavel();
+        }
+
+        @Bean
+        CanalContador canalContador() {
+            return new CanalContador();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.EstatisticaDepartamentoDTO;
+import app.dto.EstatisticaResumoDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.entity.Departamento;
+import app.entity.EstatisticaDepartamento;
+import app.entity.Funcionario;
+import app.repository.EstatisticaDepartamentoRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EstatisticaDepartamentoServiceTest {
+
+    @Autowired
+    private EstatisticaDepartamentoService estatisticaDepartamentoService;
+
+    @Autowired
+    private EstatisticaDepartamentoRepository estatisticaDepartamentoRepository;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void agregadosAcompanhamAsGravacoesDeFuncionarios() {
+        Long vendas = departamentoService.salvar(new DepartamentoRequestDTO("Vendas", "VEN", true)).id();
+        Long compras = departamentoService.salvar(new DepartamentoRequestDTO("Compras", "COM", true)).id();
+
+        Long ana = cadastrar("Ana", 4000.0, LocalDate.of(2019, 3, 1), vendas);
+        Long bruno = cadastrar("Bruno", 5000.0, LocalDate.of(2021, 6, 15), vendas);
+        Long carla = cadastrar("Carla", 6000.0, LocalDate.of(2023, 1, 10), vendas);
+        cadastrar("Diego", 3000.0, LocalDate.of(2020, 8, 1), compras);
+
+        EstatisticaDepartamentoDTO e = estatisticaDepartamentoService.buscarPorDepartamento(vendas);
+        assertThat(e.ativos()).isEqualTo(3);
+        assertThat(e.folhaSalarial()).isEqualTo(15000.0);
+        assertThat(e.salarioMedio()).isEqualTo(5000.0);
+        assertThat(e.desvioPadraoSalario()).isCloseTo(816.50, within(0.01));
+        assertThat(e.primeiraAdmissao()).isEqualTo(LocalDate.of(2019, 3, 1));
+
+        // Aumento, inativação do mais antigo, troca de departamento e remoção
+        funcionarioService.update(bruno, dto("Bruno", 5500.0, LocalDate.of(2021, 6, 15), vendas), null);
+        funcionarioService.inativar(ana, null);
+        funcionarioService.update(carla, dto("Carla", 6000.0, LocalDate.of(2023, 1, 10), compras), null);
+        importacaoService.importar(List.of(
+                dto("Eva", 2000.0, LocalDate.of(2018, 2, 2), compras),
+                dto("Fábio", 2500.0, LocalDate.of(2024, 4, 4), vendas)));
+        funcionarioService.delete(bruno);
+
+        for (Long id : List.of(vendas, compras)) {
+            assertThat(estatisticaDepartamentoRepository.findById(id))
+                    .get()
+                    .usingRecursiveComparison()
+                    .ignoringFields("somaSalarios", "somaQuadrados")
+                    .isEqualTo(calculado(id));
+        }
+        e = estatisticaDepartamentoService.buscarPorDepartamento(vendas);
+        assertThat(e.totalFuncionarios()).isEqualTo(2); // Ana (inativa) e Fábio
+        assertThat(e.ativos()).isEqualTo(1);
+        assertThat(e.folhaSalarial()).isEqualTo(2500.0);
+        assertThat(e.primeiraAdmissao()).isEqualTo(LocalDate.of(2024, 4, 4));
+
+        EstatisticaResumoDTO resumo = estatisticaDepartamentoService.resumo();
+        assertThat(resumo.ativos()).isEqualTo(4);
+        assertThat(resumo.folhaSalarial()).isEqualTo(2500.0 + 3000.0 + 6000.0 + 2000.0);
+        assertThat(resumo.primeiraAdmissao()).isEqualTo(LocalDate.of(2018, 2, 2));
+    }
+
+    @Test
+    void leituraNaoPercorreOsFuncionarios() {
+        Long rh = departamentoService.salvar(new DepartamentoRequestDTO("Recursos Humanos", "RH", true)).id();
+        for (int i = 0; i < 30; i++) {
+            cadastrar("Pessoa " + i, 3000.0 + i, LocalDate.of(2022, 1, 1).plusDays(i), rh);
+        }
+        estatisticaDepartamentoService.buscarPorDepartamento(rh);
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        EstatisticaDepartamentoDTO e = estatisticaDepartamentoService.buscarPorDepartamento(rh);
+
+        // Departamento vem do cache; só a linha de estatística é lida (por entidade, pois o
+        // despachante de notificações pode consultar o banco em paralelo)
+        assertThat(carregados(estatisticas, EstatisticaDepartamento.class)).isEqualTo(1);
+        assertThat(carregados(estatisticas, Departamento.class)).isZero();
+        assertThat(carregados(estatisticas, Funcionario.class)).isZero();
+        assertThat(e.ativos()).isEqualTo(30);
+    }
+
+    private static long carregados(Statistics estatisticas, Class<?> entidade) {
+        return estatisticas.getEntityStatistics(entidade.getName()).getLoadCount();
+    }
+
+    private EstatisticaDepartamento calculado(Long departamentoId) {
+        return estatisticaDepartamentoRepository.calcular(departamentoId).orElseThrow();
+    }
+
+    private Long cadastrar(String nome, Double salario, LocalDate admissao, Long departamentoId) {
+        return funcionarioService.save(dto(nome, salario, admissao, departamentoId)).id();
+    }
+
+    private static FuncionarioRequestDTO dto(String nome, Double salario, LocalDate admissao, Long departamentoId) {
+        String email = nome.toLowerCase().replace(' ', '.').replace('á', 'a') + "@estatistica.com";
+        return new FuncionarioRequestDTO(nome, email, "Analista", salario, admissao, null, departamentoId);
+    }
+}
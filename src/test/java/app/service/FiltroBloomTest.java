@@ -0,0 +1,42 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+    @Test
+    void nuncaDescartaUmValorAdicionado() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filtro.adicionar("func" + i + "@empresa.com");
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filtro.podeConter("func" + i + "@empresa.com")).isTrue();
+        }
+    }
+
+    @Test
+    void falsosPositivosFicamPertoDaTaxaDimensionada() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filtro.adicionar("func" + i + "@empresa.com");
+
+        int falsos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podeConter("novo" + i + "@empresa.com")) falsos++;
+        }
+        assertThat(falsos / 100_000.0).isLessThan(0.02);
+        assertThat(filtro.taxaFalsosPositivosEstimada()).isBetween(0.005, 0.015);
+        // ~9,6 bits por elemento para 1%
+        assertThat(filtro.bytes()).isBetween(11_000L, 13_000L);
+        assertThat(filtro.funcoes()).isEqualTo(7);
+    }
+
+    @Test
+    void vazioDescartaTudo() {
+        FiltroBloom filtro = new FiltroBloom(100, 0.01);
+
+        assertThat(filtro.podeConter("qualquer@empresa.com")).isFalse();
+        assertThat(filtro.taxaFalsosPositivosEstimada()).isZero();
+    }
+}
@@ -0,0 +1,143 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import app.dto.DepartamentoRequestDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.exceptions.NegocioException;
+import app.repository.CapturaSql;
+
+/**
+ * Quantidade exata de comandos em TB_FUNCIONARIO por operação de escrita (capturados pelo CapturaSql).
+ * O departamento vem do cache, o filtro de e-mails dispensa a consulta de e-mails novos
+ * e a unicidade do e-mail fica com a constraint do banco.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=app.repository.CapturaSql")
+@ActiveProfiles("test")
+class FuncionarioServiceTest {
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    // Sem envio em segundo plano: só os comandos da operação medida são capturados
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    private Long departamentoId;
+
+    @BeforeEach
+    void prepararDepartamento() {
+        departamentoId = departamentoService.salvar(
+                new DepartamentoRequestDTO("Engenharia " + System.nanoTime(), "ENG", true)).id();
+        departamentoService.buscarPorId(departamentoId); // aquece o cache
+    }
+
+    @Test
+    void atualizacaoFazUmaLeituraEUmaEscrita() {
+        FuncionarioResponseDTO f = funcionarioService.save(dto("Ana", "ana@servico.com", 5000.0));
+
+        CapturaSql.COMANDOS.clear();
+        FuncionarioResponseDTO atualizado =
+                funcionarioService.update(f.id(), dto("Ana Souza", "ana@servico.com", 5500.0), null);
+
+        assertThat(atualizado.nome()).isEqualTo("Ana Souza");
+        assertThat(leituras("tb_funcionario")).hasSize(1);
+        assertThat(escritas("tb_funcionario")).hasSize(1);
+        assertThat(leituras("tb_departamento")).isEmpty();
+
+        // Sem mudança: o dirty checking não gera UPDATE
+        CapturaSql.COMANDOS.clear();
+        funcionarioService.update(f.id(), dto("Ana Souza", "ana@servico.com", 5500.0), null);
+
+        assertThat(leituras("tb_funcionario")).hasSize(1);
+        assertThat(escritas("tb_funcionario")).isEmpty();
+    }
+
+    @Test
+    void emailDuplicadoNaAtualizacaoViraErroDeNegocio() {
+        funcionarioService.save(dto("Bruno", "bruno@servico.com", 4000.0));
+        FuncionarioResponseDTO carla = funcionarioService.save(dto("Carla", "carla@servico.com", 4000.0));
+
+        CapturaSql.COMANDOS.clear();
+        assertThatThrownBy(() ->
+                funcionarioService.update(carla.id(), dto("Carla", "bruno@servico.com", 4000.0), null))
+                .isInstanceOf(NegocioException.class)
+                .hasMessage("E-mail já cadastrado.");
+
+        // Nenhuma consulta por e-mail: quem recusa é a constraint, no UPDATE
+        assertThat(leituras("tb_funcionario")).hasSize(1);
+        assertThat(escritas("tb_funcionario")).hasSize(1);
+        assertThat(funcionarioService.findById(carla.id()).email()).isEqualTo("carla@servico.com");
+    }
+
+    @Test
+    void cadastroDeEmailNovoNaoConsultaReativacaoFazUmaLeitura() {
+        CapturaSql.COMANDOS.clear();
+        FuncionarioResponseDTO f = funcionarioService.save(dto("Diego", "diego@servico.com", 3000.0));
+
+        // E-mail descartado pelo filtro de Bloom: nenhuma consulta por e-mail antes do INSERT
+        assertThat(leituras("tb_funcionario")).isEmpty();
+        assertThat(escritas("tb_funcionario")).hasSize(1);
+        assertThat(leituras("tb_departamento")).isEmpty();
+
+        CapturaSql.COMANDOS.clear();
+        funcionarioService.inativar(f.id(), null);
+
+        assertThat(leituras("tb_funcionario")).hasSize(1);
+        assertThat(escritas("tb_funcionario")).hasSize(1);
+        assertThat(leituras("tb_departamento")).isEmpty();
+
+        CapturaSql.COMANDOS.clear();
+        FuncionarioResponseDTO reativado = funcionarioService.save(dto("Diego", "diego@servico.com", 3200.0));
+
+        assertThat(reativado.id()).isEqualTo(f.id());
+        assertThat(reativado.ativo()).isTrue();
+        assertThat(leituras("tb_funcionario")).hasSize(1);
+        assertThat(escritas("tb_funcionario")).singleElement().asString().startsWith("update");
+    }
+
+    // ======================
+    // MÉTODOS AUXILIARES
+    // ======================
+
+    private FuncionarioRequestDTO dto(String nome, String email, double salario) {
+        return new FuncionarioRequestDTO(nome, email, "Desenvolvedor", salario, LocalDate.of(2022, 3, 1), null,
+                departamentoId);
+    }
+
+    // SELECTs sobre a tabela (joins e subconsultas em UPDATEs de outras tabelas não contam)
+    private static List<String> leituras(String tabela) {
+        return comandos(sql -> sql.startsWith("select") && sql.contains(" from " + tabela + " "));
+    }
+
+    private static List<String> escritas(String tabela) {
+        return comandos(sql -> sql.startsWith("insert into " + tabela + " ")
+                || sql.startsWith("update " + tabela + " ")
+                || sql.startsWith("delete from " + tabela + " "));
+    }
+
+    private static List<String> comandos(Predicate<String> filtro) {
+        return CapturaSql.COMANDOS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).trim())
+                .filter(filtro)
+                .toList();
+    }
+}
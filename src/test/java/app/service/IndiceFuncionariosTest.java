@@ -0,0 +1,64 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import app.dto.FuncionarioResponseDTO;
+import app.evento.FuncionarioAlteradoEvento;
+import app.evento.TipoAlteracao;
+
+class IndiceFuncionariosTest {
+
+    // Gravação confirmada enquanto a carga inicial lê o banco: a leitura não a viu, e o evento
+    // após o commit chega antes de o índice ficar pronto
+    @Test
+    void alteracaoConfirmadaDuranteACargaNaoSePerde() throws Exception {
+        DataSource banco = new DriverManagerDataSource(
+                "jdbc:h2:mem:indice-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(banco);
+        jdbc.execute("create table tb_funcionario (id bigint primary key, cargo varchar(60), nome varchar(120), email varchar(120))");
+        jdbc.update("insert into tb_funcionario values (1, 'Analista', 'Ana', 'ana@empresa.com')");
+
+        IndiceFuncionarios[] indice = new IndiceFuncionarios[1];
+        Thread gravacao = new Thread(() -> indice[0].aoAlterarFuncionario(
+                new FuncionarioAlteradoEvento(TipoAlteracao.CRIADO, funcionario(2L, "Gerente", "Bia"))));
+
+        indice[0] = new IndiceFuncionarios(new DelegatingDataSource(banco) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                // A carga já tem o lock: o evento chega agora e precisa esperar por ela
+                gravacao.start();
+                aguardarBloqueioOuFim(gravacao);
+                return super.getConnection();
+            }
+        }, true, 5000);
+
+        indice[0].carregar();
+        gravacao.join();
+
+        assertThat(indice[0].candidatos("gerente", null, null)).containsExactly(2L);
+        assertThat(indice[0].candidatos("analista", null, null)).containsExactly(1L);
+    }
+
+    private static void aguardarBloqueioOuFim(Thread t) {
+        while (t.getState() != Thread.State.WAITING && t.getState() != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static FuncionarioResponseDTO funcionario(Long id, String cargo, String nome) {
+        return new FuncionarioResponseDTO(id, nome, nome.toLowerCase() + "@empresa.com", cargo, 3000.0,
+                LocalDate.of(2024, 1, 2), true, null, 0L);
+    }
+}
@@ -0,0 +1,73 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compara a busca por trecho no índice de trigramas com a varredura linear (o que o LIKE '%termo%' faz).
+ * Fora da suíte padrão: mvn test -Dbenchmark=true -Dtest=IndiceTrigramasBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IndiceTrigramasBenchmarkTest {
+
+    private static final String[] PRENOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela", "Heitor"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Pereira", "Costa", "Rodrigues", "Almeida"};
+    private static final int CONSULTAS = 200;
+
+    @Test
+    void indiceContraVarreduraLinear() {
+        for (int tamanho : new int[] {10_000, 100_000, 1_000_000}) {
+            Map<Long, String> nomes = gerar(tamanho);
+            IndiceTrigramas indice = new IndiceTrigramas();
+            indice.recriar(nomes);
+
+            // Termo seletivo: um sufixo numérico que só alguns nomes têm
+            String termo = "a silva 4242";
+            Set<Long> esperado = varrer(nomes, termo);
+            assertThat(indice.buscar(termo, Integer.MAX_VALUE)).isEqualTo(esperado);
+
+            for (int i = 0; i < CONSULTAS / 10; i++) { // aquecimento
+                indice.buscar(termo, Integer.MAX_VALUE);
+                varrer(nomes, termo);
+            }
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < CONSULTAS; i++) indice.buscar(termo, Integer.MAX_VALUE);
+            long indiceNs = (System.nanoTime() - inicio) / CONSULTAS;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < CONSULTAS; i++) varrer(nomes, termo);
+            long varreduraNs = (System.nanoTime() - inicio) / CONSULTAS;
+
+            System.out.printf(Locale.ROOT, "%,d funcionários: índice %,d µs, varredura %,d µs (%.1fx)%n",
+                    tamanho, indiceNs / 1000, varreduraNs / 1000, (double) varreduraNs / Math.max(1, indiceNs));
+        }
+    }
+
+    private static Map<Long, String> gerar(int tamanho) {
+        Random random = new Random(42);
+        Map<Long, String> nomes = new HashMap<>(tamanho * 2);
+        for (long id = 1; id <= tamanho; id++) {
+            nomes.put(id, PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + random.nextInt(100_000));
+        }
+        return nomes;
+    }
+
+    private static Set<Long> varrer(Map<Long, String> nomes, String termo) {
+        Set<Long> resultado = new HashSet<>();
+        nomes.forEach((id, nome) -> {
+            if (nome.toLowerCase(Locale.ROOT).contains(termo)) resultado.add(id);
+        });
+        return resultado;
+    }
+}
@@ -0,0 +1,105 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class IndiceTrigramasTest {
+
+    @Test
+    void buscaPorTrechoSemDiferenciarMaiusculas() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.recriar(Map.of(1L, "Desenvolvedor", 2L, "Analista", 3L, "Desenvolvedora Sênior"));
+
+        assertThat(indice.buscar("ENVOLV", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(indice.buscar("sênior", 10)).containsExactly(3L);
+        assertThat(indice.buscar("an", 10)).containsExactly(2L);
+        assertThat(indice.buscar("gerente", 10)).isEmpty();
+    }
+
+    @Test
+    void descartaFalsosPositivosDosTrigramas() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        // "abc bcd" contém todos os trigramas de "abcd", mas não o trecho contíguo
+        indice.recriar(Map.of(1L, "abc bcd", 2L, "xabcdx"));
+
+        assertThat(indice.buscar("abcd", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void acompanhaAlteracoesERemocoes() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "Analista");
+        indice.indexar(2L, "Analista");
+        indice.indexar(1L, "Gerente");
+        indice.remover(2L);
+
+        assertThat(indice.buscar("analis", 10)).isEmpty();
+        assertThat(indice.buscar("gerent", 10)).containsExactly(1L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void retornaNuloQuandoPassaDoMaximo() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.recriar(Map.of(1L, "Analista", 2L, "Analista", 3L, "Analista"));
+
+        assertThat(indice.buscar("analista", 2)).isNull();
+    }
+
+    @Test
+    void termoDeUmCaractereFicaComAConsulta() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.recriar(Map.of(1L, "Analista"));
+
+        assertThat(indice.buscar("a", 10)).isNull();
+    }
+
+    @Test
+    void alteracoesIndividuaisEEmLoteAcompanhamAVarredura() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        Map<Long, String> esperado = new HashMap<>();
+        Random random = new Random(7);
+
+        // Trigramas comuns a todos (domínio do e-mail) passam de vários blocos e são divididos
+        for (int rodada = 0; rodada < 6; rodada++) {
+            Map<Long, String> lote = new HashMap<>();
+            for (int i = 0; i < 1500; i++) {
+                long id = random.nextInt(4000);
+                String valor = random.nextInt(5) == 0 ? null : "func" + random.nextInt(300) + "@empresa.com";
+                lote.put(id, valor);
+            }
+            if (rodada % 2 == 0) {
+                indice.aplicar(lote);
+            } else {
+                lote.forEach((id, valor) -> {
+                    if (valor == null) indice.remover(id);
+                    else indice.indexar(id, valor);
+                });
+            }
+            lote.forEach((id, valor) -> {
+                if (valor == null) esperado.remove(id);
+                else esperado.put(id, valor);
+            });
+
+            for (String termo : new String[] {"@empresa.com", "func1", "c12@", "42", "zz"}) {
+                assertThat(indice.buscar(termo, Integer.MAX_VALUE)).as(termo).isEqualTo(varrer(esperado, termo));
+            }
+        }
+        assertThat(indice.tamanho()).isEqualTo(esperado.size());
+    }
+
+    private static Set<Long> varrer(Map<Long, String> valores, String termo) {
+        Set<Long> resultado = new HashSet<>();
+        valores.forEach((id, valor) -> {
+            if (valor.contains(termo)) resultado.add(id);
+        });
+        return resultado;
+    }
+}
@@ -0,0 +1,146 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.exceptions.RecursoNaoEncontradoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LeiturasCompartilhadasTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Uma thread por requisição: todas ficam esperando ao mesmo tempo
+    private final ExecutorService requisicoes = Executors.newCachedThreadPool();
+    private final LeiturasCompartilhadas leituras = new LeiturasCompartilhadas(new ObjectMapper(), meterRegistry,
+            true, 1000, 5000, List.of("funcionarios.departamento"));
+
+    @Test
+    void requisicoesSimultaneasCompartilhamAConsultaEOBuffer() throws Exception {
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<List<String>> consulta = () -> {
+            consultas.incrementAndGet();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of("Ana", "Bruno");
+        };
+
+        List<CompletableFuture<byte[]>> respostas = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            respostas.add(CompletableFuture.supplyAsync(
+                    () -> leituras.ler("funcionarios.departamento", "v1|7", consulta), requisicoes));
+        }
+        // Todas entram na leitura em andamento antes de ela terminar
+        aguardarCompartilhadas(7);
+        liberar.countDown();
+
+        byte[] primeira = respostas.get(0).get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<byte[]> resposta : respostas) {
+            assertThat(resposta.get(10, TimeUnit.SECONDS)).isSameAs(primeira);
+        }
+        assertThat(new String(primeira)).isEqualTo("[\"Ana\",\"Bruno\"]");
+        assertThat(consultas.get()).isEqualTo(1);
+
+        // Terminada a leitura, a chave não fica guardada; outra versão (após uma gravação) também lê de novo
+        leituras.ler("funcionarios.departamento", "v1|7", consulta);
+        leituras.ler("funcionarios.departamento", "v2|7", consulta);
+        assertThat(consultas.get()).isEqualTo(3);
+        // Rota fora do espaço de chaves: sem compartilhamento nem contagem
+        leituras.ler("funcionarios.pagina", "v2", consulta);
+        assertThat(consultas.get()).isEqualTo(4);
+        assertThat(meterRegistry.get("leituras.compartilhadas").tag("resultado", "executada").counter().count())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    void falhaDaLeituraChegaATodasAsRequisicoes() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<List<String>> consulta = () -> {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RecursoNaoEncontradoException("Departamento não encontrado");
+        };
+
+        CompletableFuture<byte[]> primeira = CompletableFuture.supplyAsync(
+                () -> leituras.ler("funcionarios.departamento", "v1|99", consulta), requisicoes);
+        CompletableFuture<byte[]> segunda = CompletableFuture.supplyAsync(
+                () -> leituras.ler("funcionarios.departamento", "v1|99", consulta), requisicoes);
+        aguardarCompartilhadas(1);
+        liberar.countDown();
+
+        for (CompletableFuture<byte[]> resposta : List.of(primeira, segunda)) {
+            assertThatThrownBy(() -> resposta.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(RecursoNaoEncontradoException.class);
+        }
+    }
+
+    @Test
+    void esperaAlemDoMaximoLeSozinha() throws Exception {
+        LeiturasCompartilhadas curtas = new LeiturasCompartilhadas(new ObjectMapper(), meterRegistry,
+                true, 1000, 100, List.of("funcionarios.departamento"));
+        // A primeira consulta fica presa; as seguintes respondem na hora
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<List<String>> consulta = () -> {
+            if (consultas.incrementAndGet() == 1) {
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.of("Ana");
+        };
+
+        CompletableFuture<byte[]> presa = CompletableFuture.supplyAsync(
+                () -> curtas.ler("funcionarios.departamento", "v1|7", consulta), requisicoes);
+        while (consultas.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        long inicio = System.nanoTime();
+        assertThat(new String(curtas.ler("funcionarios.departamento", "v1|7", consulta))).isEqualTo("[\"Ana\"]");
+        assertThat(System.nanoTime() - inicio).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        assertThat(consultas.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("leituras.compartilhadas").tag("resultado", "expirada").counter().count())
+                .isEqualTo(1.0);
+
+        liberar.countDown();
+        assertThat(presa.get(10, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @AfterEach
+    void encerrar() {
+        requisicoes.shutdownNow();
+    }
+
+    private void aguardarCompartilhadas(int esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("leituras.compartilhadas").tag("resultado", "compartilhada").counter().count() < esperadas
+                && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+}
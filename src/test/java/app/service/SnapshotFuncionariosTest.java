@@ -0,0 +1,92 @@
+package app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import app.dto.ComparativoDepartamentoDTO;
+import app.dto.DepartamentoRequestDTO;
+import app.dto.DistribuicaoSalarialDTO;
+import app.dto.FuncionarioRequestDTO;
+import app.dto.FuncionarioResponseDTO;
+import app.dto.ReajusteSalarialRequestDTO;
+
+/**
+ * A cópia colunar acompanha as gravações pelos serviços: depois de cada uma, as consultas analíticas
+ * devem dar o mesmo resultado que uma cópia recarregada do banco.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SnapshotFuncionariosTest {
+
+    @Autowired
+    private FuncionarioService funcionarioService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private AnaliseFuncionariosService analiseFuncionariosService;
+
+    @Autowired
+    private SnapshotFuncionarios snapshotFuncionarios;
+
+    @MockitoBean
+    private DespachanteNotificacoes despachanteNotificacoes;
+
+    @Test
+    void acompanhaGravacoesIndividuaisEEmLote() {
+        Long dep = departamentoService.salvar(new DepartamentoRequestDTO("Análise " + System.nanoTime(), "ANL", true)).id();
+        Long outro = departamentoService.salvar(new DepartamentoRequestDTO("Outro " + System.nanoTime(), "OUT", true)).id();
+
+        FuncionarioResponseDTO a = funcionarioService.save(dto("Ana", "ana@analise.com", "Cientista de Dados", 8000.0, dep));
+        FuncionarioResponseDTO b = funcionarioService.save(dto("Beto", "beto@analise.com", "Cientista de Dados", 6000.0, dep));
+        FuncionarioResponseDTO c = funcionarioService.save(dto("Caio", "caio@analise.com", "Cientista de Dados", 7000.0, outro));
+        funcionarioService.save(dto("Duda", "duda@analise.com", "Estagiária", 2000.0, dep));
+
+        DistribuicaoSalarialDTO cientistas = cargo("Cientista de Dados");
+        assertThat(cientistas.funcionarios()).isEqualTo(3);
+        assertThat(cientistas.mediana()).isEqualTo(7000.0);
+        assertThat(cientistas.maximo()).isEqualTo(8000.0);
+
+        funcionarioService.update(b.id(), dto("Beto", "beto@analise.com", "Cientista de Dados", 9000.0, outro), null);
+        funcionarioService.inativar(a.id(), null);
+        funcionarioService.delete(c.id());
+        funcionarioService.reajustarSalarios(dep, new ReajusteSalarialRequestDTO(10.0, null));
+
+        assertThat(cargo("Cientista de Dados").funcionarios()).isEqualTo(2);
+        ComparativoDepartamentoDTO analise = departamento(dep);
+        assertThat(analise.funcionarios()).isEqualTo(2);
+        assertThat(analise.ativos()).isEqualTo(1);
+        // Reajuste só dos ativos: Duda 2000 -> 2200; Ana, inativa, segue com 8000
+        assertThat(analise.folhaSalarial()).isEqualTo(10200.0);
+
+        List<DistribuicaoSalarialDTO> salarios = analiseFuncionariosService.salariosPorCargo(null);
+        List<ComparativoDepartamentoDTO> departamentos = analiseFuncionariosService.comparativoDepartamentos(null);
+
+        snapshotFuncionarios.recarregar();
+        assertThat(analiseFuncionariosService.salariosPorCargo(null)).isEqualTo(salarios);
+        assertThat(analiseFuncionariosService.comparativoDepartamentos(null)).isEqualTo(departamentos);
+    }
+
+    private DistribuicaoSalarialDTO cargo(String cargo) {
+        return analiseFuncionariosService.salariosPorCargo(null).stream()
+                .filter(d -> d.cargo().equals(cargo)).findFirst().orElseThrow();
+    }
+
+    private ComparativoDepartamentoDTO departamento(Long id) {
+        return analiseFuncionariosService.comparativoDepartamentos(null).stream()
+                .filter(d -> d.departamentoId().equals(id)).findFirst().orElseThrow();
+    }
+
+    private FuncionarioRequestDTO dto(String nome, String email, String cargo, double salario, Long departamentoId) {
+        return new FuncionarioRequestDTO(nome, email, cargo, salario, LocalDate.of(2021, 5, 10), null, departamentoId);
+    }
+}